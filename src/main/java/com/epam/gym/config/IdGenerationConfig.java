@@ -0,0 +1,41 @@
+package com.epam.gym.config;
+
+import com.epam.gym.entity.PooledSequenceGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Sequence-based id generation: hands the configured allocation size to Hibernate and makes
+ * the entity manager factory wait for the schema migrations that must precede its schema update.
+ */
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(
+            @Value("${gym.id.allocation-size:50}") int allocationSize) {
+        return properties -> properties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, allocationSize);
+    }
+
+    @Bean
+    public IdSequenceMigration idSequenceMigration(DataSource dataSource,
+                                                   @Value("${gym.id.allocation-size:50}") int allocationSize) {
+        return new IdSequenceMigration(new JdbcTemplate(dataSource), allocationSize);
+    }
+
+    @Bean
+    public TrainingNaturalKeyMigration trainingNaturalKeyMigration(DataSource dataSource) {
+        return new TrainingNaturalKeyMigration(new JdbcTemplate(dataSource));
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("idSequenceMigration", "trainingNaturalKeyMigration");
+    }
+}
@@ -0,0 +1,77 @@
+package com.epam.gym.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares the id sequences of the entities mapped with {@code @PooledSequence} before Hibernate
+ * starts. Tables created with identity columns already hold ids, so a missing sequence is created
+ * to start after the highest existing id rather than at 1, and an existing sequence whose increment
+ * differs from the configured allocation size is restarted with the new increment. Runs before the
+ * entity manager factory, so Hibernate's schema update finds the sequences in place.
+ */
+public class IdSequenceMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    /** Table and sequence of every entity with a pooled sequence id. */
+    static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "trainees", "trainees_seq",
+            "trainers", "trainers_seq",
+            "trainings", "trainings_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int allocationSize;
+
+    public IdSequenceMigration(JdbcTemplate jdbcTemplate, int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SEQUENCES.forEach(this::migrate);
+    }
+
+    private void migrate(String table, String sequence) {
+        long nextId = maxId(table) + 1;
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList(
+                "SELECT INCREMENT, BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES " +
+                        "WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = ?",
+                sequence.toUpperCase());
+        if (existing.isEmpty()) {
+            jdbcTemplate.execute("CREATE SEQUENCE " + sequence +
+                    " START WITH " + nextId + " INCREMENT BY " + allocationSize);
+            log.info("Created sequence {} starting at {} with increment {}", sequence, nextId, allocationSize);
+            return;
+        }
+        long increment = ((Number) existing.get(0).get("INCREMENT")).longValue();
+        long baseValue = ((Number) existing.get(0).get("BASE_VALUE")).longValue();
+        if (increment != allocationSize || baseValue < nextId) {
+            long restartAt = Math.max(baseValue, nextId);
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence +
+                    " RESTART WITH " + restartAt + " INCREMENT BY " + allocationSize);
+            log.info("Restarted sequence {} at {} with increment {} (was {})",
+                    sequence, restartAt, allocationSize, increment);
+        }
+    }
+
+    private long maxId(String table) {
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                        "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = ?",
+                Integer.class, table.toUpperCase());
+        if (tables == null || tables == 0) {
+            return 0;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.epam.gym.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+
+/**
+ * Replaces passwords stored as plain text, from before passwords were hashed, with BCrypt hashes
+ * of the same value. Runs before the entity manager factory, so no login is served while such a
+ * password is still stored, and the password check never has to accept plain text.
+ */
+public class LegacyPasswordMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyPasswordMigration.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BCryptPasswordEncoder passwordEncoder;
+
+    public LegacyPasswordMigration(JdbcTemplate jdbcTemplate, BCryptPasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                        "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = 'USERS'",
+                Integer.class);
+        if (tables == null || tables == 0) {
+            return;
+        }
+        int rehashed = 0;
+        List<Object[]> batch;
+        do {
+            // Rehashed rows no longer match, so each round reads the next plain-text passwords
+            batch = jdbcTemplate.query(
+                    "SELECT id, password FROM users WHERE password NOT LIKE '$2%' ORDER BY id FETCH FIRST " + BATCH_SIZE + " ROWS ONLY",
+                    (row, rowNum) -> new Object[]{passwordEncoder.encode(row.getString("password")), row.getLong("id")});
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE users SET password = ? WHERE id = ?", batch);
+                rehashed += batch.size();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        if (rehashed > 0) {
+            log.info("Replaced {} plain-text passwords with BCrypt hashes", rehashed);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.epam.gym.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class PasswordConfig {
+
+    @Bean
+    public BCryptPasswordEncoder passwordEncoder(@Value("${gym.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    @Bean
+    public LegacyPasswordMigration legacyPasswordMigration(DataSource dataSource, BCryptPasswordEncoder passwordEncoder) {
+        return new LegacyPasswordMigration(new JdbcTemplate(dataSource), passwordEncoder);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor legacyPasswordMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("legacyPasswordMigration");
+    }
+}
@@ -0,0 +1,85 @@
+package com.epam.gym.config;
+
+import com.epam.gym.entity.CacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache: an in-process Caffeine JCache manager whose regions are created
+ * up front, each with its own size bound and time to live ({@code gym.cache.region.<region>.*}).
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    // Last change of each table, checked by the query cache; evicting an entry would serve stale results
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /** Regions sized and expired from configuration, with their defaults. */
+    static final List<Region> REGIONS = List.of(
+            new Region(CacheRegions.USERS, 20_000, Duration.ofMinutes(10)),
+            new Region(CacheRegions.TRAINEES, 10_000, Duration.ofMinutes(10)),
+            new Region(CacheRegions.TRAINERS, 10_000, Duration.ofMinutes(10)),
+            new Region(CacheRegions.TRAINEE_TRAINERS, 10_000, Duration.ofMinutes(10)),
+            new Region(CacheRegions.TRAINING_TYPES, 100, Duration.ZERO),
+            new Region(CacheRegions.TRAINING_TYPE_QUERIES, 100, Duration.ZERO),
+            new Region(QUERY_RESULTS_REGION, 1_000, Duration.ofMinutes(10)));
+
+    private static final String CACHE_MANAGER_SETTING = "hibernate.javax.cache.cache_manager";
+
+    @Bean
+    public CacheManager secondLevelCacheManager(Environment environment) {
+        // A manager of its own per application context, so contexts never share cached entities
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("gym-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (Region region : REGIONS) {
+            String prefix = "gym.cache.region." + region.name();
+            long maxSize = environment.getProperty(prefix + ".max-size", Long.class, region.maxSize());
+            Duration ttl = environment.getProperty(prefix + ".ttl", Duration.class, region.ttl());
+            cacheManager.createCache(region.name(), configuration(OptionalLong.of(maxSize), ttl));
+        }
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, configuration(OptionalLong.empty(), Duration.ZERO));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(CACHE_MANAGER_SETTING, secondLevelCacheManager);
+    }
+
+    @Bean
+    public SecondLevelCacheMetrics secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory,
+                                                           MeterRegistry meterRegistry) {
+        return new SecondLevelCacheMetrics(entityManagerFactory.unwrap(SessionFactory.class).getStatistics(),
+                REGIONS.stream().map(Region::name).toList(), meterRegistry);
+    }
+
+    /**
+     * @param ttl Time to live after the entry was written; zero for entries that never go stale.
+     */
+    private static CaffeineConfiguration<Object, Object> configuration(OptionalLong maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize);
+        configuration.setExpireAfterWrite(ttl.isZero() ? OptionalLong.empty() : OptionalLong.of(ttl.toNanos()));
+        // Hibernate caches disassembled, immutable state: copying it on every access buys nothing
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+
+    record Region(String name, long maxSize, Duration ttl) {}
+}
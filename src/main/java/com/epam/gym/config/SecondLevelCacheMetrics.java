@@ -0,0 +1,44 @@
+package com.epam.gym.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes the Hibernate statistics of each second-level cache region, tagged with its name.
+ * Counters read the statistics on every scrape, so they keep working after the statistics are cleared.
+ */
+public class SecondLevelCacheMetrics {
+
+    public SecondLevelCacheMetrics(Statistics statistics, List<String> regions, MeterRegistry meterRegistry) {
+        for (String region : regions) {
+            FunctionCounter.builder("gym.hibernate.cache.requests", statistics,
+                            s -> count(s, region, CacheRegionStatistics::getHitCount))
+                    .tag("region", region).tag("result", "hit").register(meterRegistry);
+            FunctionCounter.builder("gym.hibernate.cache.requests", statistics,
+                            s -> count(s, region, CacheRegionStatistics::getMissCount))
+                    .tag("region", region).tag("result", "miss").register(meterRegistry);
+            FunctionCounter.builder("gym.hibernate.cache.puts", statistics,
+                            s -> count(s, region, CacheRegionStatistics::getPutCount))
+                    .tag("region", region).register(meterRegistry);
+            Gauge.builder("gym.hibernate.cache.hit-ratio", statistics, s -> hitRatio(s, region))
+                    .tag("region", region).register(meterRegistry);
+        }
+    }
+
+    private static double count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> counter) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : counter.applyAsLong(regionStatistics);
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        double hits = count(statistics, region, CacheRegionStatistics::getHitCount);
+        double requests = hits + count(statistics, region, CacheRegionStatistics::getMissCount);
+        return requests == 0 ? 1.0 : hits / requests;
+    }
+}
@@ -0,0 +1,32 @@
+package com.epam.gym.config;
+
+import com.epam.gym.store.InMemoryTokenStore;
+import com.epam.gym.store.RemoteTokenStore;
+import com.epam.gym.store.TokenStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class TokenStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "gym.token.store.type", havingValue = "memory", matchIfMissing = true)
+    public TokenStore inMemoryTokenStore() {
+        return new InMemoryTokenStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gym.token.store.type", havingValue = "remote")
+    public RemoteTokenStore remoteTokenStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${gym.token.store.remote.near-cache.size:10000}") int nearCacheSize,
+            @Value("${gym.token.store.remote.near-cache.ttl:1s}") Duration nearCacheTtl) {
+        return new RemoteTokenStore(redisTemplate, nearCacheSize, nearCacheTtl, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,43 @@
+package com.epam.gym.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Removes duplicate trainings (same trainee, trainer, date and name) that were inserted before
+ * the natural key existed, keeping the oldest row of each. Runs before the entity manager
+ * factory, so Hibernate's schema update can add the unique constraint, which it otherwise
+ * fails to create and skips.
+ */
+public class TrainingNaturalKeyMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingNaturalKeyMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TrainingNaturalKeyMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                        "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = 'TRAININGS'",
+                Integer.class);
+        if (tables == null || tables == 0) {
+            return;
+        }
+        int deleted = jdbcTemplate.update("""
+                DELETE FROM trainings t WHERE EXISTS (
+                    SELECT 1 FROM trainings d
+                    WHERE d.trainee_id = t.trainee_id AND d.trainer_id = t.trainer_id
+                      AND d.date = t.date AND d.name = t.name AND d.id < t.id)
+                """);
+        if (deleted > 0) {
+            log.info("Removed {} duplicate trainings before adding their natural key", deleted);
+        }
+    }
+}
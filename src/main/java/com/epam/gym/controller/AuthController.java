@@ -2,42 +2,75 @@ package com.epam.gym.controller;
 
 import com.epam.gym.dto.ChangePasswordRequest;
 import com.epam.gym.dto.LoginRequest;
+import com.epam.gym.dto.TokenIntrospectionRequest;
+import com.epam.gym.dto.TokenIntrospectionResponse;
 import com.epam.gym.dto.TokenValidationResponse;
 import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.security.LoginThrottle;
 import com.epam.gym.service.AuthService;
 import com.epam.gym.service.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 public class AuthController {
 
+    public static final String INTROSPECTION_SECRET_HEADER = "X-Introspection-Secret";
+
     private final AuthService authService;
     private final TokenService tokenService;
+    private final LoginThrottle loginThrottle;
+    private final long maxCacheSeconds;
+    private final byte[] introspectionSecret;
 
     @Autowired
     public AuthController(AuthService authService,
-                          TokenService tokenService
+                          TokenService tokenService,
+                          LoginThrottle loginThrottle,
+                          @Value("${gym.token.introspection.max-cache:5s}") Duration maxCache,
+                          @Value("${gym.token.introspection.client-secret:}") String introspectionSecret
     ) {
         this.authService = authService;
         this.tokenService = tokenService;
+        this.loginThrottle = loginThrottle;
+        this.maxCacheSeconds = maxCache.toSeconds();
+        this.introspectionSecret = introspectionSecret.getBytes(StandardCharsets.UTF_8);
     }
 
     /**
      * Authenticates a user and generates a token on successful login.
      *
      * @param request The login request body containing username and password.
+     * @param httpRequest The underlying request, used for the client address (taken from
+     *                    {@code X-Forwarded-For} when sent by a trusted proxy).
      * @return ResponseEntity with the token string and HTTP status OK on success,
-     * or HTTP status UNAUTHORIZED on failure.
+     * HTTP status UNAUTHORIZED on failure, or TOO_MANY_REQUESTS with a Retry-After header
+     * if the username or the client address has used up its login attempts.
      */
     @PostMapping("/login")
     public ResponseEntity<String> login(
-            @Valid @RequestBody LoginRequest request
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
     ) {
+        long retryAfter = loginThrottle.tryAcquire(request.username(), httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
         boolean isAuthenticated = authService.authenticate(request.username(),
                 request.password());
         if (isAuthenticated) {
@@ -53,14 +86,22 @@ public class AuthController {
      * Changes the password for an authenticated user. Requires old password for verification.
      *
      * @param request The change password request body.
-     * @return ResponseEntity with HTTP status NO_CONTENT on success.
+     * @param httpRequest The underlying request, used for the client address (taken from
+     *                    {@code X-Forwarded-For} when sent by a trusted proxy).
+     * @return ResponseEntity with HTTP status NO_CONTENT on success, or TOO_MANY_REQUESTS
+     * if the username or the client address has used up its login attempts.
      * Requires global exception handling for authentication failures (401),
      * invalid new password (400), etc.
      */
     @PutMapping("/change-password")
     public ResponseEntity<Void> changePassword(
-            @RequestBody @Valid ChangePasswordRequest request
+            @RequestBody @Valid ChangePasswordRequest request,
+            HttpServletRequest httpRequest
     ) {
+        long retryAfter = loginThrottle.tryAcquire(request.username(), httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
 
         authService.changePassword(request.username(),
                 request.oldPassword(),
@@ -81,27 +122,69 @@ public class AuthController {
         return ResponseEntity.noContent().build();
     }
 
-//    /**
-//     * Validates the provided token and returns its status and associated username if valid.
-//     *
-//     * @param token The authentication token to validate.
-//     * @return ResponseEntity with TokenValidationResponse and HTTP status OK if valid,
-//     * or HTTP status UNAUTHORIZED if invalid.
-//     */
-//    @GetMapping("/validate")
-//    public ResponseEntity<TokenValidationResponse> validateToken(@RequestHeader("X-Auth-Token") String token) {
-//        if (tokenService.isValidToken(token)) {
-//            // Assuming getUsername is available in TokenService to retrieve the username from the token
-//            String username = tokenService.getUsername(token);
-//            // Create a success response DTO
-//            TokenValidationResponse response = new TokenValidationResponse(true, username);
-//            // Return OK status with the structured response
-//            return ResponseEntity.ok(response);
-//        } else {
-//            // Create a failure response DTO
-//            TokenValidationResponse response = new TokenValidationResponse(false, null);
-//            // Return UNAUTHORIZED status for invalid token
-//            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response); // Return UNAUTHORIZED for invalid
-//        }
-//    }
+    /**
+     * Validates the provided token and returns its status and associated username if valid.
+     *
+     * @param token The authentication token to validate.
+     * @return ResponseEntity with TokenValidationResponse and HTTP status OK if valid,
+     * or HTTP status UNAUTHORIZED if invalid.
+     */
+    @GetMapping("/validate")
+    public ResponseEntity<TokenValidationResponse> validateToken(@RequestHeader("X-Auth-Token") String token) {
+        if (tokenService.isValidToken(token)) {
+            String username = tokenService.getUsername(token);
+            return ResponseEntity.ok(new TokenValidationResponse(true, username));
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new TokenValidationResponse(false, null));
+        }
+    }
+
+    /**
+     * Validates a batch of tokens in one call, for gateways that front many requests. The
+     * gateway authenticates with the shared {@value #INTROSPECTION_SECRET_HEADER}; without a
+     * configured secret the endpoint accepts no caller. Each valid token's idle window is
+     * extended as if it had been used.
+     *
+     * @param secret The introspection client secret.
+     * @param request The tokens to validate.
+     * @return ResponseEntity with one result per token, in request order, and HTTP status OK.
+     * Each valid result says how long it may be cached; the Cache-Control header carries the
+     * shortest of these, or no-store if no token is valid.
+     * @throws InvalidTokenException if the secret is missing or wrong.
+     */
+    @PostMapping("/introspect")
+    public ResponseEntity<List<TokenIntrospectionResponse>> introspect(
+            @RequestHeader(value = INTROSPECTION_SECRET_HEADER, required = false) String secret,
+            @Valid @RequestBody TokenIntrospectionRequest request
+    ) {
+        if (introspectionSecret.length == 0 || secret == null ||
+                !MessageDigest.isEqual(introspectionSecret, secret.getBytes(StandardCharsets.UTF_8))) {
+            throw new InvalidTokenException("Introspection client not authenticated");
+        }
+        List<TokenIntrospectionResponse> results = new ArrayList<>(request.tokens().size());
+        long minCacheFor = Long.MAX_VALUE;
+        for (TokenService.Introspection introspection : tokenService.introspect(request.tokens())) {
+            if (introspection == null) {
+                results.add(TokenIntrospectionResponse.invalid());
+                continue;
+            }
+            long expiresIn = TimeUnit.MILLISECONDS.toSeconds(introspection.expiresInMillis());
+            long cacheFor = Math.min(maxCacheSeconds, expiresIn);
+            minCacheFor = Math.min(minCacheFor, cacheFor);
+            results.add(new TokenIntrospectionResponse(true, introspection.username(), expiresIn, cacheFor));
+        }
+        // Private, not public: the answer depends on the POSTed tokens, while a shared cache keys
+        // on the URL and would hand one batch's usernames to the next caller. Gateways cache per
+        // token, using each result's cacheFor.
+        CacheControl cacheControl = minCacheFor == Long.MAX_VALUE || minCacheFor == 0
+                ? CacheControl.noStore()
+                : CacheControl.maxAge(minCacheFor, TimeUnit.SECONDS).cachePrivate();
+        return ResponseEntity.ok().cacheControl(cacheControl).body(results);
+    }
+
+    private static <T> ResponseEntity<T> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .build();
+    }
 }
@@ -0,0 +1,54 @@
+package com.epam.gym.controller;
+
+import com.epam.gym.dto.BatchOperationResult;
+import com.epam.gym.dto.BatchRequest;
+import com.epam.gym.dto.BatchResponse;
+import com.epam.gym.security.AuthenticationFilter;
+import com.epam.gym.service.BatchService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/api/v1/batch")
+public class BatchController {
+
+    private final BatchService batchService;
+
+    @Autowired
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    /**
+     * Executes several operations in one call and one transaction. Requires authentication token;
+     * each operation must act on the authenticated user, as on its own endpoint.
+     *
+     * @param request The operations to execute, in order.
+     * @param principal The authenticated username.
+     * @return ResponseEntity with per-operation results and HTTP status OK if all operations were
+     *         committed, otherwise the status of the failed operation, none of them being committed.
+     */
+    @PostMapping("/")
+    public ResponseEntity<BatchResponse> executeBatch(
+            @Valid @RequestBody BatchRequest request,
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
+    ) {
+        BatchResponse response = batchService.execute(request.operations(), principal);
+        if (response.committed()) {
+            return ResponseEntity.status(HttpStatus.OK).body(response);
+        }
+        int failed = response.results().stream()
+                .filter(result -> !result.isSucceeded())
+                .mapToInt(BatchOperationResult::status)
+                .findFirst()
+                .orElse(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        return ResponseEntity.status(failed).body(response);
+    }
+}
@@ -1,10 +1,10 @@
 package com.epam.gym.controller;
 
 import com.epam.gym.dto.*;
-import com.epam.gym.entity.Trainee;
 import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.security.AuthenticationFilter;
+import com.epam.gym.service.BulkRegistrationService;
 import com.epam.gym.service.FacadeService;
-import com.epam.gym.service.TokenService;
 import com.epam.gym.service.TraineeService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -16,25 +16,24 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(value = "/api/v1/trainees")
 public class TraineeController {
 
     private final FacadeService facadeService;
-    private final TokenService tokenService;
     private final TraineeService traineeService;
+    private final BulkRegistrationService bulkRegistrationService;
 
     @Autowired
     public TraineeController(
             FacadeService facadeService,
-            TokenService tokenService,
-            TraineeService traineeService
+            TraineeService traineeService,
+            BulkRegistrationService bulkRegistrationService
     ) {
         this.facadeService = facadeService;
-        this.tokenService = tokenService;
         this.traineeService = traineeService;
+        this.bulkRegistrationService = bulkRegistrationService;
     }
 
     /**
@@ -51,22 +50,36 @@ public class TraineeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Registers many trainees at once, e.g. a whole corporate contract. Requires authentication token.
+     * Rows are registered independently: invalid or failing rows are reported in their result
+     * and do not prevent the other rows from being registered.
+     *
+     * @param request The trainees to register.
+     * @return ResponseEntity with per-row credentials or errors and HTTP status OK.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkRegistrationResponse> registerTrainees(
+            @Valid @RequestBody BulkTraineeRegistrationRequest request
+    ) {
+        BulkRegistrationResponse response = bulkRegistrationService.registerTrainees(request.trainees());
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
     /**
      * Gets trainee profile by username. Requires authentication token.
      *
      * @param username The username of the trainee.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with TraineeProfileResponse and HTTP status OK.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @GetMapping("/{username}")
     public ResponseEntity<TraineeProfileResponse> getTrainee(
             @PathVariable @NotBlank String username,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(username, token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
+        AuthenticationFilter.requirePrincipal(principal, username);
         TraineeProfileResponse response = facadeService.getTraineeByUsername(username);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
@@ -75,40 +88,17 @@ public class TraineeController {
      * Updates trainee profile. Requires authentication token.
      *
      * @param request The trainee update request body.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with updated TraineeProfileResponse and HTTP status OK.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @PutMapping("/")
     public ResponseEntity<TraineeProfileResponse> updateTrainee(
             @Valid @RequestBody TraineeUpdateRequest request,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(request.username(), token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
-        traineeService.updateTrainee(request.username(),
-                request.firstName(),
-                request.lastName(),
-                request.dateOfBirth(),
-                request.address(),
-                request.isActive()
-        );
-        Trainee trainee = traineeService.findTraineeByUsername(request.username());
-
-        List<TrainerDto> trainersDto = trainee.getTrainers().stream()
-                .map(trainer -> new TrainerDto(trainer.getUser().getUsername(),
-                        trainer.getUser().getFirstName(),
-                        trainer.getUser().getLastName(),
-                        trainer.getTrainingType().getType().toString()))
-                .collect(Collectors.toList());
-
-        TraineeProfileResponse response = new TraineeProfileResponse(trainee.getUser().getFirstName(),
-                trainee.getUser().getLastName(),
-                trainee.getDateOfBirth(),
-                trainee.getAddress(),
-                trainee.getUser().isActive(),
-                trainersDto);
+        AuthenticationFilter.requirePrincipal(principal, request.username());
+        TraineeProfileResponse response = facadeService.updateTrainee(request);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
@@ -116,18 +106,16 @@ public class TraineeController {
      * Deletes a trainee by username. Requires authentication token.
      *
      * @param username The username of the trainee to delete.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with HTTP status NO_CONTENT.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @DeleteMapping("/{username}")
     public ResponseEntity<Void> deleteTrainee(@PathVariable String username,
-                                              @RequestHeader("X-Auth-Token") String token
+                                              @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(username, token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
-        traineeService.deleteTrainee(username);
+        AuthenticationFilter.requirePrincipal(principal, username);
+        facadeService.deleteTrainee(username);
         return ResponseEntity.noContent().build();
     }
 
@@ -140,9 +128,9 @@ public class TraineeController {
      * @param to End date for filtering trainings.
      * @param trainerName Trainer name for filtering trainings.
      * @param specialization Training type specialization for filtering trainings.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with a list of TraineeTrainingResponse and HTTP status OK.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @GetMapping("/{username}/trainings")
     public ResponseEntity<List<TraineeTrainingResponse>> getTraineeTrainings(
@@ -151,11 +139,9 @@ public class TraineeController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam(required = false) String trainerName,
             @RequestParam(required = false) String specialization,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(username, token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
+        AuthenticationFilter.requirePrincipal(principal, username);
 
         TraineeTrainingRequest request = new TraineeTrainingRequest(from,
                 to,
@@ -171,19 +157,17 @@ public class TraineeController {
      *
      * @param username The username of the trainee.
      * @param request The update trainee trainers request body.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with TraineeTrainerResponse and HTTP status OK.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @PutMapping("/{username}/trainers")
     public ResponseEntity<TraineeTrainerResponse> updateTraineeTrainers(
             @PathVariable String username,
             @Valid @RequestBody UpdateTraineeTrainersRequest request,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(username, token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
+        AuthenticationFilter.requirePrincipal(principal, username);
         TraineeTrainerResponse response = facadeService.updateTraineeTrainers(username, request);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
@@ -193,19 +177,17 @@ public class TraineeController {
      * Uses PATCH method for partial update.
      *
      * @param request The activate user request body.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with HTTP status NO_CONTENT.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @PatchMapping("/activation")
     public ResponseEntity<Void> updateTraineeActivation(
             @Valid @RequestBody ActivateUserRequest request,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(request.username(), token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
-        traineeService.changeActiveStatus(request.username(), request.isActive());
+        AuthenticationFilter.requirePrincipal(principal, request.username());
+        facadeService.changeTraineeActiveStatus(request.username(), request.isActive());
         return ResponseEntity.noContent().build();
     }
 
@@ -2,8 +2,9 @@ package com.epam.gym.controller;
 
 import com.epam.gym.dto.*;
 import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.security.AuthenticationFilter;
+import com.epam.gym.service.BulkRegistrationService;
 import com.epam.gym.service.FacadeService;
-import com.epam.gym.service.TokenService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,13 +21,12 @@ import java.util.List;
 public class TrainerController {
 
     private final FacadeService facadeService;
-    private final TokenService tokenService;
+    private final BulkRegistrationService bulkRegistrationService;
 
     @Autowired
-    public TrainerController(FacadeService facadeService,
-                             TokenService tokenService) {
+    public TrainerController(FacadeService facadeService, BulkRegistrationService bulkRegistrationService) {
         this.facadeService = facadeService;
-        this.tokenService = tokenService;
+        this.bulkRegistrationService = bulkRegistrationService;
     }
 
     /**
@@ -43,22 +43,35 @@ public class TrainerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Registers many trainers at once, e.g. when onboarding a franchise's staff. Requires
+     * authentication token. Rows are registered independently; the response reports each row.
+     *
+     * @param request The trainers to register.
+     * @return ResponseEntity with per-row credentials or errors and HTTP status OK.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkRegistrationResponse> registerTrainers(
+            @Valid @RequestBody BulkTrainerRegistrationRequest request
+    ) {
+        BulkRegistrationResponse response = bulkRegistrationService.registerTrainers(request.trainers());
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
     /**
      * Gets trainer profile by username. Requires authentication token.
      *
      * @param username The username of the trainer.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with TrainerProfileResponse and HTTP status OK.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @GetMapping("/{username}")
     public ResponseEntity<TrainerProfileResponse> getTrainer(
             @PathVariable @NotBlank String username,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(username, token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
+        AuthenticationFilter.requirePrincipal(principal, username);
         TrainerProfileResponse response = facadeService.getTrainerByUsername(username);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
@@ -67,18 +80,16 @@ public class TrainerController {
      * Updates trainer profile. Requires authentication token.
      *
      * @param request The trainer update request body.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with updated TrainerProfileResponse and HTTP status OK.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @PutMapping("/")
     public ResponseEntity<TrainerProfileResponse> updateTrainer(
             @Valid @RequestBody TrainerUpdateRequest request,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(request.username(), token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
+        AuthenticationFilter.requirePrincipal(principal, request.username());
         TrainerProfileResponse response = facadeService.updateTrainer(request);
         return ResponseEntity.status(HttpStatus.OK).body(response); // Changed status to OK
     }
@@ -87,18 +98,16 @@ public class TrainerController {
      * Gets a list of available trainers for a specific trainee. Requires authentication token.
      *
      * @param traineeUsername The username of the trainee.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with a list of TrainerDto and HTTP status OK.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @GetMapping("/available")
     public ResponseEntity<List<TrainerDto>> getAvailableTrainers(
             @RequestParam String traineeUsername,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(traineeUsername, token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
+        AuthenticationFilter.requirePrincipal(principal, traineeUsername);
         List<TrainerDto> trainers = facadeService.getAvailableTrainersForTrainee(traineeUsername);
         return ResponseEntity.ok(trainers);
     }
@@ -111,9 +120,9 @@ public class TrainerController {
      * @param from Start date for filtering trainings.
      * @param to End date for filtering trainings.
      * @param traineeName Trainee name for filtering trainings.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with a list of TrainerTrainingResponse and HTTP status OK.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @GetMapping("/{username}/trainings")
     public ResponseEntity<List<TrainerTrainingResponse>> getTrainerTrainings(
@@ -121,11 +130,9 @@ public class TrainerController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from, // Changed to RequestParam
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to, // Changed to RequestParam
             @RequestParam(required = false) String traineeName,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(username, token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
+        AuthenticationFilter.requirePrincipal(principal, username);
 
         TrainerTrainingRequest request = new TrainerTrainingRequest(from, to, traineeName);
 
@@ -139,18 +146,16 @@ public class TrainerController {
      * Uses PATCH method for partial update.
      *
      * @param request The activate user request body.
-     * @param token The authentication token.
+     * @param principal The authenticated username.
      * @return ResponseEntity with HTTP status NO_CONTENT.
-     * @throws InvalidTokenException if the token is invalid.
+     * @throws InvalidTokenException if the token does not belong to the user.
      */
     @PatchMapping("/activation")
     public ResponseEntity<Void> updateTrainerActivation(
             @Valid @RequestBody ActivateUserRequest request,
-            @RequestHeader("X-Auth-Token") String token
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        if (!tokenService.isValidToken(request.username(), token)){
-            throw new InvalidTokenException("Token not authenticated");
-        }
+        AuthenticationFilter.requirePrincipal(principal, request.username());
         facadeService.changeTrainerActiveStatus(request.username(), request.isActive());
         return ResponseEntity.noContent().build();
     }
@@ -1,40 +1,148 @@
 package com.epam.gym.controller;
 
-import com.epam.gym.dto.TraineeRegistrationRequest;
-import com.epam.gym.dto.TraineeRegistrationResponse;
+import com.epam.gym.dto.TrainingImportReport;
 import com.epam.gym.dto.TrainingRegistrationRequest;
+import com.epam.gym.dto.TrainingRegistrationStatus;
+import com.epam.gym.exception.ImportFileMismatchException;
+import com.epam.gym.exception.ImportInProgressException;
+import com.epam.gym.exception.InvalidImportFileException;
+import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.exception.ServiceOverloadedException;
+import com.epam.gym.security.AuthenticationFilter;
 import com.epam.gym.service.FacadeService;
-import com.epam.gym.service.TokenService;
+import com.epam.gym.service.TrainingImportService;
+import com.epam.gym.service.TrainingRegistrationQueue;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
 @RestController
 @RequestMapping(value = "/api/v1/trainings")
 public class TrainingController {
 
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9._-]{1,100}");
+
     private final FacadeService facadeService;
-    private final TokenService tokenService;
+    private final TrainingRegistrationQueue trainingRegistrationQueue;
+    private final TrainingImportService trainingImportService;
 
     @Autowired
     public TrainingController(FacadeService facadeService,
-            TokenService tokenService
-    ) {
+                              TrainingRegistrationQueue trainingRegistrationQueue,
+                              TrainingImportService trainingImportService) {
         this.facadeService = facadeService;
-        this.tokenService = tokenService;
+        this.trainingRegistrationQueue = trainingRegistrationQueue;
+        this.trainingImportService = trainingImportService;
     }
 
+    /**
+     * Registers a training. Requires authentication token of the trainee or the trainer.
+     *
+     * @param request The training registration request body.
+     * @param principal The authenticated username.
+     * @return ResponseEntity with HTTP status CREATED, or OK if the same training (trainee,
+     *         trainer, date and name) already exists.
+     * @throws InvalidTokenException if the token belongs to neither the trainee nor the trainer.
+     */
     @PostMapping("/")
     public ResponseEntity<Void> registerTrainee(
-            @Valid @RequestBody TrainingRegistrationRequest request
+            @Valid @RequestBody TrainingRegistrationRequest request,
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
     ) {
-        facadeService.registerTraining(request);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        requireParticipant(request, principal);
+        boolean created = facadeService.registerTraining(request);
+        return ResponseEntity.status(created ? HttpStatus.CREATED : HttpStatus.OK).build();
+    }
+
+    /**
+     * Accepts a training for asynchronous registration. Requires authentication token of the
+     * trainee or the trainer. The training is written shortly after; poll the returned location
+     * for the outcome.
+     *
+     * @param request The training registration request body.
+     * @param principal The authenticated username.
+     * @return ResponseEntity with the queued status and HTTP status ACCEPTED.
+     * @throws InvalidTokenException if the token belongs to neither the trainee nor the trainer.
+     * @throws ServiceOverloadedException if too many registrations are already queued.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<TrainingRegistrationStatus> registerTrainingAsync(
+            @Valid @RequestBody TrainingRegistrationRequest request,
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
+    ) {
+        requireParticipant(request, principal);
+        TrainingRegistrationStatus status = trainingRegistrationQueue.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/trainings/async/" + status.trackingId()))
+                .body(status);
+    }
+
+    /**
+     * Gets the outcome of an asynchronous training registration. Requires authentication token
+     * of the trainee or the trainer.
+     *
+     * @param trackingId The tracking id returned when the training was accepted.
+     * @param principal The authenticated username.
+     * @return ResponseEntity with the status and HTTP status OK, or NOT_FOUND if the id is
+     *         unknown, expired, or belongs to someone else's training.
+     */
+    @GetMapping("/async/{trackingId}")
+    public ResponseEntity<TrainingRegistrationStatus> getRegistrationStatus(
+            @PathVariable String trackingId,
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal
+    ) {
+        return trainingRegistrationQueue.status(trackingId, principal)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Imports historical trainings from a CSV export streamed as the request body. Requires
+     * authentication token; rows whose trainee and trainer are both other users are rejected.
+     * If the run fails, sending the same file with the same import id resumes after the last
+     * committed chunk.
+     *
+     * @param importId Identifies the import across runs of the user: letters, digits, '.', '_' or '-'.
+     * @param principal The authenticated username.
+     * @param request The request, streaming the CSV file, UTF-8 encoded.
+     * @return ResponseEntity with the import report and HTTP status OK, or BAD_REQUEST for an invalid import id.
+     * @throws InvalidImportFileException if the header is missing or lacks a column.
+     * @throws ImportInProgressException if the same import is already running.
+     * @throws ImportFileMismatchException if the import id was used for a different file.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<TrainingImportReport> importTrainings(
+            @RequestParam String importId,
+            @RequestAttribute(AuthenticationFilter.PRINCIPAL) String principal,
+            HttpServletRequest request
+    ) throws IOException {
+        if (!IMPORT_ID.matcher(importId).matches()) {
+            return ResponseEntity.badRequest().build();
+        }
+        TrainingImportReport report = trainingImportService.importTrainings(principal, importId,
+                request.getContentLengthLong(),
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        return ResponseEntity.status(HttpStatus.OK).body(report);
+    }
+
+    private static void requireParticipant(TrainingRegistrationRequest request, String principal) {
+        AuthenticationFilter.requireAnyPrincipal(principal, request.traineeUsername(), request.trainerUsername());
     }
 
 }
@@ -1,16 +1,17 @@
 package com.epam.gym.controller;
 
-import com.epam.gym.dto.TrainingTypeResponse;
+import com.epam.gym.dto.TrainingTypesPayload;
 import com.epam.gym.service.FacadeService;
 import com.epam.gym.service.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping(value = "/api/training-types")
@@ -28,10 +29,28 @@ public class TrainingTypeController {
         this.tokenService = tokenService;
     }
 
+    /**
+     * Lists all training types. The JSON is serialized once per change of the training types and
+     * carries an ETag, so clients polling with {@code If-None-Match} get an empty 304 while nothing changed.
+     *
+     * @param request The current request, for its {@code If-None-Match} header.
+     * @return ResponseEntity with the JSON array of training types and HTTP status OK,
+     *         or HTTP status NOT_MODIFIED without a body if the client's copy is current.
+     */
     @GetMapping("/")
-    public ResponseEntity<List<TrainingTypeResponse>> getAllTrainingTypes(){
-        List<TrainingTypeResponse> response = facadeService.findAllTrainingTypes();
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+    public ResponseEntity<byte[]> getAllTrainingTypes(WebRequest request) {
+        TrainingTypesPayload payload = facadeService.findAllTrainingTypesPayload();
+        if (request.checkNotModified(payload.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(payload.eTag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(payload.eTag())
+                .cacheControl(CacheControl.noCache())
+                .body(payload.json());
     }
 
 }
@@ -0,0 +1,48 @@
+package com.epam.gym.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One operation of a batch request, selected by its {@code op} property. Each carries the
+ * body of the equivalent single-operation endpoint.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "op")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = BatchOperation.UpdateTrainee.class, name = "updateTrainee"),
+        @JsonSubTypes.Type(value = BatchOperation.UpdateTraineeTrainers.class, name = "updateTraineeTrainers"),
+        @JsonSubTypes.Type(value = BatchOperation.UpdateTrainer.class, name = "updateTrainer"),
+        @JsonSubTypes.Type(value = BatchOperation.RegisterTraining.class, name = "registerTraining")
+})
+public sealed interface BatchOperation {
+
+    /** Same as {@code PUT /api/v1/trainees/}. */
+    record UpdateTrainee(
+            @Valid @NotNull(message = "body is required")
+            TraineeUpdateRequest body
+    ) implements BatchOperation {}
+
+    /** Same as {@code PUT /api/v1/trainees/{username}/trainers}. */
+    record UpdateTraineeTrainers(
+            @NotBlank(message = "username is required")
+            String username,
+
+            @Valid @NotNull(message = "body is required")
+            UpdateTraineeTrainersRequest body
+    ) implements BatchOperation {}
+
+    /** Same as {@code PUT /api/v1/trainers/}. */
+    record UpdateTrainer(
+            @Valid @NotNull(message = "body is required")
+            TrainerUpdateRequest body
+    ) implements BatchOperation {}
+
+    /** Same as {@code POST /api/v1/trainings/}. */
+    record RegisterTraining(
+            @Valid @NotNull(message = "body is required")
+            TrainingRegistrationRequest body
+    ) implements BatchOperation {}
+}
@@ -0,0 +1,28 @@
+package com.epam.gym.dto;
+
+/**
+ * Outcome of one operation of a batch.
+ *
+ * @param index Position of the operation in the request.
+ * @param status The HTTP status the equivalent single-operation call would have returned.
+ * @param body The response body of that call, null if it has none or the operation failed.
+ * @param error Why the operation failed or was not executed, null on success.
+ */
+public record BatchOperationResult(
+        int index,
+        int status,
+        Object body,
+        String error
+) {
+    public static BatchOperationResult succeeded(int index, int status, Object body) {
+        return new BatchOperationResult(index, status, body, null);
+    }
+
+    public static BatchOperationResult failed(int index, int status, String error) {
+        return new BatchOperationResult(index, status, null, error);
+    }
+
+    public boolean isSucceeded() {
+        return error == null;
+    }
+}
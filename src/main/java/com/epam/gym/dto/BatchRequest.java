@@ -0,0 +1,19 @@
+package com.epam.gym.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Operations are executed in order, in one transaction.
+ */
+public record BatchRequest(
+        @NotEmpty(message = "operations are required")
+        @Size(max = BatchRequest.MAX_OPERATIONS, message = "at most " + BatchRequest.MAX_OPERATIONS + " operations per request")
+        List<@Valid @NotNull(message = "operation is required") BatchOperation> operations
+) {
+    public static final int MAX_OPERATIONS = 50;
+}
@@ -0,0 +1,13 @@
+package com.epam.gym.dto;
+
+import java.util.List;
+
+/**
+ * @param committed Whether the operations were committed; false if any of them failed, in
+ *                  which case none of their changes were kept.
+ * @param results One result per operation, in request order.
+ */
+public record BatchResponse(
+        boolean committed,
+        List<BatchOperationResult> results
+) {}
@@ -0,0 +1,19 @@
+package com.epam.gym.dto;
+
+import java.util.List;
+
+/**
+ * @param created Number of registered rows.
+ * @param failed Number of rejected rows.
+ * @param results One result per request row, in request order.
+ */
+public record BulkRegistrationResponse(
+        int created,
+        int failed,
+        List<BulkRegistrationResult> results
+) {
+    public static BulkRegistrationResponse of(List<BulkRegistrationResult> results) {
+        int created = (int) results.stream().filter(BulkRegistrationResult::isCreated).count();
+        return new BulkRegistrationResponse(created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,28 @@
+package com.epam.gym.dto;
+
+/**
+ * Outcome of one row of a bulk registration.
+ *
+ * @param index Position of the row in the request.
+ * @param username The generated username, null if the row failed.
+ * @param password The generated password, null if the row failed.
+ * @param error Why the row was not registered, null on success.
+ */
+public record BulkRegistrationResult(
+        int index,
+        String username,
+        String password,
+        String error
+) {
+    public static BulkRegistrationResult created(int index, String username, String password) {
+        return new BulkRegistrationResult(index, username, password, null);
+    }
+
+    public static BulkRegistrationResult failed(int index, String error) {
+        return new BulkRegistrationResult(index, null, null, error);
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.epam.gym.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Rows are validated one by one during the import, so an invalid row is reported in its
+ * result instead of rejecting the whole request.
+ */
+public record BulkTraineeRegistrationRequest(
+        @NotEmpty(message = "trainees are required")
+        @Size(max = BulkTraineeRegistrationRequest.MAX_ROWS, message = "at most " + BulkTraineeRegistrationRequest.MAX_ROWS + " trainees per request")
+        List<TraineeRegistrationRequest> trainees
+) {
+    public static final int MAX_ROWS = 1000;
+}
@@ -0,0 +1,18 @@
+package com.epam.gym.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Rows are validated one by one during the import, so an invalid row or unknown specialization
+ * is reported in its result instead of rejecting the whole request.
+ */
+public record BulkTrainerRegistrationRequest(
+        @NotEmpty(message = "trainers are required")
+        @Size(max = BulkTrainerRegistrationRequest.MAX_ROWS, message = "at most " + BulkTrainerRegistrationRequest.MAX_ROWS + " trainers per request")
+        List<TrainerRegistrationRequest> trainers
+) {
+    public static final int MAX_ROWS = 1000;
+}
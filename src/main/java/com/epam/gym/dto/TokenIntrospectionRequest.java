@@ -0,0 +1,14 @@
+package com.epam.gym.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TokenIntrospectionRequest(
+        @NotEmpty(message = "tokens are required")
+        @Size(max = TokenIntrospectionRequest.MAX_TOKENS, message = "at most " + TokenIntrospectionRequest.MAX_TOKENS + " tokens per request")
+        List<String> tokens
+) {
+    public static final int MAX_TOKENS = 1000;
+}
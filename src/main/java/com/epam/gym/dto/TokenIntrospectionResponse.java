@@ -0,0 +1,20 @@
+package com.epam.gym.dto;
+
+/**
+ * Result for one token of a batch introspection request.
+ *
+ * @param valid Whether the token is currently valid.
+ * @param username The owner of the token, null if invalid.
+ * @param expiresIn Seconds until the token expires if it is not used again, 0 if invalid.
+ * @param cacheFor Seconds the caller may cache this result; invalid results must not be cached.
+ */
+public record TokenIntrospectionResponse(
+        boolean valid,
+        String username,
+        long expiresIn,
+        long cacheFor
+) {
+    public static TokenIntrospectionResponse invalid() {
+        return new TokenIntrospectionResponse(false, null, 0, 0);
+    }
+}
@@ -1,5 +1,9 @@
 package com.epam.gym.dto;
 
+import com.epam.gym.entity.TrainingTypeEnum;
+
+import java.time.LocalDate;
+
 public record TraineeTrainingResponse(
 
         String trainingName,
@@ -7,4 +11,15 @@ public record TraineeTrainingResponse(
         String trainingType,
         int trainingDuration,
         String trainerName
-) {}
+) {
+    /**
+     * Target of the constructor expression in the training history queries.
+     */
+    public TraineeTrainingResponse(String trainingName,
+                                   LocalDate trainingDate,
+                                   TrainingTypeEnum trainingType,
+                                   int trainingDuration,
+                                   String trainerName) {
+        this(trainingName, trainingDate.toString(), trainingType.toString(), trainingDuration, trainerName);
+    }
+}
@@ -1,5 +1,9 @@
 package com.epam.gym.dto;
 
+import com.epam.gym.entity.TrainingTypeEnum;
+
+import java.time.LocalDate;
+
 public record TrainerTrainingResponse(
 
         String trainingName,
@@ -7,4 +11,15 @@ public record TrainerTrainingResponse(
         String trainingType,
         int trainingDuration,
         String traineeName
-) {}
+) {
+    /**
+     * Target of the constructor expression in the training history queries.
+     */
+    public TrainerTrainingResponse(String trainingName,
+                                   LocalDate trainingDate,
+                                   TrainingTypeEnum trainingType,
+                                   int trainingDuration,
+                                   String traineeName) {
+        this(trainingName, trainingDate.toString(), trainingType.toString(), trainingDuration, traineeName);
+    }
+}
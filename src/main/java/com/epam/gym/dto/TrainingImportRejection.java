@@ -0,0 +1,12 @@
+package com.epam.gym.dto;
+
+/**
+ * A row of an import file that was not inserted.
+ *
+ * @param line The line number in the file, the header being line 1.
+ * @param error Why the row was rejected.
+ */
+public record TrainingImportRejection(
+        long line,
+        String error
+) {}
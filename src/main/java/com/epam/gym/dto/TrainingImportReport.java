@@ -0,0 +1,26 @@
+package com.epam.gym.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of one run of a training import.
+ *
+ * @param importId The id the import is checkpointed under.
+ * @param resumedFromLine The first line read in this run, greater than 2 when resuming.
+ * @param processed Data rows handled in this run.
+ * @param inserted Trainings inserted in this run.
+ * @param existing Rows skipped in this run because the same training already existed.
+ * @param rejected Rows rejected in this run.
+ * @param rowsPerSecond Throughput of this run.
+ * @param rejections Details of the rejected rows, capped at the configured maximum.
+ */
+public record TrainingImportReport(
+        String importId,
+        long resumedFromLine,
+        long processed,
+        long inserted,
+        long existing,
+        long rejected,
+        long rowsPerSecond,
+        List<TrainingImportRejection> rejections
+) {}
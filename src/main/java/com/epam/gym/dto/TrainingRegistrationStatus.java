@@ -0,0 +1,37 @@
+package com.epam.gym.dto;
+
+/**
+ * Progress of a training registration accepted for asynchronous processing.
+ *
+ * @param trackingId The id returned when the registration was accepted.
+ * @param state Whether the training is still queued, has been written, already existed, or was rejected.
+ * @param error Why the training was not registered, null unless failed.
+ */
+public record TrainingRegistrationStatus(
+        String trackingId,
+        State state,
+        String error
+) {
+    public enum State {
+        QUEUED,
+        CREATED,
+        ALREADY_EXISTS,
+        FAILED
+    }
+
+    public static TrainingRegistrationStatus queued(String trackingId) {
+        return new TrainingRegistrationStatus(trackingId, State.QUEUED, null);
+    }
+
+    public static TrainingRegistrationStatus created(String trackingId) {
+        return new TrainingRegistrationStatus(trackingId, State.CREATED, null);
+    }
+
+    public static TrainingRegistrationStatus alreadyExists(String trackingId) {
+        return new TrainingRegistrationStatus(trackingId, State.ALREADY_EXISTS, null);
+    }
+
+    public static TrainingRegistrationStatus failed(String trackingId, String error) {
+        return new TrainingRegistrationStatus(trackingId, State.FAILED, error);
+    }
+}
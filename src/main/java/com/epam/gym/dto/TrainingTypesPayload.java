@@ -0,0 +1,12 @@
+package com.epam.gym.dto;
+
+/**
+ * The training types response, serialized once per change of the training types.
+ *
+ * @param json The JSON array of {@link TrainingTypeResponse}s.
+ * @param eTag Strong entity tag of {@code json}, quoted.
+ */
+public record TrainingTypesPayload(
+        byte[] json,
+        String eTag
+) {}
@@ -0,0 +1,14 @@
+package com.epam.gym.dto;
+
+/**
+ * The part of a user needed to verify a login: no names, no profile, no associations.
+ */
+public record UserCredentials(
+        Long id,
+        String password,
+        Boolean active
+) {
+    public boolean isActive() {
+        return Boolean.TRUE.equals(active);
+    }
+}
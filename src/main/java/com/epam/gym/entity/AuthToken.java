@@ -0,0 +1,58 @@
+package com.epam.gym.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Persistent copy of an opaque authentication token, used to restore sessions after a restart.
+ * Only the SHA-256 of the token is stored, so the table never holds usable bearer tokens.
+ * Tokens are always inserted as new rows, so saving one never issues a select first.
+ */
+@Entity
+@Table(name = "auth_tokens",
+        indexes = @Index(name = "idx_auth_tokens_expires_at", columnList = "expires_at"))
+public class AuthToken implements Persistable<String> {
+
+    /** SHA-256 of the token, hex encoded. */
+    @Id
+    @Column(name = "token", length = 64)
+    private String tokenHash;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "issued_at", nullable = false)
+    private long issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected AuthToken() {}
+
+    public AuthToken(String tokenHash, String username, long issuedAt, long expiresAt) {
+        this.tokenHash = tokenHash;
+        this.username = username;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenHash() { return tokenHash; }
+    public String getUsername() { return username; }
+    public long getIssuedAt() { return issuedAt; }
+    public long getExpiresAt() { return expiresAt; }
+
+    @Override
+    public String getId() { return tokenHash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
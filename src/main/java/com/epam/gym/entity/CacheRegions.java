@@ -0,0 +1,16 @@
+package com.epam.gym.entity;
+
+/**
+ * Names of the second-level cache regions, shared by the entity mappings and the cache configuration.
+ */
+public final class CacheRegions {
+
+    public static final String USERS = "users";
+    public static final String TRAINEES = "trainees";
+    public static final String TRAINERS = "trainers";
+    public static final String TRAINEE_TRAINERS = "trainee-trainers";
+    public static final String TRAINING_TYPES = "training-types";
+    public static final String TRAINING_TYPE_QUERIES = "training-type-queries";
+
+    private CacheRegions() {}
+}
@@ -0,0 +1,74 @@
+package com.epam.gym.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Persisted response of a request made with an {@code Idempotency-Key}, so retries can be
+ * replayed after a restart or on another node. Records are always inserted as new rows.
+ */
+@Entity
+@Table(name = "idempotency_records",
+        indexes = @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    /** SHA-256 of the request scope and key, hex encoded. */
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+
+    @Column(name = "fingerprint", length = 64, nullable = false)
+    private String fingerprint;
+
+    @Column(name = "status", nullable = false)
+    private int status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "location")
+    private String location;
+
+    @Lob
+    @Column(name = "body")
+    private byte[] body;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected IdempotencyRecord() {}
+
+    public IdempotencyRecord(String keyHash, String fingerprint, int status, String contentType,
+                             String location, byte[] body, long expiresAt) {
+        this.keyHash = keyHash;
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.body = body;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getKeyHash() { return keyHash; }
+    public String getFingerprint() { return fingerprint; }
+    public int getStatus() { return status; }
+    public String getContentType() { return contentType; }
+    public String getLocation() { return location; }
+    public byte[] getBody() { return body; }
+    public long getExpiresAt() { return expiresAt; }
+
+    @Override
+    public String getId() { return keyHash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
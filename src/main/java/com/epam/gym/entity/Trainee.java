@@ -1,6 +1,8 @@
 package com.epam.gym.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -8,10 +10,12 @@ import java.util.Set;
 
 @Entity
 @Table(name = "trainees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TRAINEES)
 public class Trainee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("trainees_seq")
     private Long id;
 
     @Column(name = "date_of_birth")
@@ -25,6 +29,7 @@ public class Trainee {
     private User user;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TRAINEE_TRAINERS)
     @JoinTable(
             name = "trainee_trainer",
             joinColumns = @JoinColumn(name = "trainee_id"),
@@ -7,11 +7,14 @@ import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "trainings")
+// Natural key: a trainee has at most one training of a given name with a trainer per day
+@Table(name = "trainings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_trainings_natural_key",
+                columnNames = {"trainee_id", "trainer_id", "date", "name"}))
 public class Training {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("trainings_seq")
     private Long id;
 
     @ManyToOne //(cascade = CascadeType.REMOVE)
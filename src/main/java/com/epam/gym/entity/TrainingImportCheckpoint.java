@@ -0,0 +1,127 @@
+package com.epam.gym.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Progress of a training import, committed together with each chunk of inserted trainings so a
+ * failed run can resume right after the last committed row. An import belongs to the user who
+ * started it and to the file it was started with.
+ */
+@Entity
+@Table(name = "training_import_checkpoints")
+@IdClass(TrainingImportCheckpoint.Key.class)
+public class TrainingImportCheckpoint {
+
+    @Id
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    @Id
+    @Column(name = "import_id", length = 100)
+    private String importId;
+
+    /** Declared size of the file in bytes, -1 if it was streamed without a length. */
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    /** SHA-256 of the header and the first chunk of the file, hex encoded. */
+    @Column(name = "fingerprint", length = 64, nullable = false)
+    private String fingerprint;
+
+    /** Data rows (lines after the header) already handled, whether inserted or rejected. */
+    @Column(name = "rows_committed", nullable = false)
+    private long rowsCommitted;
+
+    @Column(name = "inserted", nullable = false)
+    private long inserted;
+
+    @Column(name = "rejected", nullable = false)
+    private long rejected;
+
+    @Column(name = "updated_at", nullable = false)
+    private long updatedAt;
+
+    /**
+     * Checked on every save, so runs of the same import on two nodes cannot both advance it.
+     * Null until the checkpoint is first stored; rows from before the column existed start at 0.
+     */
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    protected TrainingImportCheckpoint() {}
+
+    public TrainingImportCheckpoint(String owner, String importId, long fileSize, String fingerprint) {
+        this.owner = owner;
+        this.importId = importId;
+        this.fileSize = fileSize;
+        this.fingerprint = fingerprint;
+    }
+
+    private TrainingImportCheckpoint(TrainingImportCheckpoint from, long rowsCommitted, long inserted,
+                                     long rejected, long updatedAt) {
+        this(from.owner, from.importId, from.fileSize, from.fingerprint);
+        this.rowsCommitted = rowsCommitted;
+        this.inserted = inserted;
+        this.rejected = rejected;
+        this.updatedAt = updatedAt;
+        this.version = from.version;
+    }
+
+    public String getOwner() { return owner; }
+    public String getImportId() { return importId; }
+    public long getFileSize() { return fileSize; }
+    public String getFingerprint() { return fingerprint; }
+    public long getRowsCommitted() { return rowsCommitted; }
+    public long getInserted() { return inserted; }
+    public long getRejected() { return rejected; }
+    public long getUpdatedAt() { return updatedAt; }
+    public Long getVersion() { return version; }
+
+    /**
+     * @return whether a file of {@code fileSize} bytes with this {@code fingerprint} is the one
+     *         the import was started with.
+     */
+    public boolean matches(long fileSize, String fingerprint) {
+        return this.fileSize == fileSize && this.fingerprint.equals(fingerprint);
+    }
+
+    /**
+     * @return a copy moved forward to {@code rowsCommitted}, leaving this one untouched in case
+     *         the transaction saving the copy rolls back. The copy keeps the version, so saving it
+     *         fails if another run advanced the checkpoint meanwhile.
+     */
+    public TrainingImportCheckpoint advance(long rowsCommitted, long inserted, long rejected, long now) {
+        return new TrainingImportCheckpoint(this, rowsCommitted,
+                this.inserted + inserted, this.rejected + rejected, now);
+    }
+
+    /**
+     * Identifies a checkpoint: the import id chosen by the client, scoped to the user.
+     */
+    public static class Key implements Serializable {
+
+        private String owner;
+        private String importId;
+
+        protected Key() {}
+
+        public Key(String owner, String importId) {
+            this.owner = owner;
+            this.importId = importId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && owner.equals(key.owner) && importId.equals(key.importId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(owner, importId);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.epam.gym.entity;
 
+import com.epam.gym.service.TrainingTypeListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "training_types")
+@EntityListeners(TrainingTypeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.TRAINING_TYPES)
 public class TrainingType {
 
     @Id
@@ -0,0 +1,12 @@
+package com.epam.gym.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ImportFileMismatchException extends RuntimeException {
+
+    public ImportFileMismatchException(String message) {
+        super(message);
+    }
+}
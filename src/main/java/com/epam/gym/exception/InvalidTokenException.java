@@ -1,5 +1,9 @@
 package com.epam.gym.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
 public class InvalidTokenException extends RuntimeException {
     public InvalidTokenException(String message) {
         super(message);
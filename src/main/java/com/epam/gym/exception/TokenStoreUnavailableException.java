@@ -0,0 +1,16 @@
+package com.epam.gym.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TokenStoreUnavailableException extends RuntimeException {
+
+    public TokenStoreUnavailableException(String message) {
+        super(message);
+    }
+
+    public TokenStoreUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
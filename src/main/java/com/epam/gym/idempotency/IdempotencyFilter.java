@@ -0,0 +1,224 @@
+package com.epam.gym.idempotency;
+
+import com.epam.gym.security.AuthenticationFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Makes the registration endpoints safe to retry. A POST carrying an {@value #HEADER} header
+ * is executed once per key (scoped by path and authenticated user); repeating it returns the
+ * original response, marked with {@value #REPLAYED_HEADER}, without reaching the services.
+ * A duplicate arriving while the first is still executing waits for its response.
+ * <p>
+ * Only successful responses are remembered: after an error the key is released and a retry
+ * executes again. Reusing a key for a different body is rejected with 422. Runs after
+ * {@link AuthenticationFilter}, so unauthenticated requests are rejected before any replay.
+ * <p>
+ * The registrations of new trainees and trainers are open, and their responses carry the
+ * generated password. Without a user to scope them, their keys must be at least
+ * {@value #MIN_ANONYMOUS_KEY_LENGTH} characters (e.g. a random UUID) and are scoped by the body
+ * too, so only a client holding both the key and the exact body gets the response replayed.
+ * Those responses are never written to the database.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private static final List<String> IDEMPOTENT_PATHS = List.of(
+            "/api/v1/trainees/",
+            "/api/v1/trainers/",
+            "/api/v1/trainings/"
+    );
+    private static final int MAX_KEY_LENGTH = 255;
+    static final int MIN_ANONYMOUS_KEY_LENGTH = 32;
+
+    private final IdempotencyStore store;
+    private final Duration waitTimeout;
+    private final int maxBodyBytes;
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyStore store,
+                             @Value("${gym.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                             @Value("${gym.idempotency.max-body-bytes:65536}") int maxBodyBytes) {
+        this.store = store;
+        this.waitTimeout = waitTimeout;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) ||
+                request.getHeader(HEADER) == null ||
+                !IDEMPOTENT_PATHS.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request body too large");
+            return;
+        }
+
+        Object principal = request.getAttribute(AuthenticationFilter.PRINCIPAL);
+        if (principal == null && idempotencyKey.length() < MIN_ANONYMOUS_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    HEADER + " must be at least " + MIN_ANONYMOUS_KEY_LENGTH + " characters without authentication");
+            return;
+        }
+
+        String fingerprint = IdempotencyStore.sha256(body);
+        // Anonymous keys share one namespace: the body keeps a guessed key from replaying someone else's credentials
+        String scope = principal != null ? "user:" + principal : "anonymous:" + fingerprint;
+        String key = path(request) + '|' + scope + '|' + idempotencyKey;
+        IdempotencyStore.Claim claim;
+        try {
+            claim = store.claim(key, fingerprint, principal != null, waitTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Interrupted");
+            return;
+        }
+        if (claim.isMismatch()) {
+            response.sendError(422, HEADER + " was already used for a different request");
+        } else if (claim.isInProgress()) {
+            response.sendError(HttpServletResponse.SC_CONFLICT,
+                    "A request with this " + HEADER + " is still in progress");
+        } else if (claim.replay() != null) {
+            log.info("Replaying response for repeated {} {}", request.getMethod(), request.getRequestURI());
+            replay(claim.replay(), response);
+        } else {
+            execute(key, claim, new CachedBodyRequest(request, body), response, chain);
+        }
+    }
+
+    private void execute(String key,
+                         IdempotencyStore.Claim claim,
+                         HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(key, claim, new StoredResponse(status, wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.release(key, claim);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Hands the already read body to the rest of the chain.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
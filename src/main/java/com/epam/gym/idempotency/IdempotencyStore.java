@@ -0,0 +1,209 @@
+package com.epam.gym.idempotency;
+
+import com.epam.gym.entity.IdempotencyRecord;
+import com.epam.gym.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers the responses of requests made with an {@code Idempotency-Key} for {@code ttl},
+ * bounded to {@code max-entries} keys. The first request with a key claims it; concurrent
+ * duplicates wait for its response instead of executing again. A claim whose request did not
+ * succeed is released, so a retry executes normally.
+ * <p>
+ * With persistence enabled completed responses are also written to {@code idempotency_records}
+ * and consulted when a key is not known locally, which covers restarts and retries that land on
+ * another node (in-flight requests are only coordinated within one node). Claims can opt out
+ * of persistence; the filter does so for unauthenticated registrations, whose responses carry
+ * the generated password. Persistence is off by default.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Cache<String, Entry> entries;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository,
+                            @Value("${gym.idempotency.persistence.enabled:false}") boolean persistent,
+                            @Value("${gym.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${gym.idempotency.max-entries:100000}") long maxEntries) {
+        this.recordRepository = recordRepository;
+        this.persistent = persistent;
+        this.ttl = ttl;
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Outcome of {@link #claim}: exactly one of the accessors is set, or none if the caller
+     * timed out waiting for a duplicate that is still in flight.
+     */
+    public static final class Claim {
+        private final Entry owned;
+        private final StoredResponse replay;
+        private final boolean mismatch;
+        private final boolean durable;
+
+        private Claim(Entry owned, StoredResponse replay, boolean mismatch) {
+            this(owned, replay, mismatch, false);
+        }
+
+        private Claim(Entry owned, StoredResponse replay, boolean mismatch, boolean durable) {
+            this.owned = owned;
+            this.replay = replay;
+            this.mismatch = mismatch;
+            this.durable = durable;
+        }
+
+        /** The caller owns the key and must {@link #complete} or {@link #release} it. */
+        public boolean isOwned() { return owned != null; }
+
+        /** The response of the earlier request with the key. */
+        public StoredResponse replay() { return replay; }
+
+        /** The key was used before for a request with a different body. */
+        public boolean isMismatch() { return mismatch; }
+
+        /** A request with the key is still executing after the wait. */
+        public boolean isInProgress() { return owned == null && replay == null && !mismatch; }
+    }
+
+    /**
+     * @param key The request scope and the client's key.
+     * @param fingerprint Hash of the request body, to detect a key reused for a different request.
+     * @param durable Whether the response may be kept in the database, if persistence is enabled.
+     * @param wait How long to wait for an in-flight duplicate.
+     */
+    public Claim claim(String key, String fingerprint, boolean durable, Duration wait) throws InterruptedException {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            Entry mine = new Entry(fingerprint);
+            Entry existing = entries.asMap().putIfAbsent(key, mine);
+            if (existing == null) {
+                return claimed(key, mine, durable && persistent);
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return new Claim(null, null, true);
+            }
+            try {
+                StoredResponse response = existing.result.get(
+                        Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (response != null) {
+                    return new Claim(null, response, false);
+                }
+                // The earlier request failed and released the key; try to claim it
+            } catch (TimeoutException e) {
+                return new Claim(null, null, false);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private Claim claimed(String key, Entry mine, boolean durable) {
+        if (!durable) {
+            return new Claim(mine, null, false);
+        }
+        Optional<IdempotencyRecord> record;
+        try {
+            record = recordRepository.findByKeyHashAndExpiresAtGreaterThan(keyHash(key), System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            log.warn("Idempotency record lookup failed, executing request: {}", e.getMessage());
+            return new Claim(mine, null, false, true);
+        }
+        if (record.isEmpty()) {
+            return new Claim(mine, null, false, true);
+        }
+        if (!record.get().getFingerprint().equals(mine.fingerprint)) {
+            release(key, new Claim(mine, null, false));
+            return new Claim(null, null, true);
+        }
+        StoredResponse response = new StoredResponse(record.get().getStatus(), record.get().getContentType(),
+                record.get().getLocation(), record.get().getBody());
+        mine.result.complete(response);
+        return new Claim(null, response, false);
+    }
+
+    /**
+     * Stores the response of an owned claim and hands it to waiting duplicates.
+     */
+    public void complete(String key, Claim claim, StoredResponse response) {
+        claim.owned.result.complete(response);
+        if (claim.durable) {
+            try {
+                recordRepository.save(new IdempotencyRecord(keyHash(key), claim.owned.fingerprint,
+                        response.status(), response.contentType(), response.location(), response.body(),
+                        System.currentTimeMillis() + ttl.toMillis()));
+            } catch (DataAccessException e) {
+                log.warn("Could not persist idempotency record: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gives up an owned claim without a response, letting the next request with the key execute.
+     */
+    public void release(String key, Claim claim) {
+        entries.asMap().remove(key, claim.owned);
+        claim.owned.result.complete(null);
+    }
+
+    @Scheduled(fixedDelayString = "${gym.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        if (persistent) {
+            int purged = recordRepository.deleteExpired(System.currentTimeMillis());
+            log.debug("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private static String keyHash(String key) {
+        return sha256(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the hex encoded SHA-256 of {@code value}.
+     */
+    static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
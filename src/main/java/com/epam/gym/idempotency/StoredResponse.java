@@ -0,0 +1,11 @@
+package com.epam.gym.idempotency;
+
+/**
+ * The parts of a response that are replayed for a repeated {@code Idempotency-Key}.
+ */
+public record StoredResponse(
+        int status,
+        String contentType,
+        String location,
+        byte[] body
+) {}
@@ -34,14 +34,17 @@ public class TraineeMapper {
         );
     }
 
-    public TraineeRegistrationResponse toTraineeRegistrationResponse(Trainee trainee) {
+    /**
+     * The stored password is a hash, so the generated plain text password is passed in separately.
+     */
+    public TraineeRegistrationResponse toTraineeRegistrationResponse(Trainee trainee, String rawPassword) {
         if (trainee == null) {
             return null;
         }
 
         return new TraineeRegistrationResponse(
                 trainee.getUser().getUsername(),
-                trainee.getUser().getPassword()
+                rawPassword
         );
     }
 
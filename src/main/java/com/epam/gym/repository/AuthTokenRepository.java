@@ -0,0 +1,24 @@
+package com.epam.gym.repository;
+
+import com.epam.gym.entity.AuthToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuthTokenRepository extends JpaRepository<AuthToken, String> {
+    List<AuthToken> findByExpiresAtGreaterThan(long now);
+
+    @Modifying
+    @Query("DELETE FROM AuthToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+
+    /** Drops rows written before tokens were stored hashed, whose ids are raw tokens. */
+    @Modifying
+    @Query("DELETE FROM AuthToken t WHERE LENGTH(t.tokenHash) <> 64")
+    int deleteUnhashed();
+}
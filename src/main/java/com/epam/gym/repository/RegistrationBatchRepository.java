@@ -0,0 +1,111 @@
+package com.epam.gym.repository;
+
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Plain JDBC batch inserts for bulk registration, bypassing the persistence context: one
+ * batched statement per table and chunk instead of one insert (and entity) per row. Callers
+ * provide the surrounding transaction.
+ * <p>
+ * Ids come from {@link SequenceIdAllocator}, so a chunk needs one sequence value per block of
+ * ids rather than one per row.
+ */
+@Repository
+public class RegistrationBatchRepository {
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, first_name, last_name, username, password, is_active) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRAINEE =
+            "INSERT INTO trainees (id, date_of_birth, address, user_id) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_TRAINER =
+            "INSERT INTO trainers (id, training_type_id, user_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator idAllocator;
+
+    @Autowired
+    public RegistrationBatchRepository(JdbcTemplate jdbcTemplate, SequenceIdAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+    }
+
+    /**
+     * @return the generated ids, in the order of {@code users}.
+     */
+    public List<Long> insertUsers(List<User> users) {
+        List<Long> ids = idAllocator.nextIds("users_seq", users.size());
+        jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setString(2, user.getFirstName());
+                ps.setString(3, user.getLastName());
+                ps.setString(4, user.getUsername());
+                ps.setString(5, user.getPassword());
+                ps.setBoolean(6, user.isActive());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * @param trainees Trainees whose users have already been inserted, i.e. carry an id.
+     */
+    public void insertTrainees(List<Trainee> trainees) {
+        List<Long> ids = idAllocator.nextIds("trainees_seq", trainees.size());
+        jdbcTemplate.batchUpdate(INSERT_TRAINEE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Trainee trainee = trainees.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setDate(2, trainee.getDateOfBirth() == null ? null : Date.valueOf(trainee.getDateOfBirth()));
+                ps.setString(3, trainee.getAddress());
+                ps.setLong(4, trainee.getUser().getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return trainees.size();
+            }
+        });
+    }
+
+    /**
+     * @param trainers Trainers whose users have already been inserted and whose training types
+     *                 are loaded, i.e. both carry an id.
+     */
+    public void insertTrainers(List<Trainer> trainers) {
+        List<Long> ids = idAllocator.nextIds("trainers_seq", trainers.size());
+        jdbcTemplate.batchUpdate(INSERT_TRAINER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Trainer trainer = trainers.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setLong(2, trainer.getTrainingType().getId());
+                ps.setLong(3, trainer.getUser().getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return trainers.size();
+            }
+        });
+    }
+}
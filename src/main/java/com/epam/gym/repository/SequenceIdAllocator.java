@@ -0,0 +1,69 @@
+package com.epam.gym.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids for rows written with plain JDBC, drawn from the same sequences as Hibernate's
+ * {@code @PooledSequence} ids and with the same pooled-lo meaning: each sequence value reserves
+ * a block of {@code gym.id.allocation-size} ids. The unused rest of the last block is kept for
+ * the next call, so single-row writes do not burn a block each.
+ */
+@Repository
+public class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int allocationSize;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate,
+                               @Value("${gym.id.allocation-size:50}") int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationSize = allocationSize;
+    }
+
+    public long nextId(String sequence) {
+        return nextIds(sequence, 1).get(0);
+    }
+
+    /**
+     * Reserves {@code count} ids, with at most one query for all the blocks needed.
+     */
+    public List<Long> nextIds(String sequence, int count) {
+        Block block = blocks.computeIfAbsent(sequence, name -> new Block());
+        synchronized (block) {
+            List<Long> ids = new ArrayList<>(count);
+            while (ids.size() < count && block.next < block.end) {
+                ids.add(block.next++);
+            }
+            int missing = count - ids.size();
+            if (missing == 0) {
+                return ids;
+            }
+            int blockCount = (missing + allocationSize - 1) / allocationSize;
+            List<Long> blockStarts = jdbcTemplate.queryForList(
+                    "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, ?)", Long.class, blockCount);
+            for (long start : blockStarts) {
+                block.next = start;
+                block.end = start + allocationSize;
+                while (ids.size() < count && block.next < block.end) {
+                    ids.add(block.next++);
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
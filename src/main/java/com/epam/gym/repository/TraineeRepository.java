@@ -4,8 +4,10 @@ import com.epam.gym.entity.Trainee;
 import com.epam.gym.entity.Trainer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +16,20 @@ public interface TraineeRepository extends JpaRepository<Trainee, Long> {
     Optional<Trainee> findByUserUsername(String username);
     void deleteByUserUsername(String username);
 
+    /**
+     * Loads everything the trainee profile shows (user, trainers with their users and training
+     * types) in one query, however many trainers there are.
+     */
+    @Query("""
+            SELECT t FROM Trainee t
+            JOIN FETCH t.user u
+            LEFT JOIN FETCH t.trainers tr
+            LEFT JOIN FETCH tr.user
+            LEFT JOIN FETCH tr.trainingType
+            WHERE u.username = :username
+            """)
+    Optional<Trainee> findProfileByUsername(@Param("username") String username);
+
+    @Query("SELECT t FROM Trainee t JOIN FETCH t.user u WHERE u.username IN :usernames")
+    List<Trainee> findAllWithUserByUsernameIn(@Param("usernames") Collection<String> usernames);
 }
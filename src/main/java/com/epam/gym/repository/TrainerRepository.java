@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +33,21 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     List<Trainer> findActiveTrainersNotAssignedToTrainee(@Param("username") String username);
 
     List<Trainer> findAllByUserUsernameIn(List<String> usernames);
+
+    /**
+     * Loads everything the trainer profile shows (user, training type, trainees with their
+     * users) in one query, however many trainees there are.
+     */
+    @Query("""
+            SELECT t FROM Trainer t
+            JOIN FETCH t.user u
+            JOIN FETCH t.trainingType
+            LEFT JOIN FETCH t.trainees tn
+            LEFT JOIN FETCH tn.user
+            WHERE u.username = :username
+            """)
+    Optional<Trainer> findProfileByUsername(@Param("username") String username);
+
+    @Query("SELECT t FROM Trainer t JOIN FETCH t.user u JOIN FETCH t.trainingType WHERE u.username IN :usernames")
+    List<Trainer> findAllWithUserByUsernameIn(@Param("usernames") Collection<String> usernames);
 }
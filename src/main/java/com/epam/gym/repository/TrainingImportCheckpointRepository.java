@@ -0,0 +1,9 @@
+package com.epam.gym.repository;
+
+import com.epam.gym.entity.TrainingImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TrainingImportCheckpointRepository extends JpaRepository<TrainingImportCheckpoint, TrainingImportCheckpoint.Key> {
+}
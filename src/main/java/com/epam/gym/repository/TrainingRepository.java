@@ -1,5 +1,7 @@
 package com.epam.gym.repository;
 
+import com.epam.gym.dto.TraineeTrainingResponse;
+import com.epam.gym.dto.TrainerTrainingResponse;
 import com.epam.gym.entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -12,15 +14,23 @@ import java.util.List;
 @Repository
 public interface TrainingRepository extends JpaRepository<Training, Long> {
 
+    /**
+     * Selects just the columns of the response rather than training entities with their trainee,
+     * trainer, user and type graphs, so nothing is added to the persistence context.
+     */
     @Query("""
-    SELECT t FROM Training t
-    WHERE t.trainee.user.username = :username
+    SELECT new com.epam.gym.dto.TraineeTrainingResponse(t.name, t.date, tt.type, t.duration, tru.username)
+    FROM Training t
+    JOIN t.trainingType tt
+    JOIN t.trainee tn JOIN tn.user tnu
+    JOIN t.trainer tr JOIN tr.user tru
+    WHERE tnu.username = :username
     AND (:fromDate IS NULL OR t.date >= :fromDate)
     AND (:toDate IS NULL OR t.date <= :toDate)
-    AND (:trainerName IS NULL OR CONCAT(t.trainer.user.firstName, ' ', t.trainer.user.lastName) LIKE %:trainerName%)
+    AND (:trainerName IS NULL OR CONCAT(tru.firstName, ' ', tru.lastName) LIKE %:trainerName%)
     AND (:trainingType IS NULL OR t.trainingType = :trainingType)
     """)
-    List<Training> findTraineeTrainingsByCriteria(
+    List<TraineeTrainingResponse> findTraineeTrainingsByCriteria(
             @Param("username") String username,
             @Param("fromDate") LocalDate fromDate,
             @Param("toDate") LocalDate toDate,
@@ -28,14 +38,21 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
             @Param("trainingType") TrainingType trainingType
     );
 
+    /**
+     * Selects just the columns of the response, like {@link #findTraineeTrainingsByCriteria}.
+     */
     @Query("""
-    SELECT t FROM Training t
-    WHERE t.trainer.user.username = :username
+    SELECT new com.epam.gym.dto.TrainerTrainingResponse(t.name, t.date, tt.type, t.duration, tnu.username)
+    FROM Training t
+    JOIN t.trainingType tt
+    JOIN t.trainee tn JOIN tn.user tnu
+    JOIN t.trainer tr JOIN tr.user tru
+    WHERE tru.username = :username
     AND (:fromDate IS NULL OR t.date >= :fromDate)
     AND (:toDate IS NULL OR t.date <= :toDate)
-    AND (:traineeName IS NULL OR CONCAT(t.trainee.user.firstName, ' ', t.trainee.user.lastName) LIKE %:traineeName%)
+    AND (:traineeName IS NULL OR CONCAT(tnu.firstName, ' ', tnu.lastName) LIKE %:traineeName%)
     """)
-    List<Training> findTrainerTrainingsByCriteria(
+    List<TrainerTrainingResponse> findTrainerTrainingsByCriteria(
             @Param("username") String username,
             @Param("fromDate") LocalDate fromDate,
             @Param("toDate") LocalDate toDate,
@@ -1,14 +1,39 @@
 package com.epam.gym.repository;
 
+import com.epam.gym.entity.CacheRegions;
 import com.epam.gym.entity.TrainingType;
 import com.epam.gym.entity.TrainingTypeEnum;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Training types are fixed reference data, so the lookups below are served from the query cache.
+ */
 @Repository
 public interface TrainingTypeRepository extends JpaRepository<TrainingType, Long> {
     boolean existsByType(TrainingTypeEnum type);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.TRAINING_TYPE_QUERIES)
+    })
     Optional<TrainingType> findByType(TrainingTypeEnum trainingTypeEnum);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.TRAINING_TYPE_QUERIES)
+    })
+    List<TrainingType> findAll();
+
+    /**
+     * Uncached, for the training type registry, which must see rows added outside this node.
+     */
+    List<TrainingType> findAllByOrderByIdAsc();
 }
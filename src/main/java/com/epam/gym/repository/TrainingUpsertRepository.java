@@ -0,0 +1,93 @@
+package com.epam.gym.repository;
+
+import com.epam.gym.entity.Training;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Inserts trainings unless one with the same natural key (trainee, trainer, date, name) exists,
+ * with a single MERGE instead of a lookup followed by an insert. Runs on the caller's transaction.
+ * <p>
+ * Plain JDBC rather than a repository query method, so a concurrent duplicate that wins the
+ * race, which surfaces as a unique key violation, is reported as "already exists" without marking
+ * the caller's transaction rollback-only. The batched variant cannot tell that race apart per row:
+ * it fails as a whole and is meant to be retried row by row.
+ */
+@Repository
+public class TrainingUpsertRepository {
+
+    private static final String MERGE_TRAINING = """
+            MERGE INTO trainings t
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS VARCHAR(255))))
+                AS s(trainee_id, trainer_id, date, name)
+            ON t.trainee_id = s.trainee_id AND t.trainer_id = s.trainer_id AND t.date = s.date AND t.name = s.name
+            WHEN NOT MATCHED THEN
+                INSERT (id, trainee_id, trainer_id, training_type_id, name, date, duration)
+                VALUES (?, s.trainee_id, s.trainer_id, ?, s.name, s.date, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator idAllocator;
+
+    @Autowired
+    public TrainingUpsertRepository(JdbcTemplate jdbcTemplate, SequenceIdAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+    }
+
+    /**
+     * @param training A new training whose trainee, trainer and training type carry ids.
+     * @return true if it was inserted, false if the same training already exists.
+     */
+    public boolean insertIfAbsent(Training training) {
+        try {
+            return jdbcTemplate.update(MERGE_TRAINING, ps -> bind(ps, training)) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Like {@link #insertIfAbsent(Training)} for many trainings, in JDBC batches. A training that
+     * repeats an earlier one of the same call counts as already existing.
+     *
+     * @return per training, in order, whether it was inserted.
+     * @throws DuplicateKeyException if a concurrent insert of one of several trainings won the race;
+     *         a single training is handled as by {@link #insertIfAbsent(Training)}.
+     */
+    public boolean[] insertAllIfAbsent(List<Training> trainings) {
+        if (trainings.size() == 1) {
+            return new boolean[]{insertIfAbsent(trainings.get(0))};
+        }
+        boolean[] inserted = new boolean[trainings.size()];
+        if (trainings.isEmpty()) {
+            return inserted;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(MERGE_TRAINING, trainings, trainings.size(), this::bind);
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted[i++] = count > 0 || count == Statement.SUCCESS_NO_INFO;
+            }
+        }
+        return inserted;
+    }
+
+    private void bind(PreparedStatement ps, Training training) throws SQLException {
+        ps.setLong(1, training.getTrainee().getId());
+        ps.setLong(2, training.getTrainer().getId());
+        ps.setDate(3, Date.valueOf(training.getDate()));
+        ps.setString(4, training.getName());
+        ps.setLong(5, idAllocator.nextId("trainings_seq"));
+        ps.setLong(6, training.getTrainingType().getId());
+        ps.setInt(7, training.getDuration());
+    }
+}
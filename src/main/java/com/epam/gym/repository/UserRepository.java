@@ -1,13 +1,33 @@
 package com.epam.gym.repository;
 
+import com.epam.gym.dto.UserCredentials;
 import com.epam.gym.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /** Escape character of the patterns passed to {@link #findUsernamesLike(String)}. */
+    char LIKE_ESCAPE = '!';
+
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    @Query("""
+    SELECT new com.epam.gym.dto.UserCredentials(u.id, u.password, u.isActive)
+    FROM User u
+    WHERE u.username = :username
+    """)
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    @Query("SELECT u.username FROM User u WHERE u.username LIKE :pattern ESCAPE '!'")
+    List<String> findUsernamesLike(@Param("pattern") String pattern);
+
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
 }
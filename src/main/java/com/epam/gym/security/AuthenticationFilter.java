@@ -0,0 +1,104 @@
+package com.epam.gym.security;
+
+import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Validates the {@code X-Auth-Token} header of protected endpoints before the request
+ * reaches the DispatcherServlet, so unauthenticated calls are rejected before any body
+ * is read, deserialized or validated. The resolved username is exposed to handlers as
+ * the {@link #PRINCIPAL} request attribute.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-Auth-Token";
+    public static final String PRINCIPAL = "gym.principal";
+
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationFilter.class);
+
+    private static final List<String> PROTECTED_PATHS = List.of(
+            "/api/v1/trainees",
+            "/api/v1/trainers",
+            "/api/v1/trainings",
+            "/api/v1/batch"
+    );
+
+    private final TokenService tokenService;
+
+    @Autowired
+    public AuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Checks that the authenticated user is the one the request acts on.
+     *
+     * @param principal The username resolved by this filter.
+     * @param username The username targeted by the request.
+     * @throws InvalidTokenException if they differ.
+     */
+    public static void requirePrincipal(String principal, String username) {
+        if (principal == null || !principal.equals(username)) {
+            throw new InvalidTokenException("Token not authenticated");
+        }
+    }
+
+    /**
+     * Checks that the authenticated user is one of the users the request acts on, e.g. the
+     * trainee or the trainer of a training.
+     *
+     * @param principal The username resolved by this filter.
+     * @param usernames The usernames targeted by the request.
+     * @throws InvalidTokenException if the principal is none of them.
+     */
+    public static void requireAnyPrincipal(String principal, String... usernames) {
+        if (principal == null || Arrays.stream(usernames).noneMatch(principal::equals)) {
+            throw new InvalidTokenException("Token not authenticated");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Decoded and without ;-parameters, as the handler mapping sees it, so /api;x/v1/... is protected too
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        if (PROTECTED_PATHS.stream().noneMatch(path::startsWith)) {
+            return true;
+        }
+        // Registration endpoints are open
+        return HttpMethod.POST.matches(request.getMethod()) &&
+                (path.equals("/api/v1/trainees/") || path.equals("/api/v1/trainers/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String username = tokenService.getUsername(request.getHeader(TOKEN_HEADER));
+        if (username == null) {
+            log.warn("Rejected unauthenticated {} {}", request.getMethod(), request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token not authenticated");
+            return;
+        }
+        request.setAttribute(PRINCIPAL, username);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,154 @@
+package com.epam.gym.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket throttling of credential checks, keyed both by username and by client address.
+ * Buckets live in a size-bounded Caffeine cache (lock-free reads, W-TinyLFU eviction) and
+ * expire once idle long enough to have refilled completely, so memory stays bounded no matter
+ * how many distinct usernames an attacker tries. Each bucket is updated with a CAS loop.
+ * <p>
+ * The client address is the request's remote address; behind a load balancer it is resolved
+ * from {@code X-Forwarded-For} by the server ({@code server.forward-headers-strategy}).
+ */
+@Component
+public class LoginThrottle {
+
+    private final Limit usernameLimit;
+    private final Limit addressLimit;
+    private final Cache<String, TokenBucket> usernameBuckets;
+    private final Cache<String, TokenBucket> addressBuckets;
+    private final LongSupplier nanoTime;
+
+    private final Counter allowed;
+    private final Counter throttledByUsername;
+    private final Counter throttledByAddress;
+
+    @Autowired
+    public LoginThrottle(@Value("${gym.login.throttle.username.capacity:5}") int usernameCapacity,
+                         @Value("${gym.login.throttle.username.refill-period:1m}") Duration usernameRefill,
+                         @Value("${gym.login.throttle.address.capacity:20}") int addressCapacity,
+                         @Value("${gym.login.throttle.address.refill-period:1m}") Duration addressRefill,
+                         @Value("${gym.login.throttle.max-tracked:100000}") long maxTracked,
+                         MeterRegistry meterRegistry) {
+        this(new Limit(usernameCapacity, usernameRefill), new Limit(addressCapacity, addressRefill),
+                maxTracked, System::nanoTime, meterRegistry);
+    }
+
+    LoginThrottle(Limit usernameLimit, Limit addressLimit, long maxTracked, LongSupplier nanoTime) {
+        this(usernameLimit, addressLimit, maxTracked, nanoTime, new SimpleMeterRegistry());
+    }
+
+    private LoginThrottle(Limit usernameLimit,
+                          Limit addressLimit,
+                          long maxTracked,
+                          LongSupplier nanoTime,
+                          MeterRegistry meterRegistry) {
+        this.usernameLimit = usernameLimit;
+        this.addressLimit = addressLimit;
+        this.nanoTime = nanoTime;
+        this.usernameBuckets = buckets(usernameLimit, maxTracked, nanoTime);
+        this.addressBuckets = buckets(addressLimit, maxTracked, nanoTime);
+
+        this.allowed = Counter.builder("gym.login.throttle")
+                .tag("decision", "allowed").register(meterRegistry);
+        this.throttledByUsername = Counter.builder("gym.login.throttle")
+                .tag("decision", "throttled").tag("key", "username").register(meterRegistry);
+        this.throttledByAddress = Counter.builder("gym.login.throttle")
+                .tag("decision", "throttled").tag("key", "address").register(meterRegistry);
+        Gauge.builder("gym.login.throttle.tracked", usernameBuckets, Cache::estimatedSize)
+                .tag("key", "username").register(meterRegistry);
+        Gauge.builder("gym.login.throttle.tracked", addressBuckets, Cache::estimatedSize)
+                .tag("key", "address").register(meterRegistry);
+    }
+
+    private static Cache<String, TokenBucket> buckets(Limit limit, long maxTracked, LongSupplier nanoTime) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(limit.refillPeriod().toNanos(), TimeUnit.NANOSECONDS)
+                .ticker(nanoTime::getAsLong)
+                .build();
+    }
+
+    /**
+     * Takes one attempt from the client's address bucket and from the username's bucket.
+     *
+     * @param username The username the client is trying to authenticate as.
+     * @param address The client address.
+     * @return 0 if the attempt may proceed, otherwise the number of seconds to wait.
+     */
+    public long tryAcquire(String username, String address) {
+        long now = nanoTime.getAsLong();
+        if (address != null) {
+            long wait = addressBuckets.get(address, key -> new TokenBucket(addressLimit, now)).tryConsume(now);
+            if (wait > 0) {
+                throttledByAddress.increment();
+                return toSeconds(wait);
+            }
+        }
+        if (username != null) {
+            long wait = usernameBuckets.get(username, key -> new TokenBucket(usernameLimit, now)).tryConsume(now);
+            if (wait > 0) {
+                throttledByUsername.increment();
+                return toSeconds(wait);
+            }
+        }
+        allowed.increment();
+        return 0;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+
+    /**
+     * A bucket of {@code capacity} attempts that refills completely over {@code refillPeriod}.
+     */
+    record Limit(int capacity, Duration refillPeriod) {
+        double tokensPerNano() {
+            return (double) capacity / refillPeriod.toNanos();
+        }
+    }
+
+    private static final class TokenBucket {
+        private final Limit limit;
+        private final AtomicReference<State> state;
+
+        private TokenBucket(Limit limit, long now) {
+            this.limit = limit;
+            this.state = new AtomicReference<>(new State(limit.capacity(), now));
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanos until the next token is available.
+         */
+        private long tryConsume(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = Math.min(limit.capacity(),
+                        current.tokens() + Math.max(0, now - current.at()) * limit.tokensPerNano());
+                if (tokens < 1) {
+                    return Math.round((1 - tokens) / limit.tokensPerNano());
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                    return 0;
+                }
+            }
+        }
+
+        private record State(double tokens, long at) {}
+    }
+}
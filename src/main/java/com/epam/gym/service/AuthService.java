@@ -1,39 +1,36 @@
 package com.epam.gym.service;
 
-import com.epam.gym.entity.User;
-import com.epam.gym.repository.UserRepository;
+import com.epam.gym.dto.UserCredentials;
 import jakarta.persistence.NoResultException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
 @Service
 public class AuthService {
 
     private final UserService userService;
+    private final TokenService tokenService;
 
     @Autowired
-    public AuthService(UserService userService) {
+    public AuthService(UserService userService, TokenService tokenService) {
         this.userService = userService;
+        this.tokenService = tokenService;
     }
 
+    /**
+     * Checks a login with a single credentials read, plus one update when the stored hash is upgraded.
+     *
+     * @return false if the password is wrong or the user is inactive.
+     * @throws NoResultException if the user does not exist.
+     */
     public boolean authenticate(String username, String password) {
-        Optional<User> optUser = userService.findByUsername(username);
-        if (optUser.isEmpty()) {
-            throw new NoResultException("User not found");
-        }
-        return optUser.get().getPassword().equals(password);
+        UserCredentials credentials = userService.findCredentials(username)
+                .orElseThrow(() -> new NoResultException("User not found"));
+        return credentials.isActive() && userService.checkCredentials(credentials, password);
     }
 
     public void changePassword(String username, String oldPassword, String newPassword) {
-        User user = userService.findByUsername(username)
-                .orElseThrow(() -> new NoResultException("User not found"));
-
-        if (!authenticate(username, oldPassword)) {
-            throw new IllegalArgumentException("Old password is incorrect");
-        }
-
         userService.changePassword(username, oldPassword, newPassword);
+        tokenService.revokeAllTokens(username);
     }
 }
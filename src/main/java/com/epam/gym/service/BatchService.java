@@ -0,0 +1,118 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.BatchOperation;
+import com.epam.gym.dto.BatchOperationResult;
+import com.epam.gym.dto.BatchResponse;
+import com.epam.gym.security.AuthenticationFilter;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.NoResultException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes several {@link FacadeService} operations for one authenticated user in a single
+ * transaction, saving the client a round trip, a token check and a transaction per operation.
+ * Operations run in request order and stop at the first failure, which rolls back the whole
+ * batch; the remaining operations are reported as not executed.
+ */
+@Service
+public class BatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchService.class);
+
+    private final FacadeService facadeService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public BatchService(FacadeService facadeService, PlatformTransactionManager transactionManager) {
+        this.facadeService = facadeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param operations The operations to execute, in order.
+     * @param principal The authenticated username; each operation checks it like its endpoint does.
+     * @return one result per operation, and whether they were committed.
+     */
+    public BatchResponse execute(List<BatchOperation> operations, String principal) {
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        boolean committed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            for (BatchOperation operation : operations) {
+                int index = results.size();
+                try {
+                    results.add(execute(index, operation, principal));
+                } catch (RuntimeException e) {
+                    log.warn("Batch operation {} of {} failed, rolling back: {}", index, operations.size(), e.toString());
+                    results.add(BatchOperationResult.failed(index, statusOf(e).value(), messageOf(e)));
+                    status.setRollbackOnly();
+                    return false;
+                }
+            }
+            return true;
+        }));
+        String skipped = "Not executed, operation " + (results.size() - 1) + " failed";
+        for (int index = results.size(); index < operations.size(); index++) {
+            results.add(BatchOperationResult.failed(index, HttpStatus.FAILED_DEPENDENCY.value(), skipped));
+        }
+        log.info("Batch of {} operations {}", operations.size(), committed ? "committed" : "rolled back");
+        return new BatchResponse(committed, results);
+    }
+
+    private BatchOperationResult execute(int index, BatchOperation operation, String principal) {
+        if (operation instanceof BatchOperation.UpdateTrainee update) {
+            AuthenticationFilter.requirePrincipal(principal, update.body().username());
+            return BatchOperationResult.succeeded(index, HttpStatus.OK.value(),
+                    facadeService.updateTrainee(update.body()));
+        }
+        if (operation instanceof BatchOperation.UpdateTraineeTrainers update) {
+            AuthenticationFilter.requirePrincipal(principal, update.username());
+            return BatchOperationResult.succeeded(index, HttpStatus.OK.value(),
+                    facadeService.updateTraineeTrainers(update.username(), update.body()));
+        }
+        if (operation instanceof BatchOperation.UpdateTrainer update) {
+            AuthenticationFilter.requirePrincipal(principal, update.body().username());
+            return BatchOperationResult.succeeded(index, HttpStatus.OK.value(),
+                    facadeService.updateTrainer(update.body()));
+        }
+        if (operation instanceof BatchOperation.RegisterTraining register) {
+            AuthenticationFilter.requireAnyPrincipal(principal,
+                    register.body().traineeUsername(), register.body().trainerUsername());
+            boolean created = facadeService.registerTraining(register.body());
+            return BatchOperationResult.succeeded(index,
+                    (created ? HttpStatus.CREATED : HttpStatus.OK).value(), null);
+        }
+        throw new IllegalArgumentException("Unsupported operation " + operation.getClass().getSimpleName());
+    }
+
+    private static HttpStatus statusOf(RuntimeException e) {
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        if (responseStatus != null) {
+            return responseStatus.code();
+        }
+        if (e instanceof NoResultException || e instanceof EntityNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * Messages of our own exceptions are meant for clients; anything else could leak internals.
+     */
+    private static String messageOf(RuntimeException e) {
+        HttpStatus status = statusOf(e);
+        if (status == HttpStatus.NOT_FOUND) {
+            return "Not found";
+        }
+        return status.is5xxServerError() || e.getMessage() == null ? "Operation failed" : e.getMessage();
+    }
+}
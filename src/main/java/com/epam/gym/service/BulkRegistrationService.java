@@ -0,0 +1,313 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.BulkRegistrationResponse;
+import com.epam.gym.dto.BulkRegistrationResult;
+import com.epam.gym.dto.TraineeRegistrationRequest;
+import com.epam.gym.dto.TrainerRegistrationRequest;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.User;
+import com.epam.gym.exception.ServiceOverloadedException;
+import com.epam.gym.repository.RegistrationBatchRepository;
+import com.epam.gym.util.UsernameFilter;
+import com.epam.gym.util.UsernamePasswordUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registers many users in one call. Usernames and passwords for the whole batch are generated
+ * in memory up front, then rows are inserted with JDBC batches in transactions of {@code chunkSize}
+ * rows. A chunk that fails is retried row by row, so one bad row only fails itself and never the
+ * rest of the import.
+ * <p>
+ * Passwords are hashed outside any transaction on a dedicated, bounded pool, so bulk imports
+ * neither compete with logins for the password verifier nor occupy the common fork-join pool.
+ * When the pool's queue cannot take a whole batch, the request fails fast with 503.
+ */
+@Service
+public class BulkRegistrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRegistrationService.class);
+
+    private final RegistrationBatchRepository batchRepository;
+    private final TrainingTypeService trainingTypeService;
+    private final UsernamePasswordUtil usernamePasswordUtil;
+    private final UsernameFilter usernameFilter;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ThreadPoolExecutor hashExecutor;
+
+    @Autowired
+    public BulkRegistrationService(RegistrationBatchRepository batchRepository,
+                                   TrainingTypeService trainingTypeService,
+                                   UsernamePasswordUtil usernamePasswordUtil,
+                                   UsernameFilter usernameFilter,
+                                   Validator validator,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${gym.registration.bulk.chunk-size:500}") int chunkSize,
+                                   @Value("${gym.registration.bulk.hash-threads:2}") int hashThreads,
+                                   @Value("${gym.registration.bulk.hash-queue-capacity:2000}") int hashQueueCapacity) {
+        this.batchRepository = batchRepository;
+        this.trainingTypeService = trainingTypeService;
+        this.usernamePasswordUtil = usernamePasswordUtil;
+        this.usernameFilter = usernameFilter;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(hashThreads, hashThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-registration-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @param requests The trainees to register; rows failing validation are reported, not thrown.
+     * @return one result per request row with the generated credentials or the error.
+     */
+    public BulkRegistrationResponse registerTrainees(List<TraineeRegistrationRequest> requests) {
+        log.info("Bulk registering {} trainees", requests.size());
+        return register(requests, TraineeRegistrationRequest::firstName, TraineeRegistrationRequest::lastName,
+                request -> null, this::insertTrainees);
+    }
+
+    /**
+     * Specializations are resolved from the training type registry once for the whole batch.
+     *
+     * @param requests The trainers to register; rows failing validation or naming an unknown
+     *                 specialization are reported, not thrown.
+     * @return one result per request row with the generated credentials or the error.
+     */
+    public BulkRegistrationResponse registerTrainers(List<TrainerRegistrationRequest> requests) {
+        log.info("Bulk registering {} trainers", requests.size());
+        Map<String, TrainingType> trainingTypes = new HashMap<>();
+        for (TrainingType trainingType : trainingTypeService.findAllTrainingTypes()) {
+            trainingTypes.put(trainingType.getType().name(), trainingType);
+        }
+        return register(requests, TrainerRegistrationRequest::firstName, TrainerRegistrationRequest::lastName,
+                request -> trainingTypes.containsKey(request.specialization()) ? null : "Unknown specialization",
+                rows -> insertTrainers(rows, trainingTypes));
+    }
+
+    private <R> BulkRegistrationResponse register(List<R> requests,
+                                                  Function<R, String> firstName,
+                                                  Function<R, String> lastName,
+                                                  Function<R, String> check,
+                                                  Consumer<List<Row<R>>> inserter) {
+        BulkRegistrationResult[] results = new BulkRegistrationResult[requests.size()];
+        List<Row<R>> rows = prepare(requests, results, firstName, lastName, check);
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            insert(rows.subList(from, Math.min(rows.size(), from + chunkSize)), results, inserter);
+        }
+        BulkRegistrationResponse response = BulkRegistrationResponse.of(Arrays.asList(results));
+        log.info("Bulk registration finished: {} created, {} failed", response.created(), response.failed());
+        return response;
+    }
+
+    private void insertTrainees(List<Row<TraineeRegistrationRequest>> rows) {
+        List<Long> userIds = batchRepository.insertUsers(rows.stream().map(Row::user).toList());
+        List<Trainee> trainees = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            TraineeRegistrationRequest request = rows.get(i).request;
+            trainees.add(new Trainee.Builder()
+                    .dateOfBirth(request.dateOfBirth())
+                    .address(request.address())
+                    .user(rows.get(i).user().toBuilder().id(userIds.get(i)).build())
+                    .build());
+        }
+        batchRepository.insertTrainees(trainees);
+    }
+
+    private void insertTrainers(List<Row<TrainerRegistrationRequest>> rows,
+                                Map<String, TrainingType> trainingTypes) {
+        List<Long> userIds = batchRepository.insertUsers(rows.stream().map(Row::user).toList());
+        List<Trainer> trainers = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            trainers.add(new Trainer.Builder()
+                    .trainingType(trainingTypes.get(rows.get(i).request.specialization()))
+                    .user(rows.get(i).user().toBuilder().id(userIds.get(i)).build())
+                    .build());
+        }
+        batchRepository.insertTrainers(trainers);
+    }
+
+    /**
+     * Validates the rows, including the caller's {@code check}, and generates their credentials.
+     * Rows failing validation get their result right away and are left out of the returned list.
+     */
+    private <R> List<Row<R>> prepare(List<R> requests,
+                                     BulkRegistrationResult[] results,
+                                     Function<R, String> firstName,
+                                     Function<R, String> lastName,
+                                     Function<R, String> check) {
+        List<Row<R>> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            R request = requests.get(i);
+            String error = validate(request);
+            if (error == null) {
+                error = check.apply(request);
+            }
+            if (error != null) {
+                results[i] = BulkRegistrationResult.failed(i, error);
+                continue;
+            }
+            Row<R> row = new Row<>(i, request, firstName.apply(request), lastName.apply(request));
+            row.username = usernamePasswordUtil.generateUsername(row.firstName, row.lastName);
+            row.password = usernamePasswordUtil.generatePassword();
+            rows.add(row);
+        }
+        hashPasswords(rows);
+        return rows;
+    }
+
+    /**
+     * Hashes the passwords of all rows on the hash pool and waits for them.
+     *
+     * @throws ServiceOverloadedException if the pool cannot queue the whole batch.
+     */
+    private <R> void hashPasswords(List<Row<R>> rows) {
+        List<Future<?>> hashes = new ArrayList<>(rows.size());
+        try {
+            for (Row<R> row : rows) {
+                hashes.add(hashExecutor.submit(() -> row.passwordHash = usernamePasswordUtil.hashPassword(row.password)));
+            }
+        } catch (RejectedExecutionException e) {
+            hashes.forEach(hash -> hash.cancel(false));
+            log.warn("Bulk registration hash queue is full ({} waiting)", hashExecutor.getQueue().size());
+            throw new ServiceOverloadedException("Too many bulk registrations in progress, try again later", e);
+        }
+        try {
+            for (Future<?> hash : hashes) {
+                hash.get();
+            }
+        } catch (InterruptedException e) {
+            hashes.forEach(hash -> hash.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Bulk registration interrupted", e);
+        } catch (ExecutionException e) {
+            hashes.forEach(hash -> hash.cancel(false));
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private String validate(Object request) {
+        if (request == null) {
+            return "Row is empty";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private <R> void insert(List<Row<R>> chunk, BulkRegistrationResult[] results, Consumer<List<Row<R>>> inserter) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> inserter.accept(chunk));
+            chunk.forEach(row -> created(row, results));
+        } catch (DataAccessException e) {
+            log.warn("Bulk insert of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            for (Row<R> row : chunk) {
+                insertRow(row, results, inserter);
+            }
+        }
+    }
+
+    private <R> void insertRow(Row<R> row, BulkRegistrationResult[] results, Consumer<List<Row<R>>> inserter) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> inserter.accept(List.of(row)));
+                created(row, results);
+                return;
+            } catch (DuplicateKeyException e) {
+                // Username taken behind the allocator's back, e.g. by another node
+                usernamePasswordUtil.forgetUsernames(row.firstName, row.lastName);
+                if (attempt > 0) {
+                    results[row.index] = BulkRegistrationResult.failed(row.index, "Username already taken");
+                    return;
+                }
+                row.username = usernamePasswordUtil.generateUsername(row.firstName, row.lastName);
+            } catch (DataAccessException e) {
+                log.warn("Bulk registration of row {} failed: {}", row.index, e.getMessage());
+                results[row.index] = BulkRegistrationResult.failed(row.index, "Failed to register");
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    private void created(Row<?> row, BulkRegistrationResult[] results) {
+        usernameFilter.put(row.username);
+        results[row.index] = BulkRegistrationResult.created(row.index, row.username, row.password);
+    }
+
+    /**
+     * A valid request row and the credentials generated for it.
+     */
+    private static final class Row<R> {
+        private final int index;
+        private final R request;
+        private final String firstName;
+        private final String lastName;
+        private String username;
+        private String password;
+        private String passwordHash;
+
+        Row(int index, R request, String firstName, String lastName) {
+            this.index = index;
+            this.request = request;
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+
+        User user() {
+            return new User.Builder()
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .username(username)
+                    .password(passwordHash)
+                    .isActive(true)
+                    .build();
+        }
+    }
+}
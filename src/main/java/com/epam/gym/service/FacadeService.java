@@ -5,8 +5,13 @@ import com.epam.gym.entity.*;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -17,17 +22,23 @@ public class FacadeService {
     private final TrainerService trainerService;
     private final TrainingService trainingService;
     private final TrainingTypeService trainingTypeService;
+    private final TokenService tokenService;
+    private final ProfileCache profileCache;
 
     @Autowired
     public FacadeService(TraineeService traineeService,
                          TrainerService trainerService,
                          TrainingService trainingService,
-                         TrainingTypeService trainingTypeService
+                         TrainingTypeService trainingTypeService,
+                         TokenService tokenService,
+                         ProfileCache profileCache
     ){
         this.traineeService = traineeService;
         this.trainerService = trainerService;
         this.trainingService = trainingService;
         this.trainingTypeService = trainingTypeService;
+        this.tokenService = tokenService;
+        this.profileCache = profileCache;
     }
 
     ////////////////////////////////////////////////
@@ -44,9 +55,16 @@ public class FacadeService {
 //                trainee.getUser().getPassword());
 //    }
 
-    @Transactional
+    /**
+     * Served from {@link ProfileCache}. Not transactional, so a cache hit does not touch the
+     * database; a miss loads the whole profile in one query within TraineeService's transaction.
+     */
     public TraineeProfileResponse getTraineeByUsername(String username) {
-        Trainee trainee = traineeService.findTraineeByUsername(username);
+        return profileCache.trainee(username, this::loadTraineeProfile);
+    }
+
+    private TraineeProfileResponse loadTraineeProfile(String username) {
+        Trainee trainee = traineeService.findTraineeProfile(username);
         List<TrainerDto> trainersDto = trainee.getTrainers().stream()
                 .map(trainer -> new TrainerDto(trainer.getUser().getUsername(),
                         trainer.getUser().getFirstName(),
@@ -76,21 +94,41 @@ public class FacadeService {
                 request.address(),
                 request.isActive()
                 );
-        return getTraineeByUsername(request.username());
+        if (!request.isActive()) {
+            revokeAllTokensAfterCommit(request.username());
+        }
+        TraineeProfileResponse profile = loadTraineeProfile(request.username());
+        // The trainee's name is shown on the profiles of their trainers
+        profileCache.evictTrainee(request.username());
+        profileCache.evictTrainers(profile.trainers().stream().map(TrainerDto::username).toList());
+        return profile;
     }
 
     @Transactional
     public void deleteTrainee(String username) {
+        Set<String> trainers = trainerUsernames(traineeService.findTraineeProfile(username).getTrainers());
         traineeService.deleteTrainee(username);
+        revokeAllTokensAfterCommit(username);
+        profileCache.evictTrainee(username);
+        profileCache.evictTrainers(trainers);
     }
 
     @Transactional
     public TraineeTrainerResponse updateTraineeTrainers(String username,
                                                         UpdateTraineeTrainersRequest request){
+        Set<String> previous = trainerUsernames(traineeService.findTraineeProfile(username).getTrainers());
         List<Trainer> trainers = trainerService.getTrainersByUsernames(request.trainerUsernames());
 
         traineeService.updateTraineeTrainers(username, trainers);
 
+        // Only trainers that were added or removed have a different trainee list
+        Set<String> current = trainerUsernames(trainers);
+        Set<String> changed = new HashSet<>(previous);
+        changed.addAll(current);
+        changed.removeIf(trainer -> previous.contains(trainer) && current.contains(trainer));
+        profileCache.evictTrainee(username);
+        profileCache.evictTrainers(changed);
+
         List<TrainerDto> trainersDto = trainers.stream().
                 map(trainer -> new TrainerDto(trainer.getUser().getUsername(),
                         trainer.getUser().getFirstName(),
@@ -100,9 +138,38 @@ public class FacadeService {
         return new TraineeTrainerResponse(trainersDto);
     }
 
+    /**
+     * Trainer profiles do not show whether their trainees are active, so only the trainee's
+     * own profile is evicted.
+     */
     @Transactional
     public void changeTraineeActiveStatus(String username, boolean isActive) {
         traineeService.changeActiveStatus(username, isActive);
+        if (!isActive) {
+            revokeAllTokensAfterCommit(username);
+        }
+        profileCache.evictTrainee(username);
+    }
+
+    /**
+     * Revokes the user's tokens once the surrounding transaction has committed, so a rollback
+     * does not log out a user who is still active.
+     */
+    private void revokeAllTokensAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tokenService.revokeAllTokens(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenService.revokeAllTokens(username);
+            }
+        });
+    }
+
+    private static Set<String> trainerUsernames(Collection<Trainer> trainers) {
+        return trainers.stream().map(trainer -> trainer.getUser().getUsername()).collect(Collectors.toSet());
     }
 
     ////////////////////////////////////////////////
@@ -112,16 +179,20 @@ public class FacadeService {
     @Transactional
     public TrainerRegistrationResponse registerTrainer(TrainerRegistrationRequest request) {
         TrainingType trainingType = trainingTypeService.findByType(request.specialization());
-        Trainer trainer = trainerService.createTrainer(request.firstName(),
+        return trainerService.createTrainer(request.firstName(),
                 request.lastName(),
                 trainingType);
-        return new TrainerRegistrationResponse(trainer.getUser().getUsername(),
-                trainer.getUser().getPassword());
     }
 
-    @Transactional
+    /**
+     * Served from {@link ProfileCache}, like {@link #getTraineeByUsername}.
+     */
     public TrainerProfileResponse getTrainerByUsername(String username) {
-        Trainer trainer = trainerService.findTrainerByUsername(username);
+        return profileCache.trainer(username, this::loadTrainerProfile);
+    }
+
+    private TrainerProfileResponse loadTrainerProfile(String username) {
+        Trainer trainer = trainerService.findTrainerProfile(username);
         List<TraineeDto> traineesDto = trainer.getTrainees().stream()
                 .map(trainee -> new TraineeDto(trainee.getUser().getUsername(),
                         trainee.getUser().getFirstName(),
@@ -143,7 +214,14 @@ public class FacadeService {
                 trainingType,
                 request.isActive()
         );
-        return getTrainerByUsername(request.username());
+        if (!request.isActive()) {
+            revokeAllTokensAfterCommit(request.username());
+        }
+        TrainerProfileResponse profile = loadTrainerProfile(request.username());
+        // The trainer's name and specialization are shown on the profiles of their trainees
+        profileCache.evictTrainer(request.username());
+        profileCache.evictTrainees(profile.trainees().stream().map(TraineeDto::username).toList());
+        return profile;
     }
 
     @Transactional
@@ -158,20 +236,31 @@ public class FacadeService {
                 .toList();
     }
 
+    /**
+     * Trainee profiles do not show whether their trainers are active, so only the trainer's
+     * own profile is evicted.
+     */
     @Transactional
     public void changeTrainerActiveStatus(String username, boolean isActive) {
         trainerService.changeActiveStatus(username, isActive);
+        if (!isActive) {
+            revokeAllTokensAfterCommit(username);
+        }
+        profileCache.evictTrainer(username);
     }
 
     ////////////////////////////////////////////////
     //////////// TRAINING //////////////////////////
     ////////////////////////////////////////////////
 
+    /**
+     * @return true if the training was created, false if the same training already existed.
+     */
     @Transactional
-    public void registerTraining(TrainingRegistrationRequest request) {
+    public boolean registerTraining(TrainingRegistrationRequest request) {
         Trainee trainee = traineeService.findTraineeByUsername(request.traineeUsername());
         Trainer trainer = trainerService.findTrainerByUsername(request.trainerUsername());
-        trainingService.createTraining(trainee,
+        return trainingService.createTraining(trainee,
                 trainer,
                 request.name(),
                 trainer.getTrainingType(),
@@ -186,41 +275,26 @@ public class FacadeService {
         if (request.specialization() != null) {
             trainingType = trainingTypeService.findByType(request.specialization());
         }
-        List<Training> trainings = trainingService.getTraineeTrainings(username,
+        return trainingService.getTraineeTrainings(username,
                 request.from(),
                 request.to(),
                 request.trainerName(),
                 trainingType);
-        return trainings.stream().
-                map(training -> new TraineeTrainingResponse(training.getName(),
-                        training.getDate().toString(),
-                        training.getTrainingType().getType().toString(),
-                        training.getDuration(),
-                        training.getTrainer().getUser().getUsername()))
-                .toList();
     }
 
     @Transactional
     public List<TrainerTrainingResponse> findTrainerTrainings(String username,
                                                               TrainerTrainingRequest request) {
-        List<Training> trainings = trainingService.getTrainerTrainings(username,
+        return trainingService.getTrainerTrainings(username,
                 request.from(),
                 request.to(),
                 request.traineeName());
-        return trainings.stream().
-                map(training -> new TrainerTrainingResponse(training.getName(),
-                        training.getDate().toString(),
-                        training.getTrainingType().getType().toString(),
-                        training.getDuration(),
-                        training.getTrainee().getUser().getUsername()))
-                .toList();
     }
 
     ////////////////////////////////////////////////
     //////////// TRAINING TYPE /////////////////////
     ////////////////////////////////////////////////
 
-    @Transactional
     public List<TrainingTypeResponse> findAllTrainingTypes() {
         List<TrainingType> trainingTypes = trainingTypeService.findAllTrainingTypes();
         return trainingTypes.stream().
@@ -229,4 +303,11 @@ public class FacadeService {
                 toList();
     }
 
+    /**
+     * Same content as {@link #findAllTrainingTypes()}, already serialized; neither touches the database.
+     */
+    public TrainingTypesPayload findAllTrainingTypesPayload() {
+        return trainingTypeService.findAllTrainingTypesPayload();
+    }
+
 }
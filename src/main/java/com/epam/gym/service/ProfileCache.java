@@ -0,0 +1,109 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TraineeProfileResponse;
+import com.epam.gym.dto.TrainerProfileResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of trainee and trainer profiles, bounded in size and age.
+ * <p>
+ * Writers evict exactly the profiles they change. Inside a transaction the eviction is
+ * repeated once the transaction completes, so a profile read concurrently from the
+ * not yet committed state, or by the writer itself, does not stay cached. The cache is
+ * local to this node: changes made through other nodes show up after at most the TTL.
+ */
+@Component
+public class ProfileCache {
+
+    private final Cache<String, TraineeProfileResponse> trainees;
+    private final Cache<String, TrainerProfileResponse> trainers;
+
+    @Autowired
+    public ProfileCache(@Value("${gym.profile.cache.max-size:10000}") long maxSize,
+                        @Value("${gym.profile.cache.ttl:5m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this(maxSize, ttl);
+        register(meterRegistry, "trainee", trainees);
+        register(meterRegistry, "trainer", trainers);
+    }
+
+    ProfileCache(long maxSize, Duration ttl) {
+        this.trainees = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.trainers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    private static void register(MeterRegistry meterRegistry, String profile, Cache<String, ?> cache) {
+        FunctionCounter.builder("gym.profile.cache.lookups", cache, c -> c.stats().hitCount())
+                .tag("profile", profile).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("gym.profile.cache.lookups", cache, c -> c.stats().missCount())
+                .tag("profile", profile).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("gym.profile.cache.evictions", cache, c -> c.stats().evictionCount())
+                .tag("profile", profile).register(meterRegistry);
+        Gauge.builder("gym.profile.cache.hit-ratio", cache, c -> c.stats().hitRate())
+                .tag("profile", profile).register(meterRegistry);
+        Gauge.builder("gym.profile.cache.size", cache, Cache::estimatedSize)
+                .tag("profile", profile).register(meterRegistry);
+    }
+
+    public TraineeProfileResponse trainee(String username, Function<String, TraineeProfileResponse> loader) {
+        return trainees.get(username, loader);
+    }
+
+    public TrainerProfileResponse trainer(String username, Function<String, TrainerProfileResponse> loader) {
+        return trainers.get(username, loader);
+    }
+
+    public void evictTrainee(String username) {
+        evictTrainees(List.of(username));
+    }
+
+    public void evictTrainees(Collection<String> usernames) {
+        evict(trainees, usernames);
+    }
+
+    public void evictTrainer(String username) {
+        evictTrainers(List.of(username));
+    }
+
+    public void evictTrainers(Collection<String> usernames) {
+        evict(trainers, usernames);
+    }
+
+    private static void evict(Cache<String, ?> cache, Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        List<String> keys = List.copyOf(usernames);
+        cache.invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.epam.gym.service;
+
+import com.epam.gym.entity.AuthToken;
+import com.epam.gym.repository.AuthTokenRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Write-behind persistence for opaque tokens, keyed by token hash. Token changes are queued in
+ * memory and written in batches by a scheduled flusher, so issuing or revoking a token never
+ * waits on the database. On startup the still valid tokens are bulk-loaded back.
+ * <p>
+ * Deletes are never dropped, since a lost delete brings a logged-out or revoked token back
+ * after a restart: only saves are subject to the queue capacity, and a batch that fails to
+ * flush is put back at the head of the queue.
+ */
+@Service
+public class TokenPersistenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenPersistenceService.class);
+
+    private final AuthTokenRepository authTokenRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final BlockingDeque<PendingWrite> pending = new LinkedBlockingDeque<>();
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public TokenPersistenceService(AuthTokenRepository authTokenRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${gym.token.persistence.enabled:true}") boolean enabled,
+                                   @Value("${gym.token.persistence.batch-size:500}") int batchSize,
+                                   @Value("${gym.token.persistence.queue-capacity:100000}") int queueCapacity) {
+        this.authTokenRepository = authTokenRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Dropped with a warning when the queue is full; the session then only lives until restart.
+     */
+    public void saveLater(String tokenHash, String username, long issuedAt, long expiresAt) {
+        if (!enabled) {
+            return;
+        }
+        if (pending.size() >= queueCapacity) {
+            log.warn("Token write-behind queue is full, new session will not survive a restart");
+            return;
+        }
+        pending.add(new PendingWrite(tokenHash, new AuthToken(tokenHash, username, issuedAt, expiresAt)));
+    }
+
+    /**
+     * Always queued, even beyond the queue capacity.
+     */
+    public void deleteLater(String tokenHash) {
+        if (enabled) {
+            pending.add(new PendingWrite(tokenHash, null));
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Loads all tokens that have not yet reached their absolute expiry and purges the rest,
+     * along with rows stored before tokens were hashed.
+     *
+     * @param now The current time in epoch millis.
+     * @return the persisted tokens that are still valid.
+     */
+    @Transactional
+    public List<AuthToken> loadActive(long now) {
+        if (!enabled) {
+            return List.of();
+        }
+        int purged = authTokenRepository.deleteExpired(now) + authTokenRepository.deleteUnhashed();
+        List<AuthToken> tokens = authTokenRepository.findByExpiresAtGreaterThan(now);
+        log.info("Restored {} persisted tokens, purged {} expired", tokens.size(), purged);
+        return tokens;
+    }
+
+    /**
+     * Drains queued token changes in batches. Changes to the same token inside a batch
+     * are coalesced, so a token issued and revoked between two flushes is never written.
+     * <p>
+     * Each batch is written in a transaction of its own through a {@link TransactionTemplate}
+     * rather than {@code @Transactional}, so {@link #flushOnShutdown()} gets one as well. A
+     * batch that fails is put back at the head of the queue and retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${gym.token.persistence.flush-interval-ms:1000}")
+    public void flush() {
+        drain();
+    }
+
+    /**
+     * @return whether the queue was drained without a failure.
+     */
+    private boolean drain() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    pending.addFirst(batch.get(i));
+                }
+                log.warn("Could not flush {} token writes, retrying on the next flush", batch.size(), e);
+                return false;
+            }
+            batch.clear();
+        }
+        return true;
+    }
+
+    private void write(List<PendingWrite> batch) {
+        Map<String, AuthToken> saves = new LinkedHashMap<>();
+        Set<String> deletes = new LinkedHashSet<>();
+        for (PendingWrite write : batch) {
+            if (write.row() != null) {
+                saves.put(write.tokenHash(), write.row());
+            } else if (saves.remove(write.tokenHash()) == null) {
+                deletes.add(write.tokenHash());
+            }
+        }
+        if (!deletes.isEmpty()) {
+            authTokenRepository.deleteAllByIdInBatch(deletes);
+        }
+        if (!saves.isEmpty()) {
+            authTokenRepository.saveAll(saves.values());
+        }
+        log.debug("Flushed {} token writes ({} saved, {} deleted)", batch.size(), saves.size(), deletes.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!pending.isEmpty()) {
+            log.info("Flushing {} pending token writes before shutdown", pending.size());
+            if (!drain()) {
+                log.error("{} token writes could not be flushed before shutdown", pending.size());
+            }
+        }
+    }
+
+    private record PendingWrite(String tokenHash, AuthToken row) {}
+}
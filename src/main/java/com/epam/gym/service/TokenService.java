@@ -1,31 +1,388 @@
 package com.epam.gym.service;
 
+import com.epam.gym.entity.AuthToken;
+import com.epam.gym.store.InMemoryTokenStore;
+import com.epam.gym.store.StoredToken;
+import com.epam.gym.store.TokenStore;
+import com.epam.gym.util.SignedTokenCodec;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Issues and validates authentication tokens in one of two modes:
+ * <ul>
+ *     <li>{@code opaque} (default): random tokens kept in a {@link TokenStore} with a sliding
+ *     (idle) and an absolute lifetime per token. With a node-local store, tokens are persisted
+ *     write-behind by {@link TokenPersistenceService} and restored on startup, so sessions
+ *     survive restarts; a shared store is itself the source of truth.</li>
+ *     <li>{@code signed}: HMAC-signed tokens carrying the username and expiry, verified by
+ *     signature plus a denylist lookup. Only the absolute lifetime applies. Logouts and
+ *     revocations are kept in the {@link TokenStore} until the tokens they cover expire, so
+ *     with a shared store they apply on every node; with a node-local store only on the node
+ *     that recorded them.</li>
+ * </ul>
+ * Expired entries are dropped lazily on lookup and by a background sweeper.
+ * {@link #revokeAllTokens(String)} ends every session of a user in time proportional
+ * to that user's sessions.
+ */
 @Service
 public class TokenService {
-    private final Map<String, String> tokenStore = new ConcurrentHashMap<>();
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String TOKEN_SUBJECT = "token:";
+    private static final String USER_SUBJECT = "user:";
+
+    private final TokenStore tokenStore;
+    private final SignedTokenCodec signedTokens;
+    private final TokenPersistenceService persistence;
+    private final long idleTtlMillis;
+    private final long absoluteTtlMillis;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong activeTokens = new AtomicLong();
+    private final AtomicLong revokedTokens = new AtomicLong();
+
+    @Autowired
+    public TokenService(@Value("${gym.token.idle-ttl:30m}") Duration idleTtl,
+                        @Value("${gym.token.absolute-ttl:12h}") Duration absoluteTtl,
+                        @Value("${gym.token.mode:opaque}") String mode,
+                        @Value("${gym.token.secret:}") String secret,
+                        TokenStore tokenStore,
+                        TokenPersistenceService persistence,
+                        MeterRegistry meterRegistry) {
+        this(idleTtl, absoluteTtl, signedTokenCodec(mode, secret), tokenStore, persistence, Clock.systemUTC());
+        FunctionCounter.builder("gym.tokens.lookups", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("gym.tokens.lookups", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("gym.tokens.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        // Read from the last sweep, so a scrape never waits on a remote store
+        Gauge.builder("gym.tokens.active", activeTokens, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("gym.tokens.revoked", revokedTokens, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    TokenService(Duration idleTtl,
+                 Duration absoluteTtl,
+                 SignedTokenCodec signedTokens,
+                 TokenPersistenceService persistence,
+                 Clock clock) {
+        this(idleTtl, absoluteTtl, signedTokens, new InMemoryTokenStore(), persistence, clock);
+    }
+
+    TokenService(Duration idleTtl,
+                 Duration absoluteTtl,
+                 SignedTokenCodec signedTokens,
+                 TokenStore tokenStore,
+                 TokenPersistenceService persistence,
+                 Clock clock) {
+        this.idleTtlMillis = idleTtl.toMillis();
+        this.absoluteTtlMillis = absoluteTtl.toMillis();
+        this.signedTokens = signedTokens;
+        this.tokenStore = tokenStore;
+        this.persistence = signedTokens == null && !tokenStore.isShared() ? persistence : null;
+        this.clock = clock;
+    }
+
+    private static SignedTokenCodec signedTokenCodec(String mode, String secret) {
+        if ("opaque".equalsIgnoreCase(mode)) {
+            return null;
+        }
+        if (!"signed".equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("Unknown token mode: " + mode);
+        }
+        if (secret == null || secret.isBlank()) {
+            log.warn("gym.token.secret is not set; signed tokens will only be valid on this node until restart.");
+            return SignedTokenCodec.withRandomSecret();
+        }
+        return new SignedTokenCodec(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Bulk-loads persisted tokens into the store. Restored tokens keep their absolute
+     * expiry and start a fresh idle window.
+     */
+    @PostConstruct
+    public void restorePersistedTokens() {
+        if (persistence == null) {
+            return;
+        }
+        long now = clock.millis();
+        Map<String, StoredToken> restored = new HashMap<>();
+        for (AuthToken row : persistence.loadActive(now)) {
+            StoredToken session = newSession(row.getUsername(), row.getIssuedAt(), now);
+            if (session.expiresAt() > now) {
+                restored.put(row.getTokenHash(), session);
+            }
+        }
+        tokenStore.saveAll(restored);
+    }
+
+    private StoredToken newSession(String username, long issuedAt, long now) {
+        long absoluteExpiresAt = issuedAt + absoluteTtlMillis;
+        return new StoredToken(username, issuedAt, Math.min(now + idleTtlMillis, absoluteExpiresAt), absoluteExpiresAt);
+    }
 
     public String generateToken(String username) {
+        if (signedTokens != null) {
+            long now = clock.millis();
+            return signedTokens.encode(username, now, now + absoluteTtlMillis);
+        }
         String token = UUID.randomUUID().toString();
-        tokenStore.put(token, username);
+        String key = key(token);
+        long now = clock.millis();
+        tokenStore.save(key, newSession(username, now, now));
+        if (persistence != null) {
+            persistence.saveLater(key, username, now, now + absoluteTtlMillis);
+        }
         return token;
     }
 
     public boolean isValidToken(String username, String token) {
-        return tokenStore.get(token).equals(username);
+        String owner = getUsername(token);
+        return owner != null && owner.equals(username);
     }
 
+    public boolean isValidToken(String token) {
+        return getUsername(token) != null;
+    }
+
+    /**
+     * Resolves the owner of a token and slides its idle deadline forward.
+     *
+     * @param token The authentication token.
+     * @return the username, or null if the token is unknown or expired.
+     */
     public String getUsername(String token) {
-        return tokenStore.get(token);
+        if (token == null) {
+            misses.increment();
+            return null;
+        }
+        if (signedTokens != null) {
+            return getSignedTokenUsername(token);
+        }
+        long now = clock.millis();
+        String key = key(token);
+        StoredToken session = tokenStore.access(key, now, idleTtlMillis);
+        if (session == null) {
+            misses.increment();
+            return null;
+        }
+        if (session.expiresAt() <= now) {
+            expire(key);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return session.username();
+    }
+
+    private String getSignedTokenUsername(String token) {
+        SignedTokenCodec.Claims claims = verifySigned(token, clock.millis());
+        return claims == null ? null : claims.username();
+    }
+
+    private SignedTokenCodec.Claims verifySigned(String token, long now) {
+        SignedTokenCodec.Claims claims = decodeUnexpired(token, now);
+        if (claims == null || isRevoked(claims, tokenStore.revokedAt(subjects(claims)))) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return claims;
+    }
+
+    private SignedTokenCodec.Claims decodeUnexpired(String token, long now) {
+        SignedTokenCodec.Claims claims = token == null ? null : signedTokens.decode(token);
+        return claims == null || claims.expiresAt() <= now ? null : claims;
+    }
+
+    private static List<String> subjects(SignedTokenCodec.Claims claims) {
+        return List.of(TOKEN_SUBJECT + claims.id(), USER_SUBJECT + claims.username());
+    }
+
+    private boolean isRevoked(SignedTokenCodec.Claims claims, Map<String, Long> revocations) {
+        return revocations.containsKey(TOKEN_SUBJECT + claims.id()) ||
+                claims.issuedAt() < revocations.getOrDefault(USER_SUBJECT + claims.username(), Long.MIN_VALUE);
+    }
+
+    /**
+     * Resolves many tokens in one pass, e.g. for a gateway validating a batch of requests.
+     * Opaque tokens are looked up with a single {@link TokenStore#accessAll} call, and each
+     * valid one slides its idle deadline exactly as {@link #getUsername(String)} would.
+     *
+     * @param tokens The tokens to resolve; may contain nulls and duplicates.
+     * @return one entry per token, in the same order; null for tokens that are unknown or expired.
+     */
+    public List<Introspection> introspect(List<String> tokens) {
+        long now = clock.millis();
+        List<Introspection> results = new ArrayList<>(tokens.size());
+        if (signedTokens != null) {
+            List<SignedTokenCodec.Claims> decoded = new ArrayList<>(tokens.size());
+            Set<String> subjects = new LinkedHashSet<>();
+            for (String token : tokens) {
+                SignedTokenCodec.Claims claims = decodeUnexpired(token, now);
+                decoded.add(claims);
+                if (claims != null) {
+                    subjects.addAll(subjects(claims));
+                }
+            }
+            Map<String, Long> revocations = subjects.isEmpty() ? Map.of() : tokenStore.revokedAt(subjects);
+            for (SignedTokenCodec.Claims claims : decoded) {
+                if (claims == null || isRevoked(claims, revocations)) {
+                    misses.increment();
+                    results.add(null);
+                } else {
+                    hits.increment();
+                    results.add(new Introspection(claims.username(), claims.expiresAt() - now));
+                }
+            }
+            return results;
+        }
+        List<String> keys = tokens.stream().map(token -> token == null ? null : key(token)).toList();
+        Set<String> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        Map<String, StoredToken> sessions = tokenStore.accessAll(distinct, now, idleTtlMillis);
+        for (String key : keys) {
+            StoredToken session = key == null ? null : sessions.get(key);
+            if (session == null || session.expiresAt() <= now) {
+                if (session != null) {
+                    expire(key);
+                }
+                misses.increment();
+                results.add(null);
+            } else {
+                hits.increment();
+                results.add(new Introspection(session.username(), session.expiresAt() - now));
+            }
+        }
+        return results;
+    }
+
+    private void expire(String key) {
+        if (tokenStore.remove(key) != null) {
+            persistDelete(key);
+            evictions.increment();
+        }
     }
 
     public void invalidateToken(String token) {
-        tokenStore.remove(token);
+        if (token == null) {
+            return;
+        }
+        if (signedTokens == null) {
+            String key = key(token);
+            if (tokenStore.remove(key) != null) {
+                persistDelete(key);
+            }
+            return;
+        }
+        long now = clock.millis();
+        SignedTokenCodec.Claims claims = decodeUnexpired(token, now);
+        if (claims != null) {
+            tokenStore.revoke(TOKEN_SUBJECT + claims.id(), now, claims.expiresAt());
+        }
     }
-}
 
+    /**
+     * Ends every session of a user, e.g. after a password change or deactivation.
+     * Opaque tokens are looked up through the per-user index; for signed tokens every
+     * token of the user issued before now is rejected until it would have expired anyway; a
+     * token issued in the same millisecond, e.g. by the login right after a password change,
+     * stays valid.
+     *
+     * @param username The user whose tokens are revoked.
+     * @return the number of opaque tokens removed (0 in signed mode).
+     */
+    public int revokeAllTokens(String username) {
+        if (signedTokens != null) {
+            long now = clock.millis();
+            tokenStore.revoke(USER_SUBJECT + username, now, now + absoluteTtlMillis);
+            log.info("Revoked all signed tokens of user {}", username);
+            return 0;
+        }
+        List<String> revoked = tokenStore.removeAll(username);
+        revoked.forEach(this::persistDelete);
+        log.info("Revoked {} tokens of user {}", revoked.size(), username);
+        return revoked.size();
+    }
+
+    /**
+     * Drops every token whose deadline has passed, and denylist entries of signed tokens
+     * that have expired on their own, then refreshes the token gauges.
+     */
+    @Scheduled(fixedDelayString = "${gym.token.sweep-interval-ms:30000}")
+    public void evictExpiredTokens() {
+        List<String> expired = tokenStore.evictExpired(clock.millis());
+        expired.forEach(this::persistDelete);
+        evictions.add(expired.size());
+        int evicted = expired.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired tokens", evicted);
+        }
+        activeTokens.set(tokenStore.size());
+        revokedTokens.set(tokenStore.revokedCount());
+    }
+
+    private void persistDelete(String key) {
+        if (persistence != null) {
+            persistence.deleteLater(key);
+        }
+    }
+
+    /**
+     * Opaque tokens are stored and persisted under their SHA-256, hex encoded, so neither the
+     * token store nor the database holds usable bearer tokens.
+     */
+    static String key(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public int size() { return (int) tokenStore.size(); }
+    public int revokedCount() { return (int) tokenStore.revokedCount(); }
+    public int sessionCount(String username) { return tokenStore.sessionCount(username); }
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+
+    /**
+     * @param username The owner of the token.
+     * @param expiresInMillis Time left until the token expires if it is not used again.
+     */
+    public record Introspection(String username, long expiresInMillis) {}
+}
@@ -8,6 +8,7 @@ import com.epam.gym.entity.User;
 import com.epam.gym.exception.TraineeCreationException;
 import com.epam.gym.mapper.TraineeMapper;
 import com.epam.gym.repository.TraineeRepository;
+import com.epam.gym.util.UsernameFilter;
 import com.epam.gym.util.UsernamePasswordUtil;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.NoResultException;
@@ -28,16 +29,19 @@ public class TraineeService {
     private final TraineeRepository traineeRepository;
     private final UsernamePasswordUtil usernamePasswordUtil;
     private final TraineeMapper traineeMapper;
+    private final UsernameFilter usernameFilter;
 
     @Autowired
     public TraineeService(
             TraineeRepository traineeRepository,
             UsernamePasswordUtil usernamePasswordUtil,
-            TraineeMapper traineeMapper
+            TraineeMapper traineeMapper,
+            UsernameFilter usernameFilter
     ) {
         this.traineeRepository = traineeRepository;
         this.usernamePasswordUtil = usernamePasswordUtil;
         this.traineeMapper = traineeMapper;
+        this.usernameFilter = usernameFilter;
     }
 
     @Transactional
@@ -55,7 +59,7 @@ public class TraineeService {
                 .firstName(request.firstName())
                 .lastName(request.lastName())
                 .username(username)
-                .password(password)
+                .password(usernamePasswordUtil.hashPassword(password))
                 .isActive(true)
                 .build();
 
@@ -66,11 +70,13 @@ public class TraineeService {
                 .build();
         log.info("Creating trainee: {}", user.getUsername());
         try {
-            traineeRepository.save(trainee);
+            // Flushed here so that a username taken behind the allocator's back fails inside this try
+            traineeRepository.saveAndFlush(trainee);
             log.info("Trainee {} created successfully with ID: {}", user.getUsername(), trainee.getId());
-            return  traineeMapper.toTraineeRegistrationResponse(trainee);
+            return  traineeMapper.toTraineeRegistrationResponse(trainee, password);
         } catch (Exception e) {
             log.error("Failed to save trainee: {}", e.getMessage(), e);
+            usernamePasswordUtil.forgetUsernames(request.firstName(), request.lastName());
             throw new TraineeCreationException("Failed to create trainee", e);
         }
     }
@@ -78,7 +84,21 @@ public class TraineeService {
     @Transactional(readOnly = true)
     public Trainee findTraineeByUsername(String username) {
         log.debug("Finding trainee by username: {}", username);
-        return traineeRepository.findByUserUsername(username)
+        return usernameFilter.lookupConfirmed(username, traineeRepository::findByUserUsername)
+                .orElseThrow(() -> {
+                    log.error("Trainee not found with username: {}", username);
+                    return new NoResultException("Trainee not found");
+                });
+    }
+
+    /**
+     * Like {@link #findTraineeByUsername} but with the trainers, their users and training types
+     * already loaded, so reading the whole profile takes a single query.
+     */
+    @Transactional(readOnly = true)
+    public Trainee findTraineeProfile(String username) {
+        log.debug("Finding trainee profile by username: {}", username);
+        return usernameFilter.lookupConfirmed(username, traineeRepository::findProfileByUsername)
                 .orElseThrow(() -> {
                     log.error("Trainee not found with username: {}", username);
                     return new NoResultException("Trainee not found");
@@ -1,10 +1,12 @@
 package com.epam.gym.service;
 
+import com.epam.gym.dto.TrainerRegistrationResponse;
 import com.epam.gym.entity.Trainer;
 import com.epam.gym.entity.TrainingType;
 import com.epam.gym.entity.User;
 import com.epam.gym.exception.TraineeCreationException;
 import com.epam.gym.repository.TrainerRepository;
+import com.epam.gym.util.UsernameFilter;
 import com.epam.gym.util.UsernamePasswordUtil;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.NoResultException;
@@ -15,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class TrainerService {
@@ -22,16 +25,19 @@ public class TrainerService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
     private final TrainerRepository trainerRepository;
     private final UsernamePasswordUtil usernamePasswordUtil;
+    private final UsernameFilter usernameFilter;
 
     @Autowired
     public TrainerService(TrainerRepository trainerRepository,
-                          UsernamePasswordUtil usernamePasswordUtil) {
+                          UsernamePasswordUtil usernamePasswordUtil,
+                          UsernameFilter usernameFilter) {
         this.trainerRepository = trainerRepository;
         this.usernamePasswordUtil = usernamePasswordUtil;
+        this.usernameFilter = usernameFilter;
     }
 
     @Transactional
-    public Trainer createTrainer(String firstName,
+    public TrainerRegistrationResponse createTrainer(String firstName,
                                  String lastName,
                                  TrainingType trainingType) {
 
@@ -42,7 +48,7 @@ public class TrainerService {
                 .firstName(firstName)
                 .lastName(lastName)
                 .username(username)
-                .password(password)
+                .password(usernamePasswordUtil.hashPassword(password))
                 .isActive(true)
                 .build();
 
@@ -52,19 +58,31 @@ public class TrainerService {
                 .build();
 
         try {
-            trainerRepository.save(trainer);
-            return trainer;
+            // Flushed here so that a username taken behind the allocator's back fails inside this try
+            trainerRepository.saveAndFlush(trainer);
+            return new TrainerRegistrationResponse(username, password);
         } catch (Exception e) {
+            usernamePasswordUtil.forgetUsernames(firstName, lastName);
             throw new TraineeCreationException("Failed to create trainer", e);
         }
     }
 
     @Transactional
     public Trainer findTrainerByUsername(String username) {
-        return trainerRepository.findByUserUsername(username)
+        return usernameFilter.lookupConfirmed(username, trainerRepository::findByUserUsername)
                 .orElseThrow(() -> new NoResultException("Trainee not found"));
     }
 
+    /**
+     * Like {@link #findTrainerByUsername} but with the training type, the trainees and their
+     * users already loaded, so reading the whole profile takes a single query.
+     */
+    @Transactional
+    public Trainer findTrainerProfile(String username) {
+        return usernameFilter.lookupConfirmed(username, trainerRepository::findProfileByUsername)
+                .orElseThrow(() -> new NoResultException("Trainer not found"));
+    }
+
     @Transactional
     public void updateTrainer(String username,
                               String firstName,
@@ -89,8 +107,9 @@ public class TrainerService {
             updated = true;
         }
 
+        // Registry instances are detached and TrainingType has no equals, so compare ids
         if (specialization != null &&
-                !specialization.equals(trainer.getTrainingType())) {
+                !Objects.equals(specialization.getId(), trainer.getTrainingType().getId())) {
             trainerBuilder.trainingType(specialization);
             updated = true;
         }
@@ -0,0 +1,472 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TrainingImportRejection;
+import com.epam.gym.dto.TrainingImportReport;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Training;
+import com.epam.gym.entity.TrainingImportCheckpoint;
+import com.epam.gym.exception.ImportFileMismatchException;
+import com.epam.gym.exception.ImportInProgressException;
+import com.epam.gym.exception.InvalidImportFileException;
+import com.epam.gym.repository.TraineeRepository;
+import com.epam.gym.repository.TrainerRepository;
+import com.epam.gym.repository.TrainingImportCheckpointRepository;
+import com.epam.gym.repository.TrainingUpsertRepository;
+import com.epam.gym.repository.TrainingTypeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports historical trainings from CSV exports. The file is streamed line by line and
+ * inserted in chunks of {@code chunk-size} rows, each chunk in one transaction together with the
+ * import's {@link TrainingImportCheckpoint}. Submitting the same file again under the same
+ * import id skips the rows already committed, so a run that failed half way resumes where it
+ * stopped. Import ids are scoped to the user running the import, and a checkpoint only resumes
+ * the file it was started with, recognized by its size and a hash of its header and first chunk.
+ * Rows repeating a training that already exists are skipped and counted as existing. Only one run
+ * of an import may go at a time: a new checkpoint is stored before the first chunk, and the
+ * checkpoint's version is checked on each commit, so a run started on another node stops at its
+ * next chunk instead of overwriting the counts.
+ * <p>
+ * The file starts with a header naming the columns {@code traineeUsername}, {@code trainerUsername},
+ * {@code name}, {@code date} (ISO {@code yyyy-MM-dd}) and {@code duration}, in any order; fields
+ * may be quoted but must not span lines. Rows that cannot be parsed, name an unknown trainee or
+ * trainer, or have neither the trainee nor the trainer running the import are rejected and
+ * reported without stopping the import. Usernames are resolved through
+ * a bounded per-run cache, with one query per chunk for the names not cached yet.
+ */
+@Service
+public class TrainingImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingImportService.class);
+
+    static final List<String> COLUMNS = List.of("traineeUsername", "trainerUsername", "name", "date", "duration");
+
+    private final TraineeRepository traineeRepository;
+    private final TrainerRepository trainerRepository;
+    private final TrainingUpsertRepository trainingUpsertRepository;
+    private final TrainingTypeRepository trainingTypeRepository;
+    private final TrainingImportCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long lookupCacheSize;
+    private final int maxReportedRejections;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TrainingImportService(TraineeRepository traineeRepository,
+                                 TrainerRepository trainerRepository,
+                                 TrainingUpsertRepository trainingUpsertRepository,
+                                 TrainingTypeRepository trainingTypeRepository,
+                                 TrainingImportCheckpointRepository checkpointRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${gym.training.import.chunk-size:500}") int chunkSize,
+                                 @Value("${gym.training.import.lookup-cache-size:10000}") long lookupCacheSize,
+                                 @Value("${gym.training.import.max-reported-rejections:1000}") int maxReportedRejections) {
+        this.traineeRepository = traineeRepository;
+        this.trainerRepository = trainerRepository;
+        this.trainingUpsertRepository = trainingUpsertRepository;
+        this.trainingTypeRepository = trainingTypeRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.lookupCacheSize = lookupCacheSize;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    /**
+     * @param principal The user running the import; only trainings they take part in are imported.
+     * @param importId Identifies the import across runs of the same user; reuse it to resume.
+     * @param fileSize Size of the file in bytes, -1 if unknown.
+     * @param source The CSV file.
+     * @return what this run inserted and rejected.
+     * @throws ImportInProgressException if a run of the same import is still going, here or on
+     *         another node.
+     * @throws ImportFileMismatchException if the import was started with a different file.
+     * @throws InvalidImportFileException if the header is missing or lacks a column.
+     * @throws IOException if reading the file fails; the import can be resumed.
+     */
+    public TrainingImportReport importTrainings(String principal, String importId, long fileSize, Reader source)
+            throws IOException {
+        String runKey = principal + "/" + importId;
+        if (!running.add(runKey)) {
+            throw new ImportInProgressException("Import " + importId + " is already running");
+        }
+        try {
+            return new Run(principal, importId, fileSize).execute(new BufferedReader(source));
+        } finally {
+            running.remove(runKey);
+        }
+    }
+
+    private final class Run {
+        private final String principal;
+        private final String importId;
+        private final long fileSize;
+        private final Cache<String, Long> traineeIds;
+        private final Cache<String, TrainerRef> trainers;
+        private final List<TrainingImportRejection> rejections = new ArrayList<>();
+        private TrainingImportCheckpoint checkpoint;
+        private long inserted;
+        private long existing;
+        private long rejected;
+
+        Run(String principal, String importId, long fileSize) {
+            this.principal = principal;
+            this.importId = importId;
+            this.fileSize = fileSize;
+            this.traineeIds = Caffeine.newBuilder().maximumSize(lookupCacheSize).build();
+            this.trainers = Caffeine.newBuilder().maximumSize(lookupCacheSize).build();
+        }
+
+        TrainingImportReport execute(BufferedReader reader) throws IOException {
+            String headerLine = reader.readLine();
+            Header header = Header.parse(headerLine);
+            // The first chunk is read ahead to recognize the file before anything is skipped or written
+            List<String> firstChunk = new ArrayList<>(chunkSize);
+            for (String text; firstChunk.size() < chunkSize && (text = reader.readLine()) != null; ) {
+                firstChunk.add(text);
+            }
+            String fingerprint = fingerprint(headerLine, firstChunk);
+            checkpoint = checkpointRepository.findById(new TrainingImportCheckpoint.Key(principal, importId))
+                    .orElseGet(() -> new TrainingImportCheckpoint(principal, importId, fileSize, fingerprint));
+            if (!checkpoint.matches(fileSize, fingerprint)) {
+                throw new ImportFileMismatchException("Import " + importId
+                        + " was started with a different file; use a new import id for this one");
+            }
+            if (checkpoint.getVersion() == null) {
+                claim();
+            }
+            long resumeAfter = checkpoint.getRowsCommitted();
+            if (resumeAfter > 0) {
+                log.info("Resuming import {} after row {}", importId, resumeAfter);
+            }
+
+            long started = System.nanoTime();
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            long row = 0;
+            Iterator<String> readAhead = firstChunk.iterator();
+            try {
+                for (String text = next(readAhead, reader); text != null; text = next(readAhead, reader)) {
+                    if (++row <= resumeAfter) {
+                        continue;
+                    }
+                    chunk.add(new Line(row, text));
+                    if (chunk.size() == chunkSize) {
+                        process(chunk, header);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    process(chunk, header);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Import {} stopped, {} rows committed; submit it again to resume: {}",
+                        importId, checkpoint.getRowsCommitted(), e.getMessage());
+                throw e;
+            }
+
+            long processed = Math.max(0, row - resumeAfter);
+            double seconds = Math.max(1e-3, (System.nanoTime() - started) / 1e9);
+            long rowsPerSecond = Math.round(processed / seconds);
+            log.info("Import {} finished: {} rows in {} s ({} rows/s), {} inserted, {} existing, {} rejected",
+                    importId, processed, String.format("%.1f", seconds), rowsPerSecond, inserted, existing, rejected);
+            return new TrainingImportReport(importId, resumeAfter + 2, processed, inserted, existing, rejected,
+                    rowsPerSecond, List.copyOf(rejections));
+        }
+
+        /**
+         * Stores the new checkpoint before any row, so a run of the same import started at the
+         * same time on another node fails here rather than on its first chunk.
+         */
+        private void claim() {
+            TrainingImportCheckpoint unclaimed = checkpoint;
+            try {
+                checkpoint = transactionTemplate.execute(status -> checkpointRepository.saveAndFlush(unclaimed));
+            } catch (DataIntegrityViolationException e) {
+                throw new ImportInProgressException("Import " + importId + " is already running");
+            }
+        }
+
+        private void process(List<Line> chunk, Header header) {
+            List<Row> rows = new ArrayList<>(chunk.size());
+            int chunkRejected = 0;
+            for (Line line : chunk) {
+                if (line.text.isBlank()) {
+                    continue;
+                }
+                Row row;
+                try {
+                    row = header.row(line);
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    reject(line.row, e.getMessage());
+                    chunkRejected++;
+                    continue;
+                }
+                if (!principal.equals(row.trainee) && !principal.equals(row.trainer)) {
+                    reject(line.row, "Neither the trainee nor the trainer is " + principal);
+                    chunkRejected++;
+                    continue;
+                }
+                rows.add(row);
+            }
+
+            Map<String, Long> chunkTrainees = traineeIds.getAll(usernames(rows, row -> row.trainee), missing ->
+                    traineeRepository.findAllWithUserByUsernameIn(List.copyOf(missing)).stream()
+                            .collect(Collectors.toMap(trainee -> trainee.getUser().getUsername(), Trainee::getId)));
+            Map<String, TrainerRef> chunkTrainers = trainers.getAll(usernames(rows, row -> row.trainer), missing ->
+                    trainerRepository.findAllWithUserByUsernameIn(List.copyOf(missing)).stream()
+                            .collect(Collectors.toMap(trainer -> trainer.getUser().getUsername(),
+                                    trainer -> new TrainerRef(trainer.getId(), trainer.getTrainingType().getId()))));
+
+            List<Training> valid = new ArrayList<>(rows.size());
+            List<Row> validRows = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                Long traineeId = chunkTrainees.get(row.trainee);
+                TrainerRef trainer = chunkTrainers.get(row.trainer);
+                if (traineeId == null || trainer == null) {
+                    reject(row.number, traineeId == null
+                            ? "Trainee not found: " + row.trainee
+                            : "Trainer not found: " + row.trainer);
+                    chunkRejected++;
+                    continue;
+                }
+                row.traineeId = traineeId;
+                row.trainerRef = trainer;
+                validRows.add(row);
+            }
+
+            long last = chunk.get(chunk.size() - 1).row;
+            try {
+                commit(validRows, last, chunkRejected);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Import {} chunk ending at row {} failed, retrying row by row: {}",
+                        importId, last, e.getMessage());
+                for (Row row : validRows) {
+                    try {
+                        commit(List.of(row), row.number, chunkRejected);
+                        chunkRejected = 0;
+                    } catch (DataIntegrityViolationException rowFailure) {
+                        reject(row.number, "Violates a database constraint");
+                        chunkRejected++;
+                    }
+                }
+                commit(List.of(), last, chunkRejected);
+            }
+            log.debug("Import {} committed up to row {}", importId, last);
+        }
+
+        /**
+         * Inserts the rows that do not exist yet and moves the checkpoint to {@code upToRow} in one
+         * transaction. Entities are built inside the transaction so a retry never reuses a rolled back one.
+         *
+         * @throws ImportInProgressException if another run moved the checkpoint since this one read it.
+         */
+        private void commit(List<Row> rows, long upToRow, int rowsRejected) {
+            long now = System.currentTimeMillis();
+            TrainingImportCheckpoint next;
+            try {
+                next = transactionTemplate.execute(status -> {
+                    boolean[] created = trainingUpsertRepository.insertAllIfAbsent(
+                            rows.stream().map(this::training).toList());
+                    int createdCount = 0;
+                    for (boolean row : created) {
+                        createdCount += row ? 1 : 0;
+                    }
+                    // The saved copy carries the new version for the next chunk
+                    return checkpointRepository.save(checkpoint.advance(upToRow, createdCount, rowsRejected, now));
+                });
+            } catch (OptimisticLockingFailureException e) {
+                throw new ImportInProgressException("Import " + importId + " was advanced by another run");
+            }
+            long createdCount = next.getInserted() - checkpoint.getInserted();
+            checkpoint = next;
+            inserted += createdCount;
+            existing += rows.size() - createdCount;
+        }
+
+        private Training training(Row row) {
+            return new Training.Builder()
+                    .trainee(traineeRepository.getReferenceById(row.traineeId))
+                    .trainer(trainerRepository.getReferenceById(row.trainerRef.id()))
+                    .trainingType(trainingTypeRepository.getReferenceById(row.trainerRef.trainingTypeId()))
+                    .name(row.name)
+                    .date(row.date)
+                    .duration(row.duration)
+                    .build();
+        }
+
+        private void reject(long row, String error) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new TrainingImportRejection(row + 1, error));
+            }
+        }
+    }
+
+    /**
+     * @return the next line, taken from the lines read ahead until they run out.
+     */
+    private static String next(Iterator<String> readAhead, BufferedReader reader) throws IOException {
+        return readAhead.hasNext() ? readAhead.next() : reader.readLine();
+    }
+
+    private static String fingerprint(String header, List<String> firstChunk) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(header.getBytes(StandardCharsets.UTF_8));
+            for (String line : firstChunk) {
+                digest.update((byte) '\n');
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Set<String> usernames(List<Row> rows, Function<Row, String> username) {
+        return rows.stream().map(username).collect(Collectors.toSet());
+    }
+
+    private record Line(long row, String text) {}
+
+    private record TrainerRef(long id, long trainingTypeId) {}
+
+    /**
+     * A parsed data row; {@code number} counts data rows, i.e. file lines after the header.
+     */
+    private static final class Row {
+        private final long number;
+        private final String trainee;
+        private final String trainer;
+        private final String name;
+        private final LocalDate date;
+        private final int duration;
+        private Long traineeId;
+        private TrainerRef trainerRef;
+
+        Row(long number, String trainee, String trainer, String name, LocalDate date, int duration) {
+            this.number = number;
+            this.trainee = trainee;
+            this.trainer = trainer;
+            this.name = name;
+            this.date = date;
+            this.duration = duration;
+        }
+    }
+
+    /**
+     * Positions of the {@link #COLUMNS} in the file.
+     */
+    private record Header(int[] positions, int width) {
+
+        static Header parse(String line) {
+            if (line == null) {
+                throw new InvalidImportFileException("File is empty");
+            }
+            List<String> names = split(line.replace("\uFEFF", "")).stream().map(String::trim).toList();
+            int[] positions = new int[COLUMNS.size()];
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                positions[i] = names.indexOf(COLUMNS.get(i));
+                if (positions[i] < 0) {
+                    throw new InvalidImportFileException("Missing column: " + COLUMNS.get(i));
+                }
+            }
+            return new Header(positions, names.size());
+        }
+
+        Row row(Line line) {
+            List<String> fields = split(line.text());
+            if (fields.size() != width) {
+                throw new IllegalArgumentException("Expected " + width + " fields, found " + fields.size());
+            }
+            String trainee = required(fields, 0);
+            String trainer = required(fields, 1);
+            String name = required(fields, 2);
+            LocalDate date = LocalDate.parse(required(fields, 3));
+            if (!date.isBefore(LocalDate.now())) {
+                throw new IllegalArgumentException("training date must be past");
+            }
+            int duration;
+            try {
+                duration = Integer.parseInt(required(fields, 4));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("duration must be a number");
+            }
+            if (duration <= 0) {
+                throw new IllegalArgumentException("duration must be positive");
+            }
+            return new Row(line.row(), trainee, trainer, name, date, duration);
+        }
+
+        private String required(List<String> fields, int column) {
+            String value = fields.get(positions[column]).trim();
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException(COLUMNS.get(column) + " is required");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Splits one CSV line; fields may be enclosed in double quotes, with {@code ""} for a quote.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,242 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TrainingRegistrationRequest;
+import com.epam.gym.dto.TrainingRegistrationStatus;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.Training;
+import com.epam.gym.exception.ServiceOverloadedException;
+import com.epam.gym.repository.TraineeRepository;
+import com.epam.gym.repository.TrainerRepository;
+import com.epam.gym.repository.TrainingUpsertRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind training registration. Accepted requests wait in a bounded in-memory queue and
+ * a scheduled flusher writes them in batches: one query each for the trainees and trainers of
+ * a batch and one batched insert, in a single transaction. Trainings that already exist are
+ * skipped and reported as such. If a batch fails it is retried row by row, so one bad row only
+ * fails itself.
+ * <p>
+ * When the queue is full new requests are rejected with {@link ServiceOverloadedException}
+ * instead of piling up. Outcomes are kept for {@code status-ttl} (up to {@code max-tracked} of them) so clients
+ * can poll them.
+ * On shutdown intake stops and the queue is drained before the database goes away.
+ */
+@Service
+public class TrainingRegistrationQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingRegistrationQueue.class);
+
+    private final TraineeRepository traineeRepository;
+    private final TrainerRepository trainerRepository;
+    private final TrainingUpsertRepository trainingUpsertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final BlockingQueue<Submission> pending;
+    private final Cache<String, Submission> submissions;
+    private final Counter rejected;
+
+    private volatile boolean accepting = true;
+
+    @Autowired
+    public TrainingRegistrationQueue(TraineeRepository traineeRepository,
+                                     TrainerRepository trainerRepository,
+                                     TrainingUpsertRepository trainingUpsertRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${gym.training.async.batch-size:200}") int batchSize,
+                                     @Value("${gym.training.async.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${gym.training.async.status-ttl:15m}") Duration statusTtl,
+                                     @Value("${gym.training.async.max-tracked:100000}") long maxTracked,
+                                     MeterRegistry meterRegistry) {
+        this.traineeRepository = traineeRepository;
+        this.trainerRepository = trainerRepository;
+        this.trainingUpsertRepository = trainingUpsertRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        this.submissions = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(maxTracked)
+                .build();
+
+        this.rejected = Counter.builder("gym.training.async.rejected")
+                .description("Training registrations turned away because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("gym.training.async.queued", pending, BlockingQueue::size)
+                .description("Training registrations waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param request A validated registration request.
+     * @return the queued status carrying the tracking id.
+     * @throws ServiceOverloadedException if the queue is full or the application is shutting down.
+     */
+    public TrainingRegistrationStatus submit(TrainingRegistrationRequest request) {
+        if (!accepting) {
+            throw new ServiceOverloadedException("Shutting down, try again later");
+        }
+        Submission submission = new Submission(UUID.randomUUID().toString(), request);
+        submissions.put(submission.id, submission);
+        if (!pending.offer(submission)) {
+            submissions.invalidate(submission.id);
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many pending training registrations, try again later");
+        }
+        return submission.status;
+    }
+
+    /**
+     * @param trackingId The id returned by {@link #submit(TrainingRegistrationRequest)}.
+     * @param principal The authenticated username.
+     * @return the status, or empty if the id is unknown, expired, or the principal is neither
+     *         the trainee nor the trainer of the training.
+     */
+    public Optional<TrainingRegistrationStatus> status(String trackingId, String principal) {
+        Submission submission = submissions.getIfPresent(trackingId);
+        if (submission == null || !(principal.equals(submission.request.traineeUsername()) ||
+                principal.equals(submission.request.trainerUsername()))) {
+            return Optional.empty();
+        }
+        return Optional.of(submission.status);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${gym.training.async.flush-interval-ms:200}")
+    public synchronized void flush() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        accepting = false;
+        if (!pending.isEmpty()) {
+            log.info("Writing {} queued training registrations before shutdown", pending.size());
+        }
+        flush();
+    }
+
+    private void write(List<Submission> batch) {
+        try {
+            List<Written> written = transactionTemplate.execute(status -> insert(batch));
+            written.forEach(Written::complete);
+            log.debug("Wrote {} of {} queued trainings", written.size(), batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Writing {} queued trainings failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (Submission submission : batch) {
+                try {
+                    transactionTemplate.execute(status -> insert(List.of(submission))).forEach(Written::complete);
+                } catch (RuntimeException rowFailure) {
+                    log.warn("Queued training {} failed: {}", submission.id, rowFailure.getMessage());
+                    submission.complete(TrainingRegistrationStatus.failed(submission.id, "Failed to register"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the trainings of a batch whose trainee and trainer exist; the others are failed.
+     *
+     * @return the submissions whose training was inserted or already existed, to be completed after commit.
+     */
+    private List<Written> insert(List<Submission> batch) {
+        Map<String, Trainee> trainees = traineeRepository.findAllWithUserByUsernameIn(
+                        usernames(batch, TrainingRegistrationRequest::traineeUsername)).stream()
+                .collect(Collectors.toMap(trainee -> trainee.getUser().getUsername(), Function.identity()));
+        Map<String, Trainer> trainers = trainerRepository.findAllWithUserByUsernameIn(
+                        usernames(batch, TrainingRegistrationRequest::trainerUsername)).stream()
+                .collect(Collectors.toMap(trainer -> trainer.getUser().getUsername(), Function.identity()));
+
+        List<Training> trainings = new ArrayList<>(batch.size());
+        List<Submission> valid = new ArrayList<>(batch.size());
+        for (Submission submission : batch) {
+            TrainingRegistrationRequest request = submission.request;
+            Trainee trainee = trainees.get(request.traineeUsername());
+            Trainer trainer = trainers.get(request.trainerUsername());
+            if (trainee == null || trainer == null) {
+                submission.complete(TrainingRegistrationStatus.failed(submission.id,
+                        trainee == null ? "Trainee not found" : "Trainer not found"));
+                continue;
+            }
+            trainings.add(new Training.Builder()
+                    .trainee(trainee)
+                    .trainer(trainer)
+                    .name(request.name())
+                    .trainingType(trainer.getTrainingType())
+                    .date(request.date())
+                    .duration(request.duration())
+                    .build());
+            valid.add(submission);
+        }
+        boolean[] inserted = trainingUpsertRepository.insertAllIfAbsent(trainings);
+        List<Written> written = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            written.add(new Written(valid.get(i), inserted[i]));
+        }
+        return written;
+    }
+
+    private static Set<String> usernames(List<Submission> batch,
+                                         Function<TrainingRegistrationRequest, String> username) {
+        return batch.stream().map(submission -> username.apply(submission.request)).collect(Collectors.toSet());
+    }
+
+    private record Written(Submission submission, boolean created) {
+        void complete() {
+            submission.complete(created
+                    ? TrainingRegistrationStatus.created(submission.id)
+                    : TrainingRegistrationStatus.alreadyExists(submission.id));
+        }
+    }
+
+    private final class Submission {
+        private final String id;
+        private final TrainingRegistrationRequest request;
+        private volatile TrainingRegistrationStatus status;
+
+        Submission(String id, TrainingRegistrationRequest request) {
+            this.id = id;
+            this.request = request;
+            this.status = TrainingRegistrationStatus.queued(id);
+        }
+
+        void complete(TrainingRegistrationStatus status) {
+            this.status = status;
+            // Re-put so the outcome stays visible for a full status-ttl after it was reached
+            submissions.put(id, this);
+        }
+    }
+}
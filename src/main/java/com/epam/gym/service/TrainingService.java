@@ -1,7 +1,10 @@
 package com.epam.gym.service;
 
+import com.epam.gym.dto.TraineeTrainingResponse;
+import com.epam.gym.dto.TrainerTrainingResponse;
 import com.epam.gym.entity.*;
 import com.epam.gym.repository.TrainingRepository;
+import com.epam.gym.repository.TrainingUpsertRepository;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,19 +20,28 @@ public class TrainingService {
     private static final Logger log = LoggerFactory.getLogger(TrainingService.class);
 
     private final TrainingRepository trainingRepository;
+    private final TrainingUpsertRepository trainingUpsertRepository;
 
     @Autowired
-    public TrainingService(TrainingRepository trainingRepository) {
+    public TrainingService(TrainingRepository trainingRepository,
+                           TrainingUpsertRepository trainingUpsertRepository) {
         this.trainingRepository = trainingRepository;
+        this.trainingUpsertRepository = trainingUpsertRepository;
     }
 
+    /**
+     * Inserts the training unless the same one (trainee, trainer, date and name) already exists,
+     * so retried and double-submitted registrations do not create duplicates.
+     *
+     * @return true if the training was created, false if it already existed.
+     */
     @Transactional
-    public void createTraining(Trainee trainee,
-                               Trainer trainer,
-                               String name,
-                               TrainingType trainingType,
-                               LocalDate date,
-                               int duration) {
+    public boolean createTraining(Trainee trainee,
+                                  Trainer trainer,
+                                  String name,
+                                  TrainingType trainingType,
+                                  LocalDate date,
+                                  int duration) {
 
         Training training = new Training.Builder()
                 .trainee(trainee)
@@ -40,16 +52,17 @@ public class TrainingService {
                 .duration(duration)
                 .build();
 
-        try {
-            trainingRepository.save(training);
-            log.info("Training '{}' created successfully with ID: {}", name, training.getId());
-        } catch (Exception e) {
-            log.error("Failed to save training: {}", e.getMessage(), e);
+        boolean created = trainingUpsertRepository.insertIfAbsent(training);
+        if (created) {
+            log.info("Training '{}' created successfully", name);
+        } else {
+            log.info("Training '{}' on {} already exists", name, date);
         }
+        return created;
     }
 
     @Transactional
-    public List<Training> getTraineeTrainings(String username,
+    public List<TraineeTrainingResponse> getTraineeTrainings(String username,
                                               LocalDate from,
                                               LocalDate to,
                                               String trainerName,
@@ -62,7 +75,7 @@ public class TrainingService {
     }
 
     @Transactional
-    public List<Training> getTrainerTrainings(String username,
+    public List<TrainerTrainingResponse> getTrainerTrainings(String username,
                                               LocalDate from,
                                               LocalDate to,
                                               String traineeName) {
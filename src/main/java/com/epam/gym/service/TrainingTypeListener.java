@@ -0,0 +1,40 @@
+package com.epam.gym.service;
+
+import com.epam.gym.entity.TrainingType;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that refreshes the {@link TrainingTypeService} registry once a transaction
+ * writing a {@link TrainingType} has committed. Instantiated by Hibernate through Spring's bean
+ * container, hence the constructor injection.
+ */
+public class TrainingTypeListener {
+
+    private final TrainingTypeService trainingTypeService;
+
+    @Autowired
+    public TrainingTypeListener(TrainingTypeService trainingTypeService) {
+        this.trainingTypeService = trainingTypeService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterWrite(TrainingType trainingType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            trainingTypeService.refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                trainingTypeService.refresh();
+            }
+        });
+    }
+}
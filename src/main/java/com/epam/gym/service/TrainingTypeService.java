@@ -1,40 +1,145 @@
 package com.epam.gym.service;
 
+import com.epam.gym.dto.TrainingTypeResponse;
+import com.epam.gym.dto.TrainingTypesPayload;
 import com.epam.gym.entity.TrainingType;
 import com.epam.gym.entity.TrainingTypeEnum;
 import com.epam.gym.repository.TrainingTypeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.NoResultException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Registry of the training types. The table only holds the few {@link TrainingTypeEnum} values, so it
+ * is read once into memory, together with the serialized list response, and read again only when it
+ * changes: after a commit that wrote a training type through {@link TrainingTypeListener}, or when a
+ * type is missing, e.g. because it was added by another node. Reloads caused by a missing type
+ * happen at most once per {@code gym.training-types.miss-reload-interval}, so repeated lookups of
+ * a type that does not exist are answered from memory.
+ */
 @Service
 public class TrainingTypeService {
 
     private static final Logger log = LoggerFactory.getLogger(TrainingTypeService.class);
     private final TrainingTypeRepository trainingTypeRepository;
+    private final ObjectMapper objectMapper;
+    private final long missReloadIntervalMillis;
+    private final Clock clock;
+
+    private volatile Snapshot snapshot;
+    private long nextMissReloadAt = Long.MIN_VALUE;
 
     @Autowired
-    public TrainingTypeService(TrainingTypeRepository trainingTypeRepository) {
+    public TrainingTypeService(TrainingTypeRepository trainingTypeRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${gym.training-types.miss-reload-interval:10s}") Duration missReloadInterval) {
+        this(trainingTypeRepository, objectMapper, missReloadInterval, Clock.systemUTC());
+    }
+
+    TrainingTypeService(TrainingTypeRepository trainingTypeRepository,
+                        ObjectMapper objectMapper,
+                        Duration missReloadInterval,
+                        Clock clock) {
         this.trainingTypeRepository = trainingTypeRepository;
+        this.objectMapper = objectMapper;
+        this.missReloadIntervalMillis = missReloadInterval.toMillis();
+        this.clock = clock;
     }
 
-    @Transactional
     public List<TrainingType> findAllTrainingTypes(){
-        return trainingTypeRepository.findAll();
+        return snapshot().trainingTypes();
+    }
+
+    public TrainingTypesPayload findAllTrainingTypesPayload() {
+        return snapshot().payload();
     }
 
-    @Transactional
     public TrainingType findByType(String specialization) {
         log.debug("Finding trainingType by specialization: {}", specialization);
-        return trainingTypeRepository.findByType(TrainingTypeEnum.valueOf(specialization))
-                .orElseThrow(() -> {
-                    log.error("TrainingType not found with specialization: {}", specialization);
-                    return new NoResultException("TrainingType not found");
-                });
+        TrainingTypeEnum type = TrainingTypeEnum.valueOf(specialization);
+        TrainingType trainingType = snapshot().byType().get(type);
+        if (trainingType == null) {
+            trainingType = reloadOnMiss().byType().get(type);
+        }
+        if (trainingType == null) {
+            log.error("TrainingType not found with specialization: {}", specialization);
+            throw new NoResultException("TrainingType not found");
+        }
+        return trainingType;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Reads the training types from the database and replaces the registry and the serialized response.
+     */
+    public void refresh() {
+        reload();
     }
+
+    private synchronized Snapshot reload() {
+        List<TrainingType> trainingTypes = List.copyOf(trainingTypeRepository.findAllByOrderByIdAsc());
+        Map<TrainingTypeEnum, TrainingType> byType = new EnumMap<>(TrainingTypeEnum.class);
+        trainingTypes.forEach(trainingType -> byType.put(trainingType.getType(), trainingType));
+        Snapshot next = new Snapshot(trainingTypes, byType, payload(trainingTypes));
+        snapshot = next;
+        log.debug("Loaded {} training types", trainingTypes.size());
+        return next;
+    }
+
+    /**
+     * Reloads unless a missing type already caused a reload within the interval.
+     */
+    private synchronized Snapshot reloadOnMiss() {
+        long now = clock.millis();
+        if (now < nextMissReloadAt) {
+            return snapshot();
+        }
+        nextMissReloadAt = now + missReloadIntervalMillis;
+        return reload();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    private TrainingTypesPayload payload(List<TrainingType> trainingTypes) {
+        List<TrainingTypeResponse> response = trainingTypes.stream()
+                .map(trainingType -> new TrainingTypeResponse(trainingType.getId(), trainingType.getType().toString()))
+                .toList();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new TrainingTypesPayload(json, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize training types", e);
+        }
+    }
+
+    /**
+     * One consistent state of the registry, replaced as a whole on refresh.
+     */
+    record Snapshot(List<TrainingType> trainingTypes,
+                    Map<TrainingTypeEnum, TrainingType> byType,
+                    TrainingTypesPayload payload) {}
 }
@@ -1,7 +1,9 @@
 package com.epam.gym.service;
 
+import com.epam.gym.dto.UserCredentials;
 import com.epam.gym.entity.User;
 import com.epam.gym.repository.UserRepository;
+import com.epam.gym.util.UsernameFilter;
 import com.epam.gym.util.UsernamePasswordUtil;
 import jakarta.persistence.NoResultException;
 import jakarta.transaction.Transactional;
@@ -18,64 +20,87 @@ public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
     private final UsernamePasswordUtil usernamePasswordUtil;
     private final UserRepository userRepository;
+    private final UsernameFilter usernameFilter;
 
     @Autowired
-    public UserService(UserRepository userRepository, UsernamePasswordUtil usernamePasswordUtil) {
+    public UserService(UserRepository userRepository,
+                       UsernamePasswordUtil usernamePasswordUtil,
+                       UsernameFilter usernameFilter) {
         this.userRepository = userRepository;
         this.usernamePasswordUtil = usernamePasswordUtil;
+        this.usernameFilter = usernameFilter;
     }
 
+    /**
+     * Loads only what is needed to verify a password for the given username.
+     */
     @Transactional
-    public Optional<User> findByUsername(String username) {
-        log.debug("Finding user by username: {}", username);
-        return userRepository.findByUsername(username);
+    public Optional<UserCredentials> findCredentials(String username) {
+        log.debug("Finding credentials by username: {}", username);
+        return usernameFilter.lookupConfirmed(username, userRepository::findCredentialsByUsername);
     }
 
+    /**
+     * Verifies a raw password against the stored hash of a user. On success, a hash weaker
+     * than the configured cost is replaced by a fresh one.
+     */
     @Transactional
-    public boolean authenticate(String username, String password) {
-        log.info("Authenticating user: {}", username);
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isPresent() && userOpt.get().isActive()) {
-            User user = userOpt.get();
-            boolean matches = usernamePasswordUtil.checkPassword(password, user.getPassword());
-            if(matches) {
-                log.info("Authentication successful for user: {}", username);
-                return true;
-            } else {
-                log.warn("Authentication failed for user: {} - Incorrect password", username);
-                return false;
-            }
+    public boolean checkCredentials(UserCredentials credentials, String rawPassword) {
+        if (!usernamePasswordUtil.checkPassword(rawPassword, credentials.password())) {
+            return false;
         }
-        log.warn("Authentication failed for user: {} - User not found or inactive", username);
-        return false;
+        if (usernamePasswordUtil.needsRehash(credentials.password())) {
+            storePassword(credentials.id(), usernamePasswordUtil.hashPassword(rawPassword));
+            log.info("Rehashed password for user id: {}", credentials.id());
+        }
+        return true;
     }
 
+    /**
+     * Verifies the old password and stores the hash of the new one.
+     *
+     * @throws NoResultException if the user does not exist.
+     * @throws SecurityException if the user is inactive or the old password is incorrect.
+     * @throws IllegalArgumentException if the new password is blank.
+     */
     @Transactional
     public void changePassword(String username, String oldPassword, String newPassword) {
-        log.info("Attempting to change password for trainee: {}", username);
-
-        if (!authenticate(username, oldPassword)) {
-            log.error("Password change failed for {}: Authentication failed (old password incorrect or user inactive/not found).", username);
-            throw new SecurityException("Authentication failed for password change.");
-        }
+        log.info("Attempting to change password for user: {}", username);
 
-        User user = userRepository.findByUsername(username)
+        UserCredentials credentials = usernameFilter.lookupConfirmed(username, userRepository::findCredentialsByUsername)
             .orElseThrow(() -> {
-                log.error("Password change failed: User {} not found after successful authentication.", username); // Should not happen
+                log.error("Password change failed: User {} not found.", username);
                 return new NoResultException("User not found: " + username);
             });
 
+        if (!credentials.isActive() ||
+                !usernamePasswordUtil.checkPassword(oldPassword, credentials.password())) {
+            log.error("Password change failed for {}: Authentication failed (old password incorrect or user inactive).", username);
+            throw new SecurityException("Authentication failed for password change.");
+        }
+
         if (newPassword == null || newPassword.isBlank()) {
             log.error("Password change failed for {}: New password cannot be empty.", username);
             throw new IllegalArgumentException("New password cannot be empty.");
         }
 
-        user = user.toBuilder()
-            .password(usernamePasswordUtil.hashPassword(newPassword))
-            .build();
-
-        userRepository.save(user); // Persist the change
+        if (!storePassword(credentials.id(), usernamePasswordUtil.hashPassword(newPassword))) {
+            log.error("Password change failed: User {} was removed concurrently.", username);
+            throw new NoResultException("User not found: " + username);
+        }
         log.info("Password changed successfully for user: {}", username);
     }
 
+    /**
+     * Updates the password on the entity rather than with a bulk update, which would evict the
+     * whole users region of the second-level cache instead of this one user.
+     *
+     * @return false if the user no longer exists.
+     */
+    private boolean storePassword(Long id, String passwordHash) {
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(found -> userRepository.save(found.toBuilder().password(passwordHash).build()));
+        return user.isPresent();
+    }
+
 }
@@ -0,0 +1,183 @@
+package com.epam.gym.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Keeps sessions in this node's memory, with a per-user index and a deadline queue so that
+ * expiry only visits entries whose deadline has passed, never the whole store. Revocations are
+ * queued by their own expiry the same way.
+ */
+public class InMemoryTokenStore implements TokenStore {
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> userTokens = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Deadline> deadlines = new PriorityBlockingQueue<>();
+    private final Map<String, Long> revocations = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Lapse> lapses = new PriorityBlockingQueue<>();
+
+    @Override
+    public void save(String token, StoredToken session) {
+        Entry entry = new Entry(session);
+        sessions.put(token, entry);
+        userTokens.compute(session.username(), (key, tokens) -> {
+            Set<String> set = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            set.add(token);
+            return set;
+        });
+        deadlines.offer(new Deadline(token, entry, session.expiresAt()));
+    }
+
+    @Override
+    public void saveAll(Map<String, StoredToken> sessions) {
+        sessions.forEach(this::save);
+    }
+
+    @Override
+    public StoredToken access(String token, long now, long idleTtlMillis) {
+        Entry entry = sessions.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt > now) {
+            entry.expiresAt = Math.max(entry.expiresAt, entry.session.slide(now, idleTtlMillis));
+        }
+        return entry.snapshot();
+    }
+
+    @Override
+    public StoredToken remove(String token) {
+        Entry entry = sessions.remove(token);
+        if (entry == null) {
+            return null;
+        }
+        unindex(token, entry);
+        return entry.snapshot();
+    }
+
+    @Override
+    public List<String> removeAll(String username) {
+        Set<String> tokens = userTokens.remove(username);
+        if (tokens == null) {
+            return List.of();
+        }
+        List<String> removed = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (sessions.remove(token) != null) {
+                removed.add(token);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Entries whose idle window was extended since they were queued are re-queued
+     * with their new deadline instead of being dropped.
+     */
+    @Override
+    public List<String> evictExpired(long now) {
+        List<String> evicted = new ArrayList<>();
+        Deadline head;
+        while ((head = deadlines.peek()) != null && head.at() <= now) {
+            deadlines.poll();
+            if (sessions.get(head.token()) != head.entry()) {
+                continue; // removed or replaced
+            }
+            long expiresAt = head.entry().expiresAt;
+            if (expiresAt <= now) {
+                if (sessions.remove(head.token(), head.entry())) {
+                    unindex(head.token(), head.entry());
+                    evicted.add(head.token());
+                }
+            } else {
+                deadlines.offer(new Deadline(head.token(), head.entry(), expiresAt));
+            }
+        }
+        Lapse lapse;
+        while ((lapse = lapses.peek()) != null && lapse.at() <= now) {
+            lapses.poll();
+            revocations.remove(lapse.subject(), lapse.revokedAt()); // unless revoked again since
+        }
+        return evicted;
+    }
+
+    @Override
+    public void revoke(String subject, long revokedAt, long expiresAt) {
+        revocations.put(subject, revokedAt);
+        lapses.offer(new Lapse(subject, revokedAt, expiresAt));
+    }
+
+    @Override
+    public Map<String, Long> revokedAt(Collection<String> subjects) {
+        Map<String, Long> revoked = new HashMap<>();
+        for (String subject : subjects) {
+            Long revokedAt = revocations.get(subject);
+            if (revokedAt != null) {
+                revoked.put(subject, revokedAt);
+            }
+        }
+        return revoked;
+    }
+
+    private void unindex(String token, Entry entry) {
+        userTokens.computeIfPresent(entry.session.username(), (key, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    @Override
+    public long size() {
+        return sessions.size();
+    }
+
+    @Override
+    public long revokedCount() {
+        return revocations.size();
+    }
+
+    @Override
+    public int sessionCount(String username) {
+        Set<String> tokens = userTokens.get(username);
+        return tokens == null ? 0 : tokens.size();
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    private static final class Entry {
+        private final StoredToken session;
+        private volatile long expiresAt;
+
+        private Entry(StoredToken session) {
+            this.session = session;
+            this.expiresAt = session.expiresAt();
+        }
+
+        private StoredToken snapshot() {
+            return session.withExpiresAt(expiresAt);
+        }
+    }
+
+    private record Deadline(String token, Entry entry, long at) implements Comparable<Deadline> {
+        @Override
+        public int compareTo(Deadline other) {
+            return Long.compare(at, other.at);
+        }
+    }
+
+    private record Lapse(String subject, Long revokedAt, long at) implements Comparable<Lapse> {
+        @Override
+        public int compareTo(Lapse other) {
+            return Long.compare(at, other.at);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.epam.gym.store;
+
+import com.epam.gym.exception.TokenStoreUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps sessions in a Redis server shared by all nodes, through Spring Data Redis.
+ * <p>
+ * Each session is a string key with the server-side TTL set to its sliding deadline, plus a
+ * membership in a per-user set (for {@link #removeAll(String)}) and in a sorted set scored by
+ * deadline (for {@link #size()}). Multi-command operations are pipelined, so each costs one
+ * round trip. Idle-window extensions are not written on every access: they are coalesced per
+ * token and flushed in pipelined batches by {@link #flushTouches()}.
+ * <p>
+ * Revocations of signed tokens are string keys expiring with the tokens they cover, indexed
+ * in a sorted set scored by that expiry (for {@link #revokedCount()}).
+ * <p>
+ * A small near-cache answers repeated lookups of the same token or revocation without a round
+ * trip. Removals and revocations made on this node update it at once; those made on other
+ * nodes become visible here within the near-cache TTL.
+ */
+public class RemoteTokenStore implements TokenStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteTokenStore.class);
+
+    private static final String TOKEN_KEY = "gym:token:";
+    private static final String USER_KEY = "gym:user-tokens:";
+    private static final String DEADLINES_KEY = "gym:token-deadlines";
+    private static final String REVOKED_KEY = "gym:revoked:";
+    private static final String REVOCATIONS_KEY = "gym:revocations";
+    private static final long NOT_REVOKED = Long.MIN_VALUE;
+    private static final int PIPELINE_CHUNK = 500;
+
+    private final StringRedisTemplate redis;
+    private final Clock clock;
+    private final Cache<String, StoredToken> nearCache;
+    private final Cache<String, Long> revocationCache;
+    private final Map<String, Long> pendingTouches = new ConcurrentHashMap<>();
+
+    public RemoteTokenStore(StringRedisTemplate redis,
+                            int nearCacheSize,
+                            Duration nearCacheTtl,
+                            Clock clock) {
+        this.redis = redis;
+        this.clock = clock;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterWrite(nearCacheTtl)
+                .executor(Runnable::run)
+                .build();
+        this.revocationCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterWrite(nearCacheTtl)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public void save(String token, StoredToken session) {
+        long now = clock.millis();
+        pipeline(connection -> save(connection, token, session, now));
+        nearCache.put(token, session);
+    }
+
+    @Override
+    public void saveAll(Map<String, StoredToken> sessions) {
+        long now = clock.millis();
+        List<Map.Entry<String, StoredToken>> entries = new ArrayList<>(sessions.entrySet());
+        for (int from = 0; from < entries.size(); from += PIPELINE_CHUNK) {
+            List<Map.Entry<String, StoredToken>> chunk = entries.subList(from, Math.min(entries.size(), from + PIPELINE_CHUNK));
+            pipeline(connection -> chunk.forEach(entry -> save(connection, entry.getKey(), entry.getValue(), now)));
+        }
+    }
+
+    private static void save(StringRedisConnection connection, String token, StoredToken session, long now) {
+        String userKey = USER_KEY + session.username();
+        connection.set(TOKEN_KEY + token, encode(session),
+                Expiration.milliseconds(ttl(session.expiresAt(), now)), SetOption.upsert());
+        connection.sAdd(userKey, token);
+        connection.pExpire(userKey, ttl(session.absoluteExpiresAt(), now));
+        connection.zAdd(DEADLINES_KEY, session.expiresAt(), token);
+    }
+
+    /**
+     * Served from the near-cache when possible; a cached session that looks expired is re-read,
+     * since another node may have extended it in the meantime.
+     */
+    @Override
+    public StoredToken access(String token, long now, long idleTtlMillis) {
+        StoredToken session = nearCache.getIfPresent(token);
+        if (session == null || session.expiresAt() <= now) {
+            session = fetch(token, now);
+            if (session == null) {
+                nearCache.invalidate(token);
+                return null;
+            }
+        }
+        return slide(token, session, now, idleTtlMillis);
+    }
+
+    /**
+     * Near-cache misses are fetched with one pipelined round trip for the whole batch.
+     */
+    @Override
+    public Map<String, StoredToken> accessAll(Collection<String> tokens, long now, long idleTtlMillis) {
+        Map<String, StoredToken> sessions = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String token : tokens) {
+            StoredToken session = nearCache.getIfPresent(token);
+            if (session == null || session.expiresAt() <= now) {
+                misses.add(token);
+            } else {
+                sessions.put(token, slide(token, session, now, idleTtlMillis));
+            }
+        }
+        for (int from = 0; from < misses.size(); from += PIPELINE_CHUNK / 2) {
+            List<String> chunk = misses.subList(from, Math.min(misses.size(), from + PIPELINE_CHUNK / 2));
+            List<Object> replies = pipeline(connection -> chunk.forEach(token -> fetch(connection, token)));
+            for (int i = 0; i < chunk.size(); i++) {
+                String token = chunk.get(i);
+                StoredToken session = toSession(replies.get(2 * i), replies.get(2 * i + 1), now);
+                if (session == null) {
+                    nearCache.invalidate(token);
+                } else {
+                    sessions.put(token, slide(token, session, now, idleTtlMillis));
+                }
+            }
+        }
+        return sessions;
+    }
+
+    private StoredToken slide(String token, StoredToken session, long now, long idleTtlMillis) {
+        if (session.expiresAt() <= now) {
+            return session;
+        }
+        StoredToken accessed = session.withExpiresAt(Math.max(session.expiresAt(), session.slide(now, idleTtlMillis)));
+        nearCache.put(token, accessed);
+        pendingTouches.merge(token, accessed.expiresAt(), Math::max);
+        return accessed;
+    }
+
+    private StoredToken fetch(String token, long now) {
+        List<Object> replies = pipeline(connection -> fetch(connection, token));
+        return toSession(replies.get(0), replies.get(1), now);
+    }
+
+    private static void fetch(StringRedisConnection connection, String token) {
+        connection.get(TOKEN_KEY + token);
+        connection.pTtl(TOKEN_KEY + token);
+    }
+
+    private static StoredToken toSession(Object value, Object ttl, long now) {
+        if (value == null) {
+            return null;
+        }
+        StoredToken session = decode((String) value);
+        long remaining = (Long) ttl;
+        return session.withExpiresAt(remaining >= 0 ? now + remaining : session.absoluteExpiresAt());
+    }
+
+    @Override
+    public StoredToken remove(String token) {
+        StoredToken session = nearCache.getIfPresent(token);
+        if (session == null) {
+            session = fetch(token, clock.millis());
+        }
+        nearCache.invalidate(token);
+        pendingTouches.remove(token);
+        if (session == null) {
+            return null;
+        }
+        String username = session.username();
+        List<Object> replies = pipeline(connection -> {
+            connection.del(TOKEN_KEY + token);
+            connection.sRem(USER_KEY + username, token);
+            connection.zRem(DEADLINES_KEY, token);
+        });
+        return (Long) replies.get(0) > 0 ? session : null;
+    }
+
+    @Override
+    public List<String> removeAll(String username) {
+        List<String> tokens = List.copyOf(members(username));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<Object> replies = pipeline(connection -> {
+            tokens.forEach(token -> connection.del(TOKEN_KEY + token));
+            connection.zRem(DEADLINES_KEY, tokens.toArray(String[]::new));
+            connection.del(USER_KEY + username);
+        });
+
+        List<String> removed = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            nearCache.invalidate(token);
+            pendingTouches.remove(token);
+            if ((Long) replies.get(i) > 0) {
+                removed.add(token);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * The server drops expired session and revocation keys itself; this only trims their
+     * indexes, so the returned list is always empty.
+     */
+    @Override
+    public List<String> evictExpired(long now) {
+        pipeline(connection -> {
+            connection.zRemRangeByScore(DEADLINES_KEY, 0, now);
+            connection.zRemRangeByScore(REVOCATIONS_KEY, 0, now);
+        });
+        nearCache.cleanUp();
+        revocationCache.cleanUp();
+        return List.of();
+    }
+
+    @Override
+    public void revoke(String subject, long revokedAt, long expiresAt) {
+        long now = clock.millis();
+        pipeline(connection -> {
+            connection.set(REVOKED_KEY + subject, Long.toString(revokedAt),
+                    Expiration.milliseconds(ttl(expiresAt, now)), SetOption.upsert());
+            connection.zAdd(REVOCATIONS_KEY, expiresAt, subject);
+        });
+        revocationCache.put(subject, revokedAt);
+    }
+
+    /**
+     * Subjects missing from the near-cache are fetched with one MGET; subjects found not
+     * revoked are cached too.
+     */
+    @Override
+    public Map<String, Long> revokedAt(Collection<String> subjects) {
+        Map<String, Long> cached = revocationCache.getAll(subjects, missing -> {
+            List<String> keys = List.copyOf(missing);
+            List<String> values = call(() -> redis.opsForValue().multiGet(keys.stream().map(key -> REVOKED_KEY + key).toList()));
+            Map<String, Long> loaded = new HashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                String value = values.get(i);
+                loaded.put(keys.get(i), value == null ? NOT_REVOKED : Long.parseLong(value));
+            }
+            return loaded;
+        });
+        Map<String, Long> revoked = new HashMap<>();
+        cached.forEach((subject, revokedAt) -> {
+            if (revokedAt != NOT_REVOKED) {
+                revoked.put(subject, revokedAt);
+            }
+        });
+        return revoked;
+    }
+
+    /**
+     * Writes the idle-window extensions collected since the last flush in pipelined batches,
+     * keeping only the latest deadline per token.
+     */
+    @Scheduled(fixedDelayString = "${gym.token.store.remote.touch-flush-interval-ms:500}")
+    public void flushTouches() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+        long now = clock.millis();
+        Map<String, Long> batch = new HashMap<>();
+        for (Map.Entry<String, Long> touch : pendingTouches.entrySet()) {
+            String token = touch.getKey();
+            long expiresAt = touch.getValue();
+            pendingTouches.remove(token, expiresAt); // a newer deadline stays queued for the next flush
+            batch.put(token, expiresAt);
+            if (batch.size() * 2 >= PIPELINE_CHUNK) {
+                writeTouches(batch, now);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeTouches(batch, now);
+        }
+    }
+
+    private void writeTouches(Map<String, Long> touches, long now) {
+        pipeline(connection -> touches.forEach((token, expiresAt) -> {
+            connection.pExpire(TOKEN_KEY + token, ttl(expiresAt, now));
+            connection.zAdd(DEADLINES_KEY, expiresAt, token, ZAddArgs.ifExists());
+        }));
+    }
+
+    @Override
+    public long size() {
+        return call(() -> redis.opsForZSet().zCard(DEADLINES_KEY));
+    }
+
+    @Override
+    public long revokedCount() {
+        return call(() -> redis.opsForZSet().zCard(REVOCATIONS_KEY));
+    }
+
+    @Override
+    public int sessionCount(String username) {
+        List<String> tokens = List.copyOf(members(username));
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        for (Object exists : pipeline(connection -> tokens.forEach(token -> connection.exists(TOKEN_KEY + token)))) {
+            count += Boolean.TRUE.equals(exists) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private Set<String> members(String username) {
+        Set<String> tokens = call(() -> redis.opsForSet().members(USER_KEY + username));
+        return tokens == null ? Set.of() : tokens;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    private List<Object> pipeline(Consumer<StringRedisConnection> commands) {
+        return call(() -> redis.executePipelined((RedisCallback<Object>) connection -> {
+            commands.accept((StringRedisConnection) connection);
+            return null;
+        }));
+    }
+
+    private static <T> T call(Supplier<T> command) {
+        try {
+            return command.get();
+        } catch (DataAccessException e) {
+            throw new TokenStoreUnavailableException("Token store request failed", e);
+        }
+    }
+
+    /**
+     * Writes the pending idle-window extensions; the connection itself belongs to Spring.
+     */
+    @Override
+    public void close() {
+        try {
+            flushTouches();
+        } catch (TokenStoreUnavailableException e) {
+            log.warn("Could not flush {} pending token touches on shutdown", pendingTouches.size(), e);
+        }
+    }
+
+    private static long ttl(long deadline, long now) {
+        return Math.max(1, deadline - now);
+    }
+
+    private static String encode(StoredToken session) {
+        return session.issuedAt() + ":" + session.absoluteExpiresAt() + ":" + session.username();
+    }
+
+    private static StoredToken decode(String value) {
+        String[] parts = value.split(":", 3);
+        long absoluteExpiresAt = Long.parseLong(parts[1]);
+        return new StoredToken(parts[2], Long.parseLong(parts[0]), absoluteExpiresAt, absoluteExpiresAt);
+    }
+}
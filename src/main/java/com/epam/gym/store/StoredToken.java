@@ -0,0 +1,28 @@
+package com.epam.gym.store;
+
+/**
+ * A session as kept by a {@link TokenStore}.
+ *
+ * @param username The owner of the token.
+ * @param issuedAt When the token was issued, in epoch millis.
+ * @param expiresAt The current (sliding) deadline, in epoch millis.
+ * @param absoluteExpiresAt The deadline the token can never be extended past, in epoch millis.
+ */
+public record StoredToken(
+        String username,
+        long issuedAt,
+        long expiresAt,
+        long absoluteExpiresAt
+) {
+    public StoredToken withExpiresAt(long expiresAt) {
+        return new StoredToken(username, issuedAt, expiresAt, absoluteExpiresAt);
+    }
+
+    /**
+     * @return the deadline after an access at {@code now}: the idle window restarts,
+     * but never past the absolute expiry.
+     */
+    public long slide(long now, long idleTtlMillis) {
+        return Math.min(now + idleTtlMillis, absoluteExpiresAt);
+    }
+}
@@ -0,0 +1,96 @@
+package com.epam.gym.store;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage for opaque session tokens and for the revocations of signed tokens.
+ * {@link InMemoryTokenStore} keeps them on this node; {@link RemoteTokenStore} keeps them in a
+ * key-value server shared by all nodes, so any node can validate a token issued by another one
+ * and honours a logout made on another one. {@code TokenService} hands opaque tokens in as
+ * their hashes, so a store never holds usable bearer tokens.
+ */
+public interface TokenStore {
+
+    void save(String token, StoredToken session);
+
+    /**
+     * Stores many sessions at once, e.g. when restoring persisted tokens on startup.
+     */
+    void saveAll(Map<String, StoredToken> sessions);
+
+    /**
+     * Looks up a session and, if it has not expired yet, slides its deadline to
+     * {@link StoredToken#slide(long, long)}. Expired sessions are returned unchanged
+     * and left for the caller to {@link #remove(String)}.
+     *
+     * @return the session after the access, or null if the token is unknown.
+     */
+    StoredToken access(String token, long now, long idleTtlMillis);
+
+    /**
+     * {@link #access(String, long, long)} for many tokens at once. Stores with a remote
+     * backend override this to fetch all tokens in one round trip.
+     *
+     * @return the sessions of the known tokens; unknown tokens are absent.
+     */
+    default Map<String, StoredToken> accessAll(Collection<String> tokens, long now, long idleTtlMillis) {
+        Map<String, StoredToken> sessions = new HashMap<>();
+        for (String token : tokens) {
+            StoredToken session = access(token, now, idleTtlMillis);
+            if (session != null) {
+                sessions.put(token, session);
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * @return the removed session, or null if the token was not (or no longer) stored.
+     */
+    StoredToken remove(String token);
+
+    /**
+     * @return the tokens of the user that were removed.
+     */
+    List<String> removeAll(String username);
+
+    /**
+     * Drops sessions whose deadline has passed, and revocations that have lapsed.
+     *
+     * @return the dropped tokens this store had to remove itself; stores whose backend
+     * expires entries on its own may return an empty list.
+     */
+    List<String> evictExpired(long now);
+
+    /**
+     * Records a revocation of signed tokens, kept until {@code expiresAt}, when every token it
+     * covers has expired on its own. A later revocation of the same subject replaces it.
+     *
+     * @param subject What is revoked, e.g. one token id or all tokens of a user.
+     * @param revokedAt When it was revoked; tokens issued after that are not covered.
+     */
+    void revoke(String subject, long revokedAt, long expiresAt);
+
+    /**
+     * @return the revocation time of each revoked subject; subjects not revoked are absent.
+     */
+    Map<String, Long> revokedAt(Collection<String> subjects);
+
+    long size();
+
+    /**
+     * @return the number of revocations still kept.
+     */
+    long revokedCount();
+
+    int sessionCount(String username);
+
+    /**
+     * @return true if the store is shared between nodes and is itself the source of truth,
+     * so tokens need not be persisted and restored by each node.
+     */
+    boolean isShared();
+}
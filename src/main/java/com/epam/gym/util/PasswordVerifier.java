@@ -0,0 +1,193 @@
+package com.epam.gym.util;
+
+import com.epam.gym.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies raw passwords against stored BCrypt hashes on a dedicated, bounded pool, so a burst
+ * of logins queues here instead of pinning request threads, and fails fast once the queue is full.
+ * Recently verified (stored hash, raw password) pairs are remembered by digest for a short time,
+ * so repeated logins of the same client skip the hash computation. A password change produces a
+ * new stored hash, which invalidates the cached pair implicitly.
+ */
+@Component
+public class PasswordVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordVerifier.class);
+    private static final String BCRYPT_PREFIX = "$2";
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long cacheTtlMillis;
+    private final Map<String, Long> verified;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public PasswordVerifier(BCryptPasswordEncoder passwordEncoder,
+                            @Value("${gym.password.verifier.threads:4}") int threads,
+                            @Value("${gym.password.verifier.queue-capacity:200}") int queueCapacity,
+                            @Value("${gym.password.verifier.timeout-ms:2000}") long timeoutMillis,
+                            @Value("${gym.password.verified-cache.size:10000}") int cacheSize,
+                            @Value("${gym.password.verified-cache.ttl:60s}") Duration cacheTtl,
+                            MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+        this.cacheTtlMillis = cacheTtl.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        Gauge.builder("gym.password.verifier.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("gym.password.verifier.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("gym.password.verifier.rejected", rejected, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder("gym.password.verifier.cache.hits", cacheHits, LongAdder::sum)
+                .register(meterRegistry);
+    }
+
+    public String hash(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    /**
+     * Checks a raw password against its stored hash. Stored values that are not BCrypt hashes
+     * never match; plain-text passwords are rehashed by {@code LegacyPasswordMigration}.
+     *
+     * @throws ServiceOverloadedException if the verification queue is full or the check times out.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        if (!encodedPassword.startsWith(BCRYPT_PREFIX)) {
+            log.warn("Stored password is not a BCrypt hash, rejecting");
+            return false;
+        }
+        String key = digest(encodedPassword, rawPassword);
+        if (isRecentlyVerified(key)) {
+            cacheHits.increment();
+            return true;
+        }
+        boolean matches = verify(rawPassword, encodedPassword);
+        if (matches) {
+            synchronized (verified) {
+                verified.put(key, System.currentTimeMillis() + cacheTtlMillis);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return true if the stored hash was computed with a lower cost than configured.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null &&
+                encodedPassword.startsWith(BCRYPT_PREFIX) &&
+                passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private boolean verify(String rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password verification queue is full ({} waiting)", executor.getQueue().size());
+            throw new ServiceOverloadedException("Too many concurrent logins, try again later", e);
+        }
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejected.increment();
+            throw new ServiceOverloadedException("Password verification timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Password verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    private boolean isRecentlyVerified(String key) {
+        synchronized (verified) {
+            Long expiresAt = verified.get(key);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt <= System.currentTimeMillis()) {
+                verified.remove(key);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static String digest(String encodedPassword, String rawPassword) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+            sha256.update(rawPassword.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,117 @@
+package com.epam.gym.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encodes and verifies self-contained HMAC-SHA256 tokens of the form
+ * {@code base64url(id | issuedAt | expiresAt | username) "." base64url(signature)}.
+ * Verification needs only the shared secret, so any node can check a token
+ * issued by any other node without a store lookup. The signature also covers a format
+ * version, so tokens of an earlier layout fail verification instead of being misread.
+ */
+public final class SignedTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int ID_LENGTH = 12;
+    private static final int HEADER_LENGTH = ID_LENGTH + 2 * Long.BYTES;
+    private static final byte VERSION = 2;
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> mac;
+
+    public SignedTokenCodec(byte[] secret) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("Token secret must be at least 32 bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC not available", e);
+            }
+        });
+    }
+
+    /**
+     * Creates a codec with a random secret. Tokens are then only verifiable by this process.
+     */
+    public static SignedTokenCodec withRandomSecret() {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        return new SignedTokenCodec(secret);
+    }
+
+    public String encode(String username, long issuedAtMillis, long expiresAtMillis) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        byte[] id = new byte[ID_LENGTH];
+        random.nextBytes(id);
+        byte[] payload = ByteBuffer.allocate(HEADER_LENGTH + name.length)
+                .put(id)
+                .putLong(issuedAtMillis)
+                .putLong(expiresAtMillis)
+                .put(name)
+                .array();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(payload));
+    }
+
+    /**
+     * Verifies the signature and decodes the claims of a token.
+     *
+     * @param token The token string.
+     * @return the decoded claims, or null if the token is malformed or its signature does not match.
+     * Expiry is not checked here.
+     */
+    public Claims decode(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = decoder.decode(token.substring(0, dot));
+            signature = decoder.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (payload.length <= HEADER_LENGTH ||
+                !MessageDigest.isEqual(signature, sign(payload))) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte[] id = new byte[ID_LENGTH];
+        buffer.get(id);
+        long issuedAt = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        String username = new String(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH,
+                StandardCharsets.UTF_8);
+        return new Claims(encoder.encodeToString(id), username, issuedAt, expiresAt);
+    }
+
+    private byte[] sign(byte[] payload) {
+        Mac instance = mac.get();
+        instance.update(VERSION);
+        return instance.doFinal(payload);
+    }
+
+    /**
+     * Decoded token contents. {@code id} is a short random identifier used for revocation.
+     */
+    public record Claims(String id, String username, long issuedAt, long expiresAt) {}
+}
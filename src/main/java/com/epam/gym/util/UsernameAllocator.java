@@ -0,0 +1,86 @@
+package com.epam.gym.util;
+
+import com.epam.gym.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out unique usernames of the form {@code base}, {@code base1}, {@code base2}, ... from a
+ * per-base counter. The counter is seeded lazily with one query for the usernames already taken
+ * under that base and then advanced in memory, so concurrent registrations of the same name each
+ * get their own suffix without further queries.
+ * <p>
+ * Counters of rarely used bases are evicted and reseeded on their next use. Names taken behind
+ * the counter's back (another node, or a neighbouring base such as {@code john.smith1}) are caught
+ * by the unique constraint on {@code users.username}; {@link #forget(String)} then makes the next
+ * allocation reseed from the database.
+ */
+@Component
+public class UsernameAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameAllocator.class);
+    private static final char LIKE_ESCAPE = UserRepository.LIKE_ESCAPE;
+    private static final int MAX_SUFFIX_DIGITS = 18;
+
+    private final UserRepository userRepository;
+    private final Cache<String, AtomicLong> nextSuffix;
+
+    @Autowired
+    public UsernameAllocator(UserRepository userRepository,
+                             @Value("${gym.username.allocator.max-tracked:10000}") long maxTracked) {
+        this.userRepository = userRepository;
+        this.nextSuffix = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .build();
+    }
+
+    /**
+     * @param base The lower-cased {@code firstname.lastname}.
+     * @return {@code base} itself if it is free, otherwise {@code base} followed by the next free serial number.
+     */
+    public String allocate(String base) {
+        long suffix = nextSuffix.get(base, this::seed).getAndIncrement();
+        return suffix == 0 ? base : base + suffix;
+    }
+
+    /**
+     * Drops the counter of a base after its allocation turned out to be taken already.
+     */
+    public void forget(String base) {
+        nextSuffix.invalidate(base);
+    }
+
+    private AtomicLong seed(String base) {
+        long next = 0;
+        for (String username : userRepository.findUsernamesLike(escape(base) + "%")) {
+            if (username.equals(base)) {
+                next = Math.max(next, 1);
+                continue;
+            }
+            String suffix = username.substring(base.length());
+            if (suffix.length() <= MAX_SUFFIX_DIGITS && suffix.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                next = Math.max(next, Long.parseLong(suffix) + 1);
+            }
+        }
+        log.debug("Seeded username counter for {} at {}", base, next);
+        return new AtomicLong(next);
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
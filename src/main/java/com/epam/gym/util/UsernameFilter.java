@@ -0,0 +1,249 @@
+package com.epam.gym.util;
+
+import com.epam.gym.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * In-memory Bloom filter of all usernames, so lookups of names that never existed are answered
+ * without a database round trip. The filter is built once the application is ready, receives
+ * every committed user insert through {@link UsernameFilterListener}, and is rebuilt periodically
+ * so that deleted usernames eventually stop matching. Until the first build completes every
+ * lookup goes to the database.
+ * <p>
+ * A rebuild collects concurrent inserts in the new filter as well as the current one, and inserts
+ * are only added after their transaction committed, so a committed username is always either seen
+ * by the rebuild query or added to the new filter directly.
+ * <p>
+ * Only inserts made through this node are added as they happen: users created by another node or
+ * directly in the database are unknown to {@link #lookup} until the next rebuild. Authentication
+ * therefore uses {@link #lookupConfirmed}, which checks a miss against the database and adds the
+ * username if it turns out to exist.
+ */
+@Component
+public class UsernameFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    private final UserRepository userRepository;
+    private final long expectedUsernames;
+    private final double targetFpp;
+
+    private volatile Bits current;
+    private volatile Bits building;
+
+    private final Counter skipped;
+    private final Counter found;
+    private final Counter falsePositives;
+    private final Counter stale;
+
+    @Autowired
+    public UsernameFilter(UserRepository userRepository,
+                          @Value("${gym.username.filter.expected-usernames:100000}") long expectedUsernames,
+                          @Value("${gym.username.filter.fpp:0.01}") double targetFpp,
+                          MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.expectedUsernames = expectedUsernames;
+        this.targetFpp = targetFpp;
+
+        this.skipped = Counter.builder("gym.username.filter.lookups")
+                .tag("result", "skipped").register(meterRegistry);
+        this.found = Counter.builder("gym.username.filter.lookups")
+                .tag("result", "found").register(meterRegistry);
+        this.falsePositives = Counter.builder("gym.username.filter.lookups")
+                .tag("result", "false-positive").register(meterRegistry);
+        this.stale = Counter.builder("gym.username.filter.lookups")
+                .tag("result", "stale").register(meterRegistry);
+        Gauge.builder("gym.username.filter.false-positive-rate", this, UsernameFilter::falsePositiveRate)
+                .description("Share of lookups for absent usernames that the filter let through to the database")
+                .register(meterRegistry);
+        Gauge.builder("gym.username.filter.expected-fpp", this, UsernameFilter::expectedFpp)
+                .description("False-positive probability implied by the current bit fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks a username up in the database unless the filter knows it does not exist.
+     *
+     * @param username The username to look up.
+     * @param query The database lookup to run if the username may exist.
+     * @return the query result, or empty without querying if the username definitely does not exist.
+     */
+    public <T> Optional<T> lookup(String username, Function<String, Optional<T>> query) {
+        Bits bits = current;
+        if (bits != null && (username == null || !bits.mightContain(username))) {
+            skipped.increment();
+            return Optional.empty();
+        }
+        Optional<T> result = query.apply(username);
+        if (bits != null) {
+            (result.isPresent() ? found : falsePositives).increment();
+        }
+        return result;
+    }
+
+    /**
+     * Looks a username up in the database even if the filter says it does not exist, for paths
+     * that must see users added behind this node's back. A username found that way is added to
+     * the filter, so later lookups on this node find it without this fallback.
+     *
+     * @param username The username to look up.
+     * @param query The database lookup.
+     * @return the query result.
+     */
+    public <T> Optional<T> lookupConfirmed(String username, Function<String, Optional<T>> query) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        Bits bits = current;
+        Optional<T> result = query.apply(username);
+        if (bits == null) {
+            return result;
+        }
+        if (bits.mightContain(username)) {
+            (result.isPresent() ? found : falsePositives).increment();
+        } else if (result.isPresent()) {
+            stale.increment();
+            put(username);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a username; called after the transaction inserting it committed.
+     */
+    public void put(String username) {
+        Bits bits = current;
+        if (bits != null) {
+            bits.put(username);
+        }
+        Bits next = building;
+        if (next != null) {
+            next.put(username);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the filter from the database, sized for the current number of users,
+     * dropping usernames that have been deleted since the last build.
+     */
+    @Scheduled(initialDelayString = "${gym.username.filter.rebuild-interval-ms:300000}",
+            fixedDelayString = "${gym.username.filter.rebuild-interval-ms:300000}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        long users = userRepository.count();
+        Bits next = new Bits(Math.max(expectedUsernames, users * 2), targetFpp);
+        building = next;
+        try {
+            for (String username : userRepository.findAllUsernames()) {
+                next.put(username);
+            }
+            current = next;
+        } finally {
+            building = null;
+        }
+        log.info("Built username filter of {} users ({} bits, {} hashes) in {} ms",
+                users, next.bitCount, next.hashes, System.currentTimeMillis() - started);
+    }
+
+    double falsePositiveRate() {
+        double positives = falsePositives.count();
+        double negatives = positives + skipped.count();
+        return negatives == 0 ? 0 : positives / negatives;
+    }
+
+    double expectedFpp() {
+        Bits bits = current;
+        return bits == null ? 1 : Math.pow(bits.fillRatio(), bits.hashes);
+    }
+
+    /**
+     * Bit array probed at {@code hashes} positions derived from two 64-bit hashes
+     * (Kirsch-Mitzenmacher double hashing). Bits are only ever set, with a CAS per word.
+     */
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashes;
+
+        Bits(long expectedInsertions, double fpp) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64));
+            this.bitCount = (long) words.length() * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void put(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                while (((old = words.get(word)) & mask) == 0 &&
+                        !words.compareAndSet(word, old, old | mask)) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double fillRatio() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return (double) set / bitCount;
+        }
+
+        /** FNV-1a over the UTF-16 code units, finalized with {@link #mix(long)}. */
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        /** MurmurHash3 64-bit finalizer. */
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.epam.gym.util;
+
+import com.epam.gym.entity.User;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that adds the username of every inserted {@link User} to the
+ * {@link UsernameFilter} once the inserting transaction has committed. Instantiated by
+ * Hibernate through Spring's bean container, hence the constructor injection.
+ */
+public class UsernameFilterListener {
+
+    private final UsernameFilter usernameFilter;
+
+    @Autowired
+    public UsernameFilterListener(UsernameFilter usernameFilter) {
+        this.usernameFilter = usernameFilter;
+    }
+
+    @PostPersist
+    public void afterInsert(User user) {
+        String username = user.getUsername();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            usernameFilter.put(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                usernameFilter.put(username);
+            }
+        });
+    }
+}
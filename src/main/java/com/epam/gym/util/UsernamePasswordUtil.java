@@ -1,6 +1,5 @@
 package com.epam.gym.util;
 
-import com.epam.gym.repository.UserRepository;
 import com.epam.gym.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,16 +12,15 @@ import java.util.stream.IntStream;
 
 /**
  * Utility component for generating usernames and passwords,
- * and for handling password hashing and checking (using PasswordEncoder).
+ * and for handling password hashing and checking (using {@link PasswordVerifier}).
  */
 @Component
 public class UsernamePasswordUtil {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
-    private final UserRepository userRepository;
-    // Uncomment and Autowire if using PasswordEncoder
-    // private final PasswordEncoder passwordEncoder;
+    private final UsernameAllocator usernameAllocator;
+    private final PasswordVerifier passwordVerifier;
 
     private static final SecureRandom random = new SecureRandom();
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
@@ -30,33 +28,40 @@ public class UsernamePasswordUtil {
 
     /**
      * Constructor injection for dependencies.
-     * @param userDao DAO to check for username existence.
-     * //@param passwordEncoder Encoder for hashing/checking passwords (Uncomment if used).
+     * @param usernameAllocator Hands out free username suffixes.
+     * @param passwordVerifier Hashes and checks passwords.
      */
     @Autowired
-    public UsernamePasswordUtil(UserRepository userRepository /*, PasswordEncoder passwordEncoder */) {
-        this.userRepository = userRepository;
-        // this.passwordEncoder = passwordEncoder; // Uncomment if used
+    public UsernamePasswordUtil(UsernameAllocator usernameAllocator, PasswordVerifier passwordVerifier) {
+        this.usernameAllocator = usernameAllocator;
+        this.passwordVerifier = passwordVerifier;
     }
 
     /**
      * Generates a unique username based on first and last name.
      * Appends a serial number if the base username already exists.
-     * Example: John.Smith, John.Smith1, John.Smith2, ...
+     * Example: john.smith, john.smith1, john.smith2, ...
+     * Safe to call concurrently; see {@link UsernameAllocator}.
      * @param firstName User's first name.
      * @param lastName User's last name.
      * @return A unique username string.
      */
     public String generateUsername(String firstName, String lastName) {
-        String baseUsername = (firstName + "." + lastName).toLowerCase();
-        String finalUsername = baseUsername;
-        int serial = 1;
-        // Loop to find a unique username by appending a serial number
-        while (userRepository.existsByUsername(finalUsername)) {
-            finalUsername = baseUsername + serial;
-            serial++;
-        }
-        return finalUsername;
+        return usernameAllocator.allocate(baseUsername(firstName, lastName));
+    }
+
+    /**
+     * Called when saving a user with a generated username hit the unique constraint,
+     * so the next username for this name is looked up in the database again.
+     * @param firstName User's first name.
+     * @param lastName User's last name.
+     */
+    public void forgetUsernames(String firstName, String lastName) {
+        usernameAllocator.forget(baseUsername(firstName, lastName));
+    }
+
+    private static String baseUsername(String firstName, String lastName) {
+        return (firstName + "." + lastName).toLowerCase();
     }
 
     /**
@@ -71,30 +76,33 @@ public class UsernamePasswordUtil {
     }
 
     /**
-     * Hashes a plain text password using the configured PasswordEncoder.
-     * IMPORTANT: Requires a PasswordEncoder bean to be configured and injected.
+     * Hashes a plain text password with BCrypt at the configured cost.
      * @param plainPassword The plain text password.
      * @return The hashed password string.
      */
     public String hashPassword(String plainPassword) {
-        // Replace with actual hashing using injected passwordEncoder
-        log.warn("WARNING: Password hashing not properly implemented! Returning plain text.");
-        // return passwordEncoder.encode(plainPassword); // Uncomment and use when PasswordEncoder is configured
-        return plainPassword; // Placeholder - insecure!
+        return passwordVerifier.hash(plainPassword);
     }
 
     /**
-     * Checks if a raw password matches a stored encoded password using the PasswordEncoder.
-     * IMPORTANT: Requires a PasswordEncoder bean to be configured and injected.
+     * Checks if a raw password matches a stored encoded password.
+     * Verification runs on the bounded verifier pool.
      * @param rawPassword The raw password entered by the user.
      * @param encodedPassword The stored hashed password.
      * @return true if the passwords match, false otherwise.
      */
     public boolean checkPassword(String rawPassword, String encodedPassword) {
-        // Replace with actual checking using injected passwordEncoder
-        log.warn("WARNING: Password checking not properly implemented!");
-        // return passwordEncoder.matches(rawPassword, encodedPassword); // Uncomment and use when PasswordEncoder is configured
-        return rawPassword.equals(encodedPassword); // Placeholder - insecure!
+        return passwordVerifier.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * Tells whether a stored password should be re-hashed after a successful login,
+     * i.e. it was hashed with a lower cost than configured.
+     * @param encodedPassword The stored password.
+     * @return true if it should be replaced by a fresh hash.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordVerifier.needsRehash(encodedPassword);
     }
 }
 
@@ -2,34 +2,51 @@ package com.epam.gym.controller;
 
 import com.epam.gym.dto.ChangePasswordRequest;
 import com.epam.gym.dto.LoginRequest;
+import com.epam.gym.dto.TokenIntrospectionRequest;
+import com.epam.gym.dto.TokenIntrospectionResponse;
 import com.epam.gym.dto.TokenValidationResponse;
+import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.security.LoginThrottle;
 import com.epam.gym.service.AuthService;
 import com.epam.gym.service.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class AuthControllerTest {
 
+    private static final String GATEWAY_SECRET = "gateway-secret";
+
     @Mock
     private AuthService authService;
 
     @Mock
     private TokenService tokenService;
 
-    @InjectMocks
+    @Mock
+    private LoginThrottle loginThrottle;
+
     private AuthController authController;
 
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        authController = new AuthController(authService, tokenService, loginThrottle, Duration.ofSeconds(5),
+                GATEWAY_SECRET);
     }
 
     @Test
@@ -38,7 +55,7 @@ class AuthControllerTest {
         when(authService.authenticate("user", "pass")).thenReturn(true);
         when(tokenService.generateToken("user")).thenReturn("mockToken");
 
-        ResponseEntity<String> response = authController.login(request);
+        ResponseEntity<String> response = authController.login(request, httpRequest);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("mockToken", response.getBody());
@@ -49,17 +66,29 @@ class AuthControllerTest {
         LoginRequest request = new LoginRequest("user", "wrong");
         when(authService.authenticate("user", "wrong")).thenReturn(false);
 
-        ResponseEntity<String> response = authController.login(request);
+        ResponseEntity<String> response = authController.login(request, httpRequest);
 
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
         assertNull(response.getBody());
     }
 
+    @Test
+    void login_Throttled_ShouldReturnTooManyRequestsWithoutAuthenticating() {
+        LoginRequest request = new LoginRequest("user", "pass");
+        when(loginThrottle.tryAcquire("user", httpRequest.getRemoteAddr())).thenReturn(12L);
+
+        ResponseEntity<String> response = authController.login(request, httpRequest);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("12", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verifyNoInteractions(authService, tokenService);
+    }
+
     @Test
     void changePassword_ShouldReturnNoContent() {
         ChangePasswordRequest request = new ChangePasswordRequest("user", "old", "new");
 
-        ResponseEntity<Void> response = authController.changePassword(request);
+        ResponseEntity<Void> response = authController.changePassword(request, httpRequest);
 
         verify(authService).changePassword("user", "old", "new");
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
@@ -99,4 +128,48 @@ class AuthControllerTest {
         assertFalse(response.getBody().valid());
         assertNull(response.getBody().username());
     }
+
+    @Test
+    void introspect_ShouldReturnResultPerTokenWithCacheHints() {
+        List<String> tokens = List.of("valid", "invalid", "expiring");
+        when(tokenService.introspect(tokens)).thenReturn(Arrays.asList(
+                new TokenService.Introspection("user", 1_800_000),
+                null,
+                new TokenService.Introspection("other", 3_500)));
+
+        ResponseEntity<List<TokenIntrospectionResponse>> response =
+                authController.introspect(GATEWAY_SECRET, new TokenIntrospectionRequest(tokens));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(
+                new TokenIntrospectionResponse(true, "user", 1800, 5),
+                TokenIntrospectionResponse.invalid(),
+                new TokenIntrospectionResponse(true, "other", 3, 3)), response.getBody());
+        assertEquals("max-age=3, private", response.getHeaders().getCacheControl());
+        verify(tokenService, never()).getUsername(any());
+    }
+
+    @Test
+    void introspect_NoValidToken_ShouldNotBeCached() {
+        List<String> tokens = List.of("invalid");
+        when(tokenService.introspect(tokens)).thenReturn(Arrays.asList((TokenService.Introspection) null));
+
+        ResponseEntity<List<TokenIntrospectionResponse>> response =
+                authController.introspect(GATEWAY_SECRET, new TokenIntrospectionRequest(tokens));
+
+        assertEquals(List.of(TokenIntrospectionResponse.invalid()), response.getBody());
+        assertEquals("no-store", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void introspect_WithoutGatewaySecret_ShouldBeRejected() {
+        TokenIntrospectionRequest request = new TokenIntrospectionRequest(List.of("valid"));
+
+        assertThrows(InvalidTokenException.class, () -> authController.introspect(null, request));
+        assertThrows(InvalidTokenException.class, () -> authController.introspect("guess", request));
+        AuthController unconfigured = new AuthController(authService, tokenService, loginThrottle,
+                Duration.ofSeconds(5), "");
+        assertThrows(InvalidTokenException.class, () -> unconfigured.introspect("", request));
+        verify(tokenService, never()).introspect(any());
+    }
 }
@@ -0,0 +1,60 @@
+package com.epam.gym.controller;
+
+import com.epam.gym.dto.BatchOperation;
+import com.epam.gym.dto.BatchOperationResult;
+import com.epam.gym.dto.BatchRequest;
+import com.epam.gym.dto.BatchResponse;
+import com.epam.gym.dto.TrainingRegistrationRequest;
+import com.epam.gym.service.BatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BatchControllerTest {
+
+    @Mock
+    private BatchService batchService;
+
+    @InjectMocks
+    private BatchController batchController;
+
+    private final BatchRequest request = new BatchRequest(List.of(new BatchOperation.RegisterTraining(
+            new TrainingRegistrationRequest("alice", "bob", "Morning run", LocalDate.of(2024, 1, 1), 60))));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void committedBatch_ShouldReturnOk() {
+        BatchResponse response = new BatchResponse(true, List.of(BatchOperationResult.succeeded(0, 201, null)));
+        when(batchService.execute(request.operations(), "alice")).thenReturn(response);
+
+        ResponseEntity<BatchResponse> result = batchController.executeBatch(request, "alice");
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(response, result.getBody());
+    }
+
+    @Test
+    void rolledBackBatch_ShouldReturnStatusOfFailedOperation() {
+        BatchResponse response = new BatchResponse(false, List.of(BatchOperationResult.failed(0, 401, "Token not authenticated")));
+        when(batchService.execute(request.operations(), "mallory")).thenReturn(response);
+
+        ResponseEntity<BatchResponse> result = batchController.executeBatch(request, "mallory");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, result.getStatusCode());
+        assertFalse(result.getBody().committed());
+    }
+}
@@ -2,8 +2,8 @@ package com.epam.gym.controller;
 
 import com.epam.gym.dto.*;
 import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.service.BulkRegistrationService;
 import com.epam.gym.service.FacadeService;
-import com.epam.gym.service.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -24,7 +24,7 @@ class TraineeControllerTest {
     private FacadeService facadeService;
 
     @Mock
-    private TokenService tokenService;
+    private BulkRegistrationService bulkRegistrationService;
 
     @InjectMocks
     private TraineeController traineeController;
@@ -48,115 +48,120 @@ class TraineeControllerTest {
     }
 
     @Test
-    void getTrainee_ValidToken_ShouldReturnProfile() {
+    void registerTrainees_ShouldReturnPerRowResults() {
+        List<TraineeRegistrationRequest> trainees = List.of(mock(TraineeRegistrationRequest.class));
+        BulkRegistrationResponse response = BulkRegistrationResponse.of(
+                List.of(BulkRegistrationResult.created(0, "john.smith", "secret")));
+
+        when(bulkRegistrationService.registerTrainees(trainees)).thenReturn(response);
+
+        ResponseEntity<BulkRegistrationResponse> result =
+                traineeController.registerTrainees(new BulkTraineeRegistrationRequest(trainees));
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(1, result.getBody().created());
+        assertEquals(response, result.getBody());
+    }
+
+    @Test
+    void getTrainee_OwnToken_ShouldReturnProfile() {
         String username = "john";
-        String token = "validToken";
+        String principal = "john";
         TraineeProfileResponse response = mock(TraineeProfileResponse.class);
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
         when(facadeService.getTraineeByUsername(username)).thenReturn(response);
 
-        ResponseEntity<TraineeProfileResponse> result = traineeController.getTrainee(username, token);
+        ResponseEntity<TraineeProfileResponse> result = traineeController.getTrainee(username, principal);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
 
     @Test
-    void getTrainee_InvalidToken_ShouldThrowException() {
+    void getTrainee_ForeignToken_ShouldThrowException() {
         String username = "john";
-        String token = "invalidToken";
-
-        when(tokenService.isValidToken(token)).thenReturn(false);
+        String principal = "someone.else";
 
         assertThrows(InvalidTokenException.class, () ->
-                traineeController.getTrainee(username, token));
+                traineeController.getTrainee(username, principal));
     }
 
     @Test
-    void updateTrainee_ValidToken_ShouldReturnUpdatedProfile() {
+    void updateTrainee_OwnToken_ShouldReturnUpdatedProfile() {
         TraineeUpdateRequest request = mock(TraineeUpdateRequest.class);
-        String token = "validToken";
+        when(request.username()).thenReturn("john");
+        String principal = "john";
         TraineeProfileResponse response = mock(TraineeProfileResponse.class);
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
         when(facadeService.updateTrainee(request)).thenReturn(response);
 
-        ResponseEntity<TraineeProfileResponse> result = traineeController.updateTrainee(request, token);
+        ResponseEntity<TraineeProfileResponse> result = traineeController.updateTrainee(request, principal);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
 
     @Test
-    void deleteTrainee_ValidToken_ShouldReturnNoContent() {
+    void deleteTrainee_OwnToken_ShouldReturnNoContent() {
         String username = "john";
-        String token = "validToken";
+        String principal = "john";
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
-
-        ResponseEntity<Void> result = traineeController.deleteTrainee(username, token);
+        ResponseEntity<Void> result = traineeController.deleteTrainee(username, principal);
 
         verify(facadeService).deleteTrainee(username);
         assertEquals(HttpStatus.NO_CONTENT, result.getStatusCode());
     }
 
     @Test
-    void getTraineeTrainings_ValidToken_ShouldReturnList() {
+    void getTraineeTrainings_OwnToken_ShouldReturnList() {
         String username = "john";
-        String token = "validToken";
+        String principal = "john";
         LocalDate from = LocalDate.now().minusDays(10);
         LocalDate to = LocalDate.now();
         String trainer = "coach";
         String spec = "CARDIO";
         List<TraineeTrainingResponse> response = List.of(mock(TraineeTrainingResponse.class));
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
         when(facadeService.findTraineeTrainings(eq(username), any())).thenReturn(response);
 
-        ResponseEntity<List<TraineeTrainingResponse>> result = traineeController.getTraineeTrainings(username, from, to, trainer, spec, token);
+        ResponseEntity<List<TraineeTrainingResponse>> result = traineeController.getTraineeTrainings(username, from, to, trainer, spec, principal);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
 
     @Test
-    void updateTraineeTrainers_ValidToken_ShouldReturnResponse() {
+    void updateTraineeTrainers_OwnToken_ShouldReturnResponse() {
         String username = "john";
-        String token = "validToken";
+        String principal = "john";
         UpdateTraineeTrainersRequest request = mock(UpdateTraineeTrainersRequest.class);
         TraineeTrainerResponse response = mock(TraineeTrainerResponse.class);
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
         when(facadeService.updateTraineeTrainers(username, request)).thenReturn(response);
 
-        ResponseEntity<TraineeTrainerResponse> result = traineeController.updateTraineeTrainers(username, request, token);
+        ResponseEntity<TraineeTrainerResponse> result = traineeController.updateTraineeTrainers(username, request, principal);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
 
     @Test
-    void updateTraineeActivation_ValidToken_ShouldReturnNoContent() {
+    void updateTraineeActivation_OwnToken_ShouldReturnNoContent() {
         ActivateUserRequest request = new ActivateUserRequest("john", true);
-        String token = "validToken";
-
-        when(tokenService.isValidToken(token)).thenReturn(true);
+        String principal = "john";
 
-        ResponseEntity<Void> result = traineeController.updateTraineeActivation(request, token);
+        ResponseEntity<Void> result = traineeController.updateTraineeActivation(request, principal);
 
         verify(facadeService).changeTraineeActiveStatus("john", true);
         assertEquals(HttpStatus.NO_CONTENT, result.getStatusCode());
     }
 
     @Test
-    void updateTraineeActivation_InvalidToken_ShouldThrowException() {
+    void updateTraineeActivation_ForeignToken_ShouldThrowException() {
         ActivateUserRequest request = new ActivateUserRequest("john", true);
-        String token = "invalidToken";
-
-        when(tokenService.isValidToken(token)).thenReturn(false);
+        String principal = "someone.else";
 
         assertThrows(InvalidTokenException.class, () ->
-                traineeController.updateTraineeActivation(request, token));
+                traineeController.updateTraineeActivation(request, principal));
     }
 }
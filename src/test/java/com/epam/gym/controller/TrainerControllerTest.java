@@ -2,8 +2,8 @@ package com.epam.gym.controller;
 
 import com.epam.gym.dto.*;
 import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.service.BulkRegistrationService;
 import com.epam.gym.service.FacadeService;
-import com.epam.gym.service.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -24,7 +24,7 @@ class TrainerControllerTest {
     private FacadeService facadeService;
 
     @Mock
-    private TokenService tokenService;
+    private BulkRegistrationService bulkRegistrationService;
 
     @InjectMocks
     private TrainerController trainerController;
@@ -48,100 +48,110 @@ class TrainerControllerTest {
     }
 
     @Test
-    void getTrainer_ValidToken_ShouldReturnProfile() {
+    void registerTrainers_ShouldReturnPerRowResults() {
+        List<TrainerRegistrationRequest> trainers = List.of(
+                new TrainerRegistrationRequest("John", "Smith", "CARDIO"),
+                new TrainerRegistrationRequest("Jane", "Doe", "PILATES"));
+        BulkRegistrationResponse response = BulkRegistrationResponse.of(List.of(
+                BulkRegistrationResult.created(0, "john.smith", "secret"),
+                BulkRegistrationResult.failed(1, "Unknown specialization")));
+
+        when(bulkRegistrationService.registerTrainers(trainers)).thenReturn(response);
+
+        ResponseEntity<BulkRegistrationResponse> result =
+                trainerController.registerTrainers(new BulkTrainerRegistrationRequest(trainers));
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(1, result.getBody().created());
+        assertEquals(1, result.getBody().failed());
+    }
+
+    @Test
+    void getTrainer_OwnToken_ShouldReturnProfile() {
         String username = "alice";
-        String token = "validToken";
+        String principal = "alice";
         TrainerProfileResponse response = mock(TrainerProfileResponse.class);
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
         when(facadeService.getTrainerByUsername(username)).thenReturn(response);
 
-        ResponseEntity<TrainerProfileResponse> result = trainerController.getTrainer(username, token);
+        ResponseEntity<TrainerProfileResponse> result = trainerController.getTrainer(username, principal);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
 
     @Test
-    void getTrainer_InvalidToken_ShouldThrowException() {
+    void getTrainer_ForeignToken_ShouldThrowException() {
         String username = "alice";
-        String token = "invalidToken";
-
-        when(tokenService.isValidToken(token)).thenReturn(false);
+        String principal = "someone.else";
 
         assertThrows(InvalidTokenException.class, () ->
-                trainerController.getTrainer(username, token));
+                trainerController.getTrainer(username, principal));
     }
 
     @Test
-    void updateTrainer_ValidToken_ShouldReturnUpdatedProfile() {
+    void updateTrainer_OwnToken_ShouldReturnUpdatedProfile() {
         TrainerUpdateRequest request = mock(TrainerUpdateRequest.class);
-        String token = "validToken";
+        when(request.username()).thenReturn("alice");
+        String principal = "alice";
         TrainerProfileResponse response = mock(TrainerProfileResponse.class);
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
         when(facadeService.updateTrainer(request)).thenReturn(response);
 
-        ResponseEntity<TrainerProfileResponse> result = trainerController.updateTrainer(request, token);
+        ResponseEntity<TrainerProfileResponse> result = trainerController.updateTrainer(request, principal);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
 
     @Test
-    void getAvailableTrainers_ValidToken_ShouldReturnList() {
+    void getAvailableTrainers_OwnToken_ShouldReturnList() {
         String traineeUsername = "trainee";
-        String token = "validToken";
+        String principal = "trainee";
         List<TrainerDto> response = List.of(mock(TrainerDto.class));
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
         when(facadeService.getAvailableTrainersForTrainee(traineeUsername)).thenReturn(response);
 
-        ResponseEntity<List<TrainerDto>> result = trainerController.getAvailableTrainers(traineeUsername, token);
+        ResponseEntity<List<TrainerDto>> result = trainerController.getAvailableTrainers(traineeUsername, principal);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
 
     @Test
-    void getTrainerTrainings_ValidToken_ShouldReturnList() {
+    void getTrainerTrainings_OwnToken_ShouldReturnList() {
         String username = "alice";
-        String token = "validToken";
+        String principal = "alice";
         LocalDate from = LocalDate.now().minusDays(5);
         LocalDate to = LocalDate.now();
         String traineeName = "bob";
         List<TrainerTrainingResponse> response = List.of(mock(TrainerTrainingResponse.class));
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
         when(facadeService.findTrainerTrainings(eq(username), any())).thenReturn(response);
 
-        ResponseEntity<List<TrainerTrainingResponse>> result = trainerController.getTrainerTrainings(username, from, to, traineeName, token);
+        ResponseEntity<List<TrainerTrainingResponse>> result = trainerController.getTrainerTrainings(username, from, to, traineeName, principal);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
 
     @Test
-    void updateTrainerActivation_ValidToken_ShouldReturnNoContent() {
+    void updateTrainerActivation_OwnToken_ShouldReturnNoContent() {
         ActivateUserRequest request = new ActivateUserRequest("alice", true);
-        String token = "validToken";
+        String principal = "alice";
 
-        when(tokenService.isValidToken(token)).thenReturn(true);
-
-        ResponseEntity<Void> result = trainerController.updateTrainerActivation(request, token);
+        ResponseEntity<Void> result = trainerController.updateTrainerActivation(request, principal);
 
         verify(facadeService).changeTrainerActiveStatus("alice", true);
         assertEquals(HttpStatus.NO_CONTENT, result.getStatusCode());
     }
 
     @Test
-    void updateTrainerActivation_InvalidToken_ShouldThrowException() {
+    void updateTrainerActivation_ForeignToken_ShouldThrowException() {
         ActivateUserRequest request = new ActivateUserRequest("alice", true);
-        String token = "invalidToken";
-
-        when(tokenService.isValidToken(token)).thenReturn(false);
+        String principal = "someone.else";
 
         assertThrows(InvalidTokenException.class, () ->
-                trainerController.updateTrainerActivation(request, token));
+                trainerController.updateTrainerActivation(request, principal));
     }
 }
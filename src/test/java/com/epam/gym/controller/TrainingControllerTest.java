@@ -0,0 +1,84 @@
+package com.epam.gym.controller;
+
+import com.epam.gym.dto.TrainingRegistrationRequest;
+import com.epam.gym.dto.TrainingRegistrationStatus;
+import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.service.FacadeService;
+import com.epam.gym.service.TrainingRegistrationQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TrainingControllerTest {
+
+    @Mock
+    private FacadeService facadeService;
+
+    @Mock
+    private TrainingRegistrationQueue trainingRegistrationQueue;
+
+    @InjectMocks
+    private TrainingController trainingController;
+
+    private final TrainingRegistrationRequest request =
+            new TrainingRegistrationRequest("alice", "bob", "Morning run", LocalDate.of(2024, 1, 1), 60);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void registerTraining_ShouldReturnCreated() {
+        when(facadeService.registerTraining(request)).thenReturn(true);
+
+        ResponseEntity<Void> result = trainingController.registerTrainee(request, "bob");
+
+        assertEquals(HttpStatus.CREATED, result.getStatusCode());
+        verify(facadeService).registerTraining(request);
+    }
+
+    @Test
+    void registerTraining_AlreadyExists_ShouldReturnOk() {
+        when(facadeService.registerTraining(request)).thenReturn(false);
+
+        ResponseEntity<Void> result = trainingController.registerTrainee(request, "alice");
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+    }
+
+    @Test
+    void registerTrainingAsync_ShouldReturnAcceptedWithLocation() {
+        when(trainingRegistrationQueue.submit(request)).thenReturn(TrainingRegistrationStatus.queued("42"));
+
+        ResponseEntity<TrainingRegistrationStatus> result = trainingController.registerTrainingAsync(request, "alice");
+
+        assertEquals(HttpStatus.ACCEPTED, result.getStatusCode());
+        assertEquals(URI.create("/api/v1/trainings/async/42"), result.getHeaders().getLocation());
+        assertEquals(TrainingRegistrationStatus.State.QUEUED, result.getBody().state());
+    }
+
+    @Test
+    void registerTrainingAsync_OtherToken_ShouldThrow() {
+        assertThrows(InvalidTokenException.class, () -> trainingController.registerTrainingAsync(request, "mallory"));
+        verifyNoInteractions(trainingRegistrationQueue);
+    }
+
+    @Test
+    void getRegistrationStatus_Unknown_ShouldReturnNotFound() {
+        when(trainingRegistrationQueue.status("42", "alice")).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, trainingController.getRegistrationStatus("42", "alice").getStatusCode());
+    }
+}
@@ -0,0 +1,64 @@
+package com.epam.gym.controller;
+
+import com.epam.gym.dto.TrainingTypesPayload;
+import com.epam.gym.service.FacadeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TrainingTypeControllerTest {
+
+    @Mock
+    private FacadeService facadeService;
+
+    @InjectMocks
+    private TrainingTypeController trainingTypeController;
+
+    private final TrainingTypesPayload payload = new TrainingTypesPayload(
+            "[{\"trainingTypeId\":1,\"trainingType\":\"CARDIO\"}]".getBytes(StandardCharsets.UTF_8), "\"abc123\"");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(facadeService.findAllTrainingTypesPayload()).thenReturn(payload);
+    }
+
+    @Test
+    void getAllTrainingTypes_ShouldReturnPayloadWithETag() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/training-types/");
+
+        ResponseEntity<byte[]> result = trainingTypeController.getAllTrainingTypes(
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertSame(payload.json(), result.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, result.getHeaders().getContentType());
+        assertEquals("\"abc123\"", result.getHeaders().getETag());
+    }
+
+    @Test
+    void getAllTrainingTypes_MatchingETag_ShouldReturnNotModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/training-types/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc123\"");
+
+        ResponseEntity<byte[]> result = trainingTypeController.getAllTrainingTypes(
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertNull(result.getBody());
+    }
+}
@@ -0,0 +1,210 @@
+package com.epam.gym.idempotency;
+
+import com.epam.gym.entity.IdempotencyRecord;
+import com.epam.gym.repository.IdempotencyRecordRepository;
+import com.epam.gym.security.AuthenticationFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"firstName\":\"John\",\"lastName\":\"Smith\"}";
+    private static final String KEY_1 = "5b0c6f1e-8a51-4c43-9d0e-6c0f4a9e2b71";
+    private static final String KEY_2 = "0e4d2b9a-3c7f-4f5e-a1d8-92b6c3e7f054";
+
+    private IdempotencyRecordRepository recordRepository;
+    private IdempotencyFilter filter;
+    private final AtomicInteger executions = new AtomicInteger();
+    private volatile int status = 201;
+
+    private final FilterChain registration = (request, response) -> {
+        executions.incrementAndGet();
+        request.getInputStream().readAllBytes();
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setStatus(status);
+        http.setContentType("application/json");
+        http.getWriter().write("{\"username\":\"john.smith" + executions.get() + "\"}");
+    };
+
+    @BeforeEach
+    void setUp() {
+        recordRepository = mock(IdempotencyRecordRepository.class);
+        filter = filter(false);
+    }
+
+    @Test
+    void repeatedKey_shouldReplayOriginalResponse() throws Exception {
+        MockHttpServletResponse first = send(BODY, KEY_1, registration);
+        MockHttpServletResponse retry = send(BODY, KEY_1, registration);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("{\"username\":\"john.smith1\"}", retry.getContentAsString());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void otherKeyOrNoKey_shouldExecute() throws Exception {
+        send(BODY, KEY_1, registration);
+        send(BODY, KEY_2, registration);
+        send(BODY, null, registration);
+
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void reusedKeyWithDifferentBody_shouldBeRejected() throws Exception {
+        send(BODY, "key-1", "john.smith", registration);
+
+        MockHttpServletResponse response = send("{\"firstName\":\"Jane\"}", "key-1", "john.smith", registration);
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void authenticatedKeys_shouldBeScopedByUser() throws Exception {
+        send(BODY, "key-1", "john.smith", registration);
+        MockHttpServletResponse other = send(BODY, "key-1", "jane.doe", registration);
+
+        assertEquals(2, executions.get());
+        assertNull(other.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void anonymousKeyWithDifferentBody_shouldExecuteSeparately() throws Exception {
+        send(BODY, KEY_1, registration);
+
+        MockHttpServletResponse response = send("{\"firstName\":\"Jane\"}", KEY_1, registration);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"username\":\"john.smith2\"}", response.getContentAsString());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void shortAnonymousKey_shouldBeRejected() throws Exception {
+        MockHttpServletResponse response = send(BODY, "key-1", registration);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void anonymousResponse_shouldNotBePersisted() throws Exception {
+        filter = filter(true);
+
+        send(BODY, KEY_1, registration);
+
+        verify(recordRepository, never()).findByKeyHashAndExpiresAtGreaterThan(anyString(), anyLong());
+        verify(recordRepository, never()).save(any());
+    }
+
+    @Test
+    void failedRequest_shouldReleaseKey() throws Exception {
+        status = 503;
+        assertEquals(503, send(BODY, KEY_1, registration).getStatus());
+
+        status = 201;
+        assertEquals(201, send(BODY, KEY_1, registration).getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicate_shouldWaitForInFlightResponse() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            started.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                throw new ServletException(e);
+            }
+            registration.doFilter(request, response);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> original = executor.submit(() -> send(BODY, KEY_1, slow));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<MockHttpServletResponse> duplicate = executor.submit(() -> send(BODY, KEY_1, slow));
+            Thread.sleep(100);
+            proceed.countDown();
+
+            assertEquals(original.get(5, TimeUnit.SECONDS).getContentAsString(),
+                    duplicate.get(5, TimeUnit.SECONDS).getContentAsString());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void persistedRecord_shouldBeReplayedAfterRestart() throws Exception {
+        filter = filter(true);
+        byte[] body = "{\"username\":\"john.smith\"}".getBytes(StandardCharsets.UTF_8);
+        when(recordRepository.findByKeyHashAndExpiresAtGreaterThan(anyString(), anyLong())).thenReturn(Optional.of(
+                new IdempotencyRecord("hash", IdempotencyStore.sha256(BODY.getBytes(StandardCharsets.UTF_8)),
+                        201, "application/json", "/somewhere", body, Long.MAX_VALUE)));
+
+        MockHttpServletResponse response = send(BODY, "key-1", "john.smith", registration);
+
+        assertEquals(0, executions.get());
+        assertEquals("{\"username\":\"john.smith\"}", response.getContentAsString());
+        assertEquals("/somewhere", response.getHeader(HttpHeaders.LOCATION));
+    }
+
+    @Test
+    void completedRequest_shouldBePersistedWhenEnabled() throws Exception {
+        filter = filter(true);
+
+        send(BODY, "key-1", "john.smith", registration);
+
+        verify(recordRepository).save(argThat(record -> record.getStatus() == 201 &&
+                new String(record.getBody(), StandardCharsets.UTF_8).contains("john.smith1")));
+    }
+
+    private IdempotencyFilter filter(boolean persistent) {
+        IdempotencyStore store = new IdempotencyStore(recordRepository, persistent, Duration.ofHours(1), 100);
+        return new IdempotencyFilter(store, Duration.ofSeconds(5), 1024);
+    }
+
+    private MockHttpServletResponse send(String body, String key, FilterChain chain) throws Exception {
+        return send(body, key, null, chain);
+    }
+
+    private MockHttpServletResponse send(String body, String key, String principal, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/trainees/");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (principal != null) {
+            request.setAttribute(AuthenticationFilter.PRINCIPAL, principal);
+        }
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,87 @@
+package com.epam.gym.repository;
+
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Insert throughput of trainees (user + trainee row each) with JDBC batching disabled, which is
+ * what identity ids forced (one round trip per row), and with the configured batch size that
+ * sequence ids allow. Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class InsertBatchingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertBatchingBenchmarkTest.class);
+
+    private static final int TRAINEES = 5_000;
+    private static final int ROUNDS = 3;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertThroughput() {
+        insert("warmup", 1, TRAINEES);
+        insert("warmup", null, TRAINEES);
+        for (int round = 0; round < ROUNDS; round++) {
+            insert("row by row", 1, TRAINEES);
+            insert("batched", null, TRAINEES);
+        }
+    }
+
+    private void insert(String name, Integer batchSize, int count) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String prefix = name.replace(' ', '-') + "-" + System.nanoTime() + "-";
+        long start = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            for (int i = 0; i < count; i++) {
+                User user = User.builder()
+                        .firstName("Bench")
+                        .lastName("User")
+                        .username(prefix + i)
+                        .password("hash")
+                        .isActive(true)
+                        .build();
+                entityManager.persist(Trainee.builder()
+                        .dateOfBirth(LocalDate.of(1990, 1, 1))
+                        .address("Main St")
+                        .user(user)
+                        .build());
+            }
+        });
+        double millis = (System.nanoTime() - start) / 1e6;
+        assertEquals(2L * count, statistics.getEntityInsertCount());
+        log.info("{}: {} trainees in {} ms ({} rows/s, {} statements)", name, count, Math.round(millis),
+                Math.round(2 * count / millis * 1000), statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,147 @@
+package com.epam.gym.repository;
+
+import com.epam.gym.dto.UpdateTraineeTrainersRequest;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.User;
+import com.epam.gym.service.FacadeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entities, the trainers of a trainee and training type lookups are served from the second-level
+ * cache once loaded, and changes made through Hibernate replace what was cached.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private TrainingTypeRepository trainingTypeRepository;
+
+    @Autowired
+    private FacadeService facadeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "l2-" + System.nanoTime() + "-";
+    }
+
+    @Test
+    void trainingTypes_shouldComeFromQueryCache() {
+        List<TrainingType> first = inTransaction(() -> trainingTypeRepository.findAll());
+
+        Statistics statistics = statistics();
+        List<TrainingType> second = inTransaction(() -> trainingTypeRepository.findAll());
+
+        assertEquals(first.stream().map(TrainingType::getId).toList(), second.stream().map(TrainingType::getId).toList());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void trainer_shouldLoadWithUserAndTrainingTypeFromCache() {
+        Long id = inTransaction(() -> {
+            Trainer trainer = trainer(prefix + "trainer");
+            entityManager.persist(trainer);
+            return trainer.getId();
+        });
+
+        Statistics statistics = statistics();
+        String description = inTransaction(() -> {
+            Trainer trainer = entityManager.find(Trainer.class, id);
+            return trainer.getUser().getUsername() + " " + trainer.getTrainingType().getType();
+        });
+
+        assertTrue(description.startsWith(prefix + "trainer "));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(3, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void traineeTrainers_shouldBeReplacedOnUpdate() {
+        Long id = inTransaction(() -> {
+            Trainer first = trainer(prefix + "first");
+            Trainer second = trainer(prefix + "second");
+            entityManager.persist(first);
+            entityManager.persist(second);
+            Trainee trainee = Trainee.builder()
+                    .dateOfBirth(LocalDate.of(1990, 1, 1))
+                    .user(user(prefix + "trainee"))
+                    .trainers(new HashSet<>(Set.of(first)))
+                    .build();
+            entityManager.persist(trainee);
+            return trainee.getId();
+        });
+        assertEquals(Set.of(prefix + "first"), trainerUsernames(id));
+
+        facadeService.updateTraineeTrainers(prefix + "trainee", new UpdateTraineeTrainersRequest(List.of(prefix + "second")));
+
+        assertEquals(Set.of(prefix + "second"), trainerUsernames(id));
+    }
+
+    private Set<String> trainerUsernames(Long traineeId) {
+        return inTransaction(() -> entityManager.find(Trainee.class, traineeId).getTrainers().stream()
+                .map(trainer -> trainer.getUser().getUsername())
+                .collect(Collectors.toSet()));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Trainer trainer(String username) {
+        return Trainer.builder()
+                .user(user(username))
+                .trainingType(trainingTypeRepository.findAll().get(0))
+                .build();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .firstName("Cached")
+                .lastName("User")
+                .username(username)
+                .password("hash")
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.epam.gym.repository;
+
+import com.epam.gym.dto.TraineeTrainingResponse;
+import com.epam.gym.dto.TrainerTrainingResponse;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.Training;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Training history searches select their response columns directly, without loading entities.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:training-history;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TrainingHistoryQueryTest {
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private TrainingTypeRepository trainingTypeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private String prefix;
+    private TrainingType trainingType;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "history-" + System.nanoTime() + "-";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            trainingType = trainingTypeRepository.findAll().get(0);
+            Trainee trainee = Trainee.builder().user(user(prefix + "trainee", "Anna", "Lee")).build();
+            Trainer trainer = Trainer.builder()
+                    .user(user(prefix + "trainer", "Bob", "Stone"))
+                    .trainingType(trainingType)
+                    .build();
+            entityManager.persist(trainee);
+            entityManager.persist(trainer);
+            for (int day = 1; day <= 3; day++) {
+                entityManager.persist(Training.builder()
+                        .trainee(trainee)
+                        .trainer(trainer)
+                        .trainingType(trainingType)
+                        .name("Session " + day)
+                        .date(LocalDate.of(2024, 3, day))
+                        .duration(30 * day)
+                        .build());
+            }
+        });
+    }
+
+    @Test
+    void traineeHistory_shouldSelectResponseColumnsOnly() {
+        Statistics statistics = statistics();
+
+        List<TraineeTrainingResponse> trainings = inTransaction(() -> trainingRepository.findTraineeTrainingsByCriteria(
+                prefix + "trainee", LocalDate.of(2024, 3, 2), null, "Bob St", trainingType));
+
+        assertEquals(List.of(
+                new TraineeTrainingResponse("Session 2", "2024-03-02", trainingType.getType().toString(), 60, prefix + "trainer"),
+                new TraineeTrainingResponse("Session 3", "2024-03-03", trainingType.getType().toString(), 90, prefix + "trainer")),
+                trainings.stream().sorted(Comparator.comparing(TraineeTrainingResponse::trainingDate)).toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void trainerHistory_shouldSelectResponseColumnsOnly() {
+        Statistics statistics = statistics();
+
+        List<TrainerTrainingResponse> trainings = inTransaction(() -> trainingRepository.findTrainerTrainingsByCriteria(
+                prefix + "trainer", null, LocalDate.of(2024, 3, 1), "Anna"));
+
+        assertEquals(List.of(new TrainerTrainingResponse("Session 1", "2024-03-01",
+                trainingType.getType().toString(), 30, prefix + "trainee")), trainings);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private <T> T inTransaction(Supplier<T> query) {
+        return new TransactionTemplate(transactionManager).execute(status -> query.get());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static User user(String username, String firstName, String lastName) {
+        return User.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .username(username)
+                .password("hash")
+                .isActive(true)
+                .build();
+    }
+}
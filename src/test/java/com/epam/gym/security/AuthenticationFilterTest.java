@@ -0,0 +1,117 @@
+package com.epam.gym.security;
+
+import com.epam.gym.exception.InvalidTokenException;
+import com.epam.gym.service.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthenticationFilterTest {
+
+    @Mock
+    private TokenService tokenService;
+
+    @InjectMocks
+    private AuthenticationFilter authenticationFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void validToken_ShouldExposePrincipalAndContinue() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/trainees/john");
+        request.addHeader(AuthenticationFilter.TOKEN_HEADER, "token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        when(tokenService.getUsername("token")).thenReturn("john");
+
+        authenticationFilter.doFilter(request, response, chain);
+
+        assertEquals("john", request.getAttribute(AuthenticationFilter.PRINCIPAL));
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    void missingToken_ShouldRejectBeforeHandler() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/trainers/");
+        request.setContent("{\"username\":\"alice\"}".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        authenticationFilter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void pathParametersOrEncoding_ShouldNotBypassFilter() throws Exception {
+        for (String uri : new String[]{"/api;x/v1/trainees/john", "/api/v1;x/trainers/john", "/api/v1/%74rainings", "/api//v1/batch"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            authenticationFilter.doFilter(request, response, chain);
+
+            assertEquals(401, response.getStatus(), uri);
+            assertNull(chain.getRequest(), uri);
+        }
+    }
+
+    @Test
+    void registrationWithPathParameter_ShouldNotRequireToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/trainees/;jsessionid=1");
+        MockFilterChain chain = new MockFilterChain();
+
+        authenticationFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+        verifyNoInteractions(tokenService);
+    }
+
+    @Test
+    void registration_ShouldNotRequireToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/trainees/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        authenticationFilter.doFilter(request, response, chain);
+
+        assertSame(request, chain.getRequest());
+        verifyNoInteractions(tokenService);
+    }
+
+    @Test
+    void unprotectedPath_ShouldNotRequireToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        MockFilterChain chain = new MockFilterChain();
+
+        authenticationFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+        verifyNoInteractions(tokenService);
+    }
+
+    @Test
+    void requirePrincipal_ShouldRejectOtherUser() {
+        assertDoesNotThrow(() -> AuthenticationFilter.requirePrincipal("john", "john"));
+        assertThrows(InvalidTokenException.class, () -> AuthenticationFilter.requirePrincipal("john", "jane"));
+    }
+
+    @Test
+    void requireAnyPrincipal_ShouldAcceptAnyOfTheUsers() {
+        assertDoesNotThrow(() -> AuthenticationFilter.requireAnyPrincipal("jane", "john", "jane"));
+        assertThrows(InvalidTokenException.class, () -> AuthenticationFilter.requireAnyPrincipal("bob", "john", "jane"));
+        assertThrows(InvalidTokenException.class, () -> AuthenticationFilter.requireAnyPrincipal(null, "john"));
+    }
+}
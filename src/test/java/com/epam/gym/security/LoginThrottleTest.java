@@ -0,0 +1,89 @@
+package com.epam.gym.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        loginThrottle = new LoginThrottle(
+                new LoginThrottle.Limit(3, Duration.ofMinutes(1)),
+                new LoginThrottle.Limit(10, Duration.ofMinutes(1)),
+                1000, nanos::get);
+    }
+
+    @Test
+    void tryAcquire_shouldAllowUpToCapacityPerUsername() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, loginThrottle.tryAcquire("john", "10.0.0.1"));
+        }
+
+        long retryAfter = loginThrottle.tryAcquire("john", "10.0.0.2");
+
+        assertEquals(20, retryAfter);
+        assertEquals(0, loginThrottle.tryAcquire("jane", "10.0.0.1"));
+    }
+
+    @Test
+    void tryAcquire_shouldLimitOneAddressAcrossUsernames() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, loginThrottle.tryAcquire("user" + i, "10.0.0.1"));
+        }
+
+        assertTrue(loginThrottle.tryAcquire("another", "10.0.0.1") > 0);
+        assertEquals(0, loginThrottle.tryAcquire("another", "10.0.0.2"));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.tryAcquire("john", "10.0.0.1");
+        }
+        assertTrue(loginThrottle.tryAcquire("john", "10.0.0.1") > 0);
+
+        nanos.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        assertEquals(0, loginThrottle.tryAcquire("john", "10.0.0.1"));
+        assertTrue(loginThrottle.tryAcquire("john", "10.0.0.1") > 0);
+    }
+
+    @Test
+    void tryAcquire_concurrentAttempts_shouldNeverExceedCapacity() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            String address = "10.0.1." + i;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (loginThrottle.tryAcquire("john", address) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(3, allowed.get());
+    }
+}
@@ -0,0 +1,57 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.UserCredentials;
+import jakarta.persistence.NoResultException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TokenService tokenService;
+
+    @InjectMocks
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void authenticate_activeUserWithCorrectPassword_shouldSucceed() {
+        UserCredentials credentials = new UserCredentials(1L, "hash", true);
+        when(userService.findCredentials("john.doe")).thenReturn(Optional.of(credentials));
+        when(userService.checkCredentials(credentials, "secret")).thenReturn(true);
+
+        assertTrue(authService.authenticate("john.doe", "secret"));
+    }
+
+    @Test
+    void authenticate_inactiveUser_shouldFailWithoutCheckingPassword() {
+        UserCredentials credentials = new UserCredentials(1L, "hash", false);
+        when(userService.findCredentials("john.doe")).thenReturn(Optional.of(credentials));
+        when(userService.checkCredentials(credentials, "secret")).thenReturn(true);
+
+        assertFalse(authService.authenticate("john.doe", "secret"));
+        verify(userService, never()).checkCredentials(any(), any());
+    }
+
+    @Test
+    void authenticate_unknownUser_shouldThrow() {
+        when(userService.findCredentials("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(NoResultException.class, () -> authService.authenticate("ghost", "secret"));
+    }
+}
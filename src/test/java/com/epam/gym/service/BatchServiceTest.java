@@ -0,0 +1,113 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.BatchOperation;
+import com.epam.gym.dto.BatchOperationResult;
+import com.epam.gym.dto.BatchResponse;
+import com.epam.gym.dto.TraineeProfileResponse;
+import com.epam.gym.dto.TraineeUpdateRequest;
+import com.epam.gym.dto.TrainingRegistrationRequest;
+import com.epam.gym.dto.UpdateTraineeTrainersRequest;
+import jakarta.persistence.NoResultException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BatchServiceTest {
+
+    @Mock
+    private FacadeService facadeService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BatchService batchService;
+    private SimpleTransactionStatus transaction;
+
+    private final TraineeUpdateRequest updateTrainee =
+            new TraineeUpdateRequest("alice", "Alice", "Smith", LocalDate.of(1990, 1, 1), "Main St", true);
+    private final UpdateTraineeTrainersRequest replaceTrainers = new UpdateTraineeTrainersRequest(List.of("bob"));
+    private final TrainingRegistrationRequest registerTraining =
+            new TrainingRegistrationRequest("alice", "bob", "Morning run", LocalDate.of(2024, 1, 1), 60);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        transaction = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        batchService = new BatchService(facadeService, transactionManager);
+    }
+
+    @Test
+    void operations_shouldRunInOrderInOneTransaction() {
+        TraineeProfileResponse profile =
+                new TraineeProfileResponse("Alice", "Smith", LocalDate.of(1990, 1, 1), "Main St", true, List.of());
+        when(facadeService.updateTrainee(updateTrainee)).thenReturn(profile);
+        when(facadeService.registerTraining(registerTraining)).thenReturn(true);
+
+        BatchResponse response = batchService.execute(List.of(
+                new BatchOperation.UpdateTrainee(updateTrainee),
+                new BatchOperation.UpdateTraineeTrainers("alice", replaceTrainers),
+                new BatchOperation.RegisterTraining(registerTraining)), "alice");
+
+        assertTrue(response.committed());
+        assertEquals(BatchOperationResult.succeeded(0, 200, profile), response.results().get(0));
+        assertEquals(200, response.results().get(1).status());
+        assertEquals(BatchOperationResult.succeeded(2, 201, null), response.results().get(2));
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager).commit(transaction);
+        assertFalse(transaction.isRollbackOnly());
+
+        var order = inOrder(facadeService);
+        order.verify(facadeService).updateTrainee(updateTrainee);
+        order.verify(facadeService).updateTraineeTrainers("alice", replaceTrainers);
+        order.verify(facadeService).registerTraining(registerTraining);
+    }
+
+    @Test
+    void failingOperation_shouldRollBackAndSkipTheRest() {
+        when(facadeService.updateTraineeTrainers("alice", replaceTrainers))
+                .thenThrow(new NoResultException("No trainer bob"));
+
+        BatchResponse response = batchService.execute(List.of(
+                new BatchOperation.UpdateTrainee(updateTrainee),
+                new BatchOperation.UpdateTraineeTrainers("alice", replaceTrainers),
+                new BatchOperation.RegisterTraining(registerTraining)), "alice");
+
+        assertFalse(response.committed());
+        assertTrue(response.results().get(0).isSucceeded());
+        assertEquals(BatchOperationResult.failed(1, 404, "Not found"), response.results().get(1));
+        assertEquals(BatchOperationResult.failed(2, 424, "Not executed, operation 1 failed"), response.results().get(2));
+        assertTrue(transaction.isRollbackOnly());
+        verify(facadeService, never()).registerTraining(any());
+    }
+
+    @Test
+    void operationOnOtherUser_shouldBeRejected() {
+        BatchResponse response = batchService.execute(List.of(
+                new BatchOperation.RegisterTraining(registerTraining),
+                new BatchOperation.UpdateTrainee(updateTrainee)), "bob");
+
+        assertFalse(response.committed());
+        assertEquals(BatchOperationResult.failed(1, 401, "Token not authenticated"), response.results().get(1));
+        verify(facadeService).registerTraining(registerTraining);
+        verify(facadeService, never()).updateTrainee(any());
+    }
+
+    @Test
+    void unexpectedError_shouldNotLeakItsMessage() {
+        when(facadeService.updateTrainee(updateTrainee)).thenThrow(new IllegalStateException("connection to db-7 lost"));
+
+        BatchResponse response = batchService.execute(List.of(new BatchOperation.UpdateTrainee(updateTrainee)), "alice");
+
+        assertEquals(BatchOperationResult.failed(0, 500, "Operation failed"), response.results().get(0));
+    }
+}
@@ -0,0 +1,203 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.BulkRegistrationResponse;
+import com.epam.gym.dto.BulkRegistrationResult;
+import com.epam.gym.dto.TraineeRegistrationRequest;
+import com.epam.gym.dto.TrainerRegistrationRequest;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.TrainingTypeEnum;
+import com.epam.gym.entity.User;
+import com.epam.gym.exception.ServiceOverloadedException;
+import com.epam.gym.repository.RegistrationBatchRepository;
+import com.epam.gym.util.UsernameFilter;
+import com.epam.gym.util.UsernamePasswordUtil;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BulkRegistrationServiceTest {
+
+    @Mock
+    private RegistrationBatchRepository batchRepository;
+
+    @Mock
+    private TrainingTypeService trainingTypeService;
+
+    @Mock
+    private UsernamePasswordUtil usernamePasswordUtil;
+
+    @Mock
+    private UsernameFilter usernameFilter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkRegistrationService service;
+    private final AtomicInteger serial = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(usernamePasswordUtil.generateUsername(any(), any())).thenAnswer(i ->
+                (i.getArgument(0) + "." + i.getArgument(1)).toLowerCase() + serial.getAndIncrement());
+        when(usernamePasswordUtil.generatePassword()).thenReturn("secret");
+        when(usernamePasswordUtil.hashPassword("secret")).thenReturn("hashed");
+        when(batchRepository.insertUsers(any())).thenAnswer(i -> {
+            List<User> users = i.getArgument(0);
+            return users.stream().map(user -> ids.incrementAndGet()).toList();
+        });
+        service = new BulkRegistrationService(batchRepository, trainingTypeService, usernamePasswordUtil,
+                usernameFilter, Validation.buildDefaultValidatorFactory().getValidator(), transactionManager, 2, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void registerTrainees_shouldInsertInChunkedBatches() {
+        BulkRegistrationResponse response = service.registerTrainees(List.of(
+                trainee("John", "Smith"), trainee("Jane", "Doe"), trainee("Bob", "Lee"),
+                trainee("Ann", "Lee"), trainee("Tom", "Ray")));
+
+        assertEquals(5, response.created());
+        assertEquals(0, response.failed());
+        assertEquals(BulkRegistrationResult.created(0, "john.smith0", "secret"), response.results().get(0));
+        verify(batchRepository, times(3)).insertUsers(any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(usernameFilter).put("tom.ray4");
+
+        ArgumentCaptor<List<Trainee>> trainees = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(3)).insertTrainees(trainees.capture());
+        Trainee first = trainees.getAllValues().get(0).get(0);
+        assertEquals(1L, first.getUser().getId());
+        assertEquals("hashed", first.getUser().getPassword());
+        assertEquals("Main St", first.getAddress());
+    }
+
+    @Test
+    void invalidRows_shouldBeReportedWithoutBlockingOthers() {
+        BulkRegistrationResponse response = service.registerTrainees(Arrays.asList(
+                trainee("", "Smith"), null, trainee("Jane", "Doe")));
+
+        assertEquals(1, response.created());
+        assertEquals(BulkRegistrationResult.failed(0, "First name is required"), response.results().get(0));
+        assertEquals(BulkRegistrationResult.failed(1, "Row is empty"), response.results().get(1));
+        assertEquals("jane.doe0", response.results().get(2).username());
+        verify(usernamePasswordUtil, times(1)).generateUsername(any(), any());
+    }
+
+    @Test
+    void failingChunk_shouldBeRetriedRowByRow() {
+        when(batchRepository.insertUsers(any())).thenAnswer(i -> {
+            List<User> users = i.getArgument(0);
+            if (users.stream().anyMatch(user -> user.getFirstName().equals("Broken"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return users.stream().map(user -> ids.incrementAndGet()).toList();
+        });
+
+        BulkRegistrationResponse response = service.registerTrainees(List.of(
+                trainee("John", "Smith"), trainee("Broken", "Row"), trainee("Jane", "Doe")));
+
+        assertEquals(2, response.created());
+        assertTrue(response.results().get(0).isCreated());
+        assertEquals(BulkRegistrationResult.failed(1, "Failed to register"), response.results().get(1));
+        assertTrue(response.results().get(2).isCreated());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void takenUsername_shouldBeReallocatedOnce() {
+        List<String> attempted = new ArrayList<>();
+        when(batchRepository.insertUsers(any())).thenAnswer(i -> {
+            List<User> users = i.getArgument(0);
+            attempted.add(users.get(0).getUsername());
+            if (users.get(0).getUsername().equals("john.smith0")) {
+                throw new DuplicateKeyException("users.username");
+            }
+            return List.of(ids.incrementAndGet());
+        });
+
+        BulkRegistrationResponse response = service.registerTrainees(List.of(trainee("John", "Smith")));
+
+        assertEquals(BulkRegistrationResult.created(0, "john.smith1", "secret"), response.results().get(0));
+        assertEquals(List.of("john.smith0", "john.smith0", "john.smith1"), attempted);
+        verify(usernamePasswordUtil).forgetUsernames("John", "Smith");
+        verify(usernameFilter, never()).put("john.smith0");
+    }
+
+    @Test
+    void registerTrainers_shouldResolveSpecializationsOncePerBatch() {
+        TrainingType cardio = mock(TrainingType.class);
+        when(cardio.getType()).thenReturn(TrainingTypeEnum.CARDIO);
+        TrainingType strength = mock(TrainingType.class);
+        when(strength.getType()).thenReturn(TrainingTypeEnum.STRENGTH);
+        when(trainingTypeService.findAllTrainingTypes()).thenReturn(List.of(cardio, strength));
+
+        BulkRegistrationResponse response = service.registerTrainers(List.of(
+                new TrainerRegistrationRequest("John", "Smith", "CARDIO"),
+                new TrainerRegistrationRequest("Jane", "Doe", "PILATES"),
+                new TrainerRegistrationRequest("Bob", "Lee", "STRENGTH"),
+                new TrainerRegistrationRequest("Ann", "Lee", "CARDIO")));
+
+        assertEquals(3, response.created());
+        assertEquals(BulkRegistrationResult.failed(1, "Unknown specialization"), response.results().get(1));
+        verify(trainingTypeService, times(1)).findAllTrainingTypes();
+        verify(batchRepository, times(2)).insertUsers(any());
+
+        ArgumentCaptor<List<Trainer>> trainers = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(2)).insertTrainers(trainers.capture());
+        List<Trainer> inserted = trainers.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(List.of(cardio, strength, cardio), inserted.stream().map(Trainer::getTrainingType).toList());
+        assertEquals(List.of(1L, 2L, 3L), inserted.stream().map(trainer -> trainer.getUser().getId()).toList());
+    }
+
+    @Test
+    void batchLargerThanHashQueue_shouldBeRejectedBeforeInserting() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(usernamePasswordUtil.hashPassword("secret")).thenAnswer(i -> {
+            release.await();
+            return "hashed";
+        });
+        List<TraineeRegistrationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(trainee("John", "Smith"));
+        }
+
+        try {
+            assertThrows(ServiceOverloadedException.class, () -> service.registerTrainees(requests));
+            verifyNoInteractions(batchRepository);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static TraineeRegistrationRequest trainee(String firstName, String lastName) {
+        return new TraineeRegistrationRequest(firstName, lastName, LocalDate.of(1990, 1, 1), "Main St");
+    }
+}
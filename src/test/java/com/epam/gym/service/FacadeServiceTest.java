@@ -8,8 +8,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
@@ -38,6 +42,12 @@ class FacadeServiceTest {
     @Mock
     private TrainingTypeService trainingTypeService;
 
+    @Mock
+    private TokenService tokenService;
+
+    @Spy
+    private ProfileCache profileCache = new ProfileCache(100, Duration.ofMinutes(5));
+
     @InjectMocks
     private FacadeService facadeService;
 
@@ -145,7 +155,7 @@ class FacadeServiceTest {
                 .trainers(Set.of(linkedTrainer))
                 .build();
 
-        when(traineeService.findTraineeByUsername(anyString())).thenReturn(traineeWithTrainer);
+        when(traineeService.findTraineeProfile(anyString())).thenReturn(traineeWithTrainer);
 
         TraineeProfileResponse response = facadeService.getTraineeByUsername("trainee.user");
 
@@ -162,7 +172,7 @@ class FacadeServiceTest {
         assertEquals("Trainer", response.trainers().getFirst().lastName());
         assertEquals("STRENGTH", response.trainers().getFirst().specialization());
 
-        verify(traineeService).findTraineeByUsername(eq("trainee.user"));
+        verify(traineeService).findTraineeProfile(eq("trainee.user"));
     }
 
     // Note: Testing the case where findTraineeByUsername returns null would require
@@ -194,7 +204,7 @@ class FacadeServiceTest {
                 .trainers(Collections.emptySet())
                 .build();
 
-        when(traineeService.findTraineeByUsername(anyString())).thenReturn(updatedTrainee);
+        when(traineeService.findTraineeProfile(anyString())).thenReturn(updatedTrainee);
 
         TraineeProfileResponse response = facadeService.updateTrainee(request);
 
@@ -213,21 +223,32 @@ class FacadeServiceTest {
                 eq(request.address()),
                 eq(request.isActive())
         );
-        verify(traineeService).findTraineeByUsername(eq(request.username()));
+        verify(traineeService).findTraineeProfile(eq(request.username()));
     }
 
     @Test
     void deleteTrainee_Success() {
+        Trainee traineeWithTrainer = mockTrainee.toBuilder().trainers(Set.of(mockTrainer)).build();
+        when(traineeService.findTraineeProfile("trainee.user")).thenReturn(traineeWithTrainer);
         doNothing().when(traineeService).deleteTrainee(anyString());
 
         facadeService.deleteTrainee("trainee.user");
 
         verify(traineeService).deleteTrainee(eq("trainee.user"));
+        verify(tokenService).revokeAllTokens("trainee.user");
+        verify(profileCache).evictTrainee("trainee.user");
+        verify(profileCache).evictTrainers(Set.of("trainer.user"));
     }
 
     @Test
     void updateTraineeTrainers_Success() {
         UpdateTraineeTrainersRequest request = new UpdateTraineeTrainersRequest(List.of("trainer.user"));
+        Trainer previousTrainer = Trainer.builder()
+                .user(User.builder().username("previous.trainer").build())
+                .trainingType(mockTrainingType)
+                .build();
+        when(traineeService.findTraineeProfile("trainee.user"))
+                .thenReturn(mockTrainee.toBuilder().trainers(Set.of(previousTrainer, mockTrainer)).build());
 
         // Mock the trainer service call
         when(trainerService.getTrainersByUsernames(anyList())).thenReturn(List.of(mockTrainer));
@@ -247,6 +268,9 @@ class FacadeServiceTest {
 
         verify(trainerService).getTrainersByUsernames(eq(request.trainerUsernames()));
         verify(traineeService).updateTraineeTrainers(eq("trainee.user"), eq(List.of(mockTrainer)));
+        // trainer.user keeps the trainee, so its trainee list is unchanged
+        verify(profileCache).evictTrainee("trainee.user");
+        verify(profileCache).evictTrainers(Set.of("previous.trainer"));
     }
 
     @Test
@@ -256,6 +280,52 @@ class FacadeServiceTest {
         facadeService.changeTraineeActiveStatus("trainee.user", false);
 
         verify(traineeService).changeActiveStatus(eq("trainee.user"), eq(false));
+        verify(tokenService).revokeAllTokens("trainee.user");
+        verify(profileCache).evictTrainee("trainee.user");
+        verify(profileCache, never()).evictTrainers(any());
+    }
+
+    @Test
+    void changeTraineeActiveStatus_InTransaction_ShouldRevokeTokensOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            facadeService.changeTraineeActiveStatus("trainee.user", false);
+
+            verify(tokenService, never()).revokeAllTokens(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(tokenService).revokeAllTokens("trainee.user");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getTraineeByUsername_RepeatedRead_ShouldBeServedFromCache() {
+        when(traineeService.findTraineeProfile("trainee.user")).thenReturn(mockTrainee);
+
+        TraineeProfileResponse first = facadeService.getTraineeByUsername("trainee.user");
+        TraineeProfileResponse second = facadeService.getTraineeByUsername("trainee.user");
+
+        assertSame(first, second);
+        verify(traineeService, times(1)).findTraineeProfile("trainee.user");
+    }
+
+    @Test
+    void updateTrainee_ShouldEvictTraineeAndTheirTrainers() {
+        Trainee traineeWithTrainer = mockTrainee.toBuilder().trainers(Set.of(mockTrainer)).build();
+        when(traineeService.findTraineeProfile("trainee.user")).thenReturn(traineeWithTrainer);
+        when(trainerService.findTrainerProfile("trainer.user")).thenReturn(mockTrainer);
+        facadeService.getTraineeByUsername("trainee.user");
+        facadeService.getTrainerByUsername("trainer.user");
+
+        facadeService.updateTrainee(new TraineeUpdateRequest(
+                "trainee.user", "Renamed", "Trainee", LocalDate.of(2000, 1, 1), "Trainee Address", true));
+        facadeService.getTraineeByUsername("trainee.user");
+        facadeService.getTrainerByUsername("trainer.user");
+
+        // initial read, reload by the update, read after eviction
+        verify(traineeService, times(3)).findTraineeProfile("trainee.user");
+        verify(trainerService, times(2)).findTrainerProfile("trainer.user");
     }
 
     ////////////////////////////////////////////////
@@ -269,7 +339,8 @@ class FacadeServiceTest {
 
         when(trainingTypeService.findByType("FLEXIBILITY")).thenReturn(mockTrainingType);
         when(trainerService.createTrainer(anyString(), anyString(), any(TrainingType.class)))
-                .thenReturn(mockTrainer);
+                .thenReturn(new TrainerRegistrationResponse(mockUserTrainer.getUsername(),
+                        mockUserTrainer.getPassword()));
 
         TrainerRegistrationResponse response = facadeService.registerTrainer(request);
 
@@ -304,7 +375,7 @@ class FacadeServiceTest {
                 .trainees(Set.of(linkedTrainee))
                 .build();
 
-        when(trainerService.findTrainerByUsername(anyString())).thenReturn(trainerWithTrainee);
+        when(trainerService.findTrainerProfile(anyString())).thenReturn(trainerWithTrainee);
 
         TrainerProfileResponse response = facadeService.getTrainerByUsername("trainer.user");
 
@@ -319,7 +390,7 @@ class FacadeServiceTest {
         assertEquals("Linked", response.trainees().getFirst().firstName());
         assertEquals("Trainee", response.trainees().getFirst().lastName());
 
-        verify(trainerService).findTrainerByUsername(eq("trainer.user"));
+        verify(trainerService).findTrainerProfile(eq("trainer.user"));
     }
 
     // Note: Similar to getTraineeByUsername, testing the null case for
@@ -354,7 +425,7 @@ class FacadeServiceTest {
                 .trainees(Collections.emptySet())
                 .build();
 
-        when(trainerService.findTrainerByUsername(anyString())).thenReturn(updatedTrainer);
+        when(trainerService.findTrainerProfile(anyString())).thenReturn(updatedTrainer);
 
         TrainerProfileResponse response = facadeService.updateTrainer(request);
 
@@ -372,7 +443,7 @@ class FacadeServiceTest {
                 eq(updatedTrainingType),
                 eq(request.isActive())
         );
-        verify(trainerService).findTrainerByUsername(eq(request.username()));
+        verify(trainerService).findTrainerProfile(eq(request.username()));
     }
 
     @Test
@@ -399,6 +470,9 @@ class FacadeServiceTest {
         facadeService.changeTrainerActiveStatus("trainer.user", false);
 
         verify(trainerService).changeActiveStatus(eq("trainer.user"), eq(false));
+        verify(tokenService).revokeAllTokens("trainer.user");
+        verify(profileCache).evictTrainer("trainer.user");
+        verify(profileCache, never()).evictTrainees(any());
     }
 
     ////////////////////////////////////////////////
@@ -412,10 +486,11 @@ class FacadeServiceTest {
 
         when(traineeService.findTraineeByUsername(anyString())).thenReturn(mockTrainee);
         when(trainerService.findTrainerByUsername(anyString())).thenReturn(mockTrainer);
-        doNothing().when(trainingService).createTraining(
-                any(Trainee.class), any(Trainer.class), anyString(), any(TrainingType.class), any(LocalDate.class), anyInt());
+        when(trainingService.createTraining(
+                any(Trainee.class), any(Trainer.class), anyString(), any(TrainingType.class), any(LocalDate.class), anyInt()))
+                .thenReturn(true);
 
-        facadeService.registerTraining(request);
+        assertTrue(facadeService.registerTraining(request));
 
         verify(traineeService).findTraineeByUsername(eq(request.traineeUsername()));
         verify(trainerService).findTrainerByUsername(eq(request.trainerUsername()));
@@ -443,7 +518,7 @@ class FacadeServiceTest {
         when(trainingTypeService.findByType("CARDIO")).thenReturn(mockTrainingType);
         when(trainingService.getTraineeTrainings(
                 anyString(), any(LocalDate.class), any(LocalDate.class), anyString(), any(TrainingType.class)))
-                .thenReturn(List.of(mockTraining));
+                .thenReturn(List.of(traineeTrainingRow(mockTraining)));
 
         List<TraineeTrainingResponse> response = facadeService.findTraineeTrainings("trainee.user", request);
 
@@ -474,7 +549,7 @@ class FacadeServiceTest {
         // No call to trainingTypeService.findByType when specialization is null
         when(trainingService.getTraineeTrainings(
                 anyString(), any(LocalDate.class), any(LocalDate.class), anyString(), eq(null)))
-                .thenReturn(List.of(mockTraining));
+                .thenReturn(List.of(traineeTrainingRow(mockTraining)));
 
         List<TraineeTrainingResponse> response = facadeService.findTraineeTrainings("trainee.user", request);
 
@@ -504,7 +579,7 @@ class FacadeServiceTest {
 
         when(trainingService.getTrainerTrainings(
                 anyString(), any(LocalDate.class), any(LocalDate.class), anyString()))
-                .thenReturn(List.of(mockTraining));
+                .thenReturn(List.of(trainerTrainingRow(mockTraining)));
 
         List<TrainerTrainingResponse> response = facadeService.findTrainerTrainings("trainer.user", request);
 
@@ -547,4 +622,31 @@ class FacadeServiceTest {
 
         verify(trainingTypeService).findAllTrainingTypes();
     }
+
+    @Test
+    void findAllTrainingTypesPayload_ShouldComeFromRegistry() {
+        TrainingTypesPayload payload = new TrainingTypesPayload(new byte[]{'[', ']'}, "\"etag\"");
+        when(trainingTypeService.findAllTrainingTypesPayload()).thenReturn(payload);
+
+        assertSame(payload, facadeService.findAllTrainingTypesPayload());
+    }
+
+    /**
+     * What the training history projection query selects for {@code training}.
+     */
+    private static TraineeTrainingResponse traineeTrainingRow(Training training) {
+        return new TraineeTrainingResponse(training.getName(),
+                training.getDate(),
+                training.getTrainingType().getType(),
+                training.getDuration(),
+                training.getTrainer().getUser().getUsername());
+    }
+
+    private static TrainerTrainingResponse trainerTrainingRow(Training training) {
+        return new TrainerTrainingResponse(training.getName(),
+                training.getDate(),
+                training.getTrainingType().getType(),
+                training.getDuration(),
+                training.getTrainee().getUser().getUsername());
+    }
 }
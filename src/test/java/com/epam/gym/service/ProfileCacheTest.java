@@ -0,0 +1,83 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TraineeProfileResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProfileCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProfileCache(100, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evict_shouldOnlyDropNamedProfiles() {
+        cache.trainee("alice", this::load);
+        cache.trainee("bob", this::load);
+
+        cache.evictTrainees(List.of("alice"));
+        cache.trainee("alice", this::load);
+        cache.trainee("bob", this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evictInTransaction_shouldRepeatAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.trainee("alice", this::load);
+
+        cache.evictTrainee("alice");
+        // Re-read before commit, e.g. by the writer itself
+        cache.trainee("alice", this::load);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.trainee("alice", this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void metrics_shouldReportHitRatio() {
+        cache.trainee("alice", this::load);
+        cache.trainee("alice", this::load);
+        cache.trainee("alice", this::load);
+        cache.trainee("bob", this::load);
+
+        assertEquals(2, meterRegistry.get("gym.profile.cache.lookups")
+                .tag("profile", "trainee").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("gym.profile.cache.lookups")
+                .tag("profile", "trainee").tag("result", "miss").functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("gym.profile.cache.hit-ratio")
+                .tag("profile", "trainee").gauge().value());
+    }
+
+    private TraineeProfileResponse load(String username) {
+        loads.incrementAndGet();
+        return new TraineeProfileResponse(username, "Smith", LocalDate.of(1990, 1, 1), "Main St", true, List.of());
+    }
+}
@@ -0,0 +1,140 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TraineeProfileResponse;
+import com.epam.gym.dto.TrainerProfileResponse;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.User;
+import com.epam.gym.repository.TrainingTypeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Profile reads must cost the same number of statements however many trainers or trainees
+ * the profile lists.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:profile-query-count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProfileQueryCountTest {
+
+    @Autowired
+    private FacadeService facadeService;
+
+    @Autowired
+    private TrainingTypeRepository trainingTypeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void traineeProfile_shouldTakeOneStatementRegardlessOfTrainers() {
+        for (int trainers : new int[]{1, 20}) {
+            String trainee = persistTrainee(trainers);
+
+            Statistics statistics = statistics();
+            TraineeProfileResponse profile = facadeService.getTraineeByUsername(trainee);
+
+            assertEquals(trainers, profile.trainers().size());
+            assertEquals(1, statistics.getPrepareStatementCount(), trainers + " trainers");
+        }
+    }
+
+    @Test
+    void trainerProfile_shouldTakeOneStatementRegardlessOfTrainees() {
+        for (int trainees : new int[]{1, 20}) {
+            String trainer = persistTrainer(trainees);
+
+            Statistics statistics = statistics();
+            TrainerProfileResponse profile = facadeService.getTrainerByUsername(trainer);
+
+            assertEquals(trainees, profile.trainees().size());
+            assertEquals(1, statistics.getPrepareStatementCount(), trainees + " trainees");
+        }
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    /**
+     * @return the username of a new trainee with {@code trainers} new trainers.
+     */
+    private String persistTrainee(int trainers) {
+        String prefix = "profile-" + System.nanoTime() + "-";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Set<Trainer> assigned = new HashSet<>();
+            for (int i = 0; i < trainers; i++) {
+                Trainer trainer = trainer(prefix + "trainer-" + i);
+                entityManager.persist(trainer);
+                assigned.add(trainer);
+            }
+            entityManager.persist(trainee(prefix + "trainee", assigned));
+        });
+        return prefix + "trainee";
+    }
+
+    /**
+     * @return the username of a new trainer assigned to {@code trainees} new trainees.
+     */
+    private String persistTrainer(int trainees) {
+        String prefix = "profile-" + System.nanoTime() + "-";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Trainer trainer = trainer(prefix + "trainer");
+            entityManager.persist(trainer);
+            for (int i = 0; i < trainees; i++) {
+                entityManager.persist(trainee(prefix + "trainee-" + i, new HashSet<>(Set.of(trainer))));
+            }
+        });
+        return prefix + "trainer";
+    }
+
+    private Trainer trainer(String username) {
+        return Trainer.builder()
+                .user(user(username))
+                .trainingType(trainingTypeRepository.findAll().get(0))
+                .build();
+    }
+
+    private static Trainee trainee(String username, Set<Trainer> trainers) {
+        return Trainee.builder()
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .address("Main St")
+                .user(user(username))
+                .trainers(trainers)
+                .build();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .firstName("Profile")
+                .lastName("User")
+                .username(username)
+                .password("hash")
+                .isActive(true)
+                .build();
+    }
+}
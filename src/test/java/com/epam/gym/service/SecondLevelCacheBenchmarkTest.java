@@ -0,0 +1,159 @@
+package com.epam.gym.service;
+
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.User;
+import com.epam.gym.repository.TrainingTypeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reads behind the profile endpoints and the training type query with the second-level cache in
+ * use and bypassed ({@link CacheMode#IGNORE}), one transaction per read as for a request. The profile
+ * cache is evicted before each profile read, so every read reaches Hibernate. Excluded from the
+ * default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SecondLevelCacheBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheBenchmarkTest.class);
+
+    private static final int TRAINERS = 100;
+    private static final int TRAINEES = 500;
+    private static final int TRAINERS_PER_TRAINEE = 3;
+    private static final int READS = 5_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private FacadeService facadeService;
+
+    @Autowired
+    private TrainerService trainerService;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private TrainingTypeRepository trainingTypeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<String> trainees = new ArrayList<>();
+    private final List<String> trainers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String prefix = "bench-" + System.nanoTime() + "-";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            TrainingType trainingType = trainingTypeRepository.findAll().get(0);
+            List<Trainer> persisted = new ArrayList<>();
+            for (int i = 0; i < TRAINERS; i++) {
+                Trainer trainer = Trainer.builder().user(user(prefix + "trainer-" + i)).trainingType(trainingType).build();
+                entityManager.persist(trainer);
+                persisted.add(trainer);
+                trainers.add(prefix + "trainer-" + i);
+            }
+            for (int i = 0; i < TRAINEES; i++) {
+                Set<Trainer> assigned = new HashSet<>();
+                for (int j = 0; j < TRAINERS_PER_TRAINEE; j++) {
+                    assigned.add(persisted.get((i + j) % TRAINERS));
+                }
+                entityManager.persist(Trainee.builder()
+                        .dateOfBirth(LocalDate.of(1990, 1, 1))
+                        .address("Main St")
+                        .user(user(prefix + "trainee-" + i))
+                        .trainers(assigned)
+                        .build());
+                trainees.add(prefix + "trainee-" + i);
+            }
+        });
+    }
+
+    @Test
+    void readThroughput() {
+        for (int round = 0; round <= ROUNDS; round++) {
+            boolean warmup = round == 0;
+            for (CacheMode cacheMode : new CacheMode[]{CacheMode.IGNORE, CacheMode.NORMAL}) {
+                read(warmup, "trainee profile", cacheMode, trainees, username -> {
+                    profileCache.evictTrainee(username);
+                    facadeService.getTraineeByUsername(username);
+                });
+                read(warmup, "trainer profile", cacheMode, trainers, username -> {
+                    profileCache.evictTrainer(username);
+                    facadeService.getTrainerByUsername(username);
+                });
+                read(warmup, "trainer lookup", cacheMode, trainers, username -> {
+                    Trainer trainer = trainerService.findTrainerByUsername(username);
+                    trainer.getUser().getFirstName();
+                    trainer.getTrainingType().getType();
+                });
+                read(warmup, "training types", cacheMode, trainers, username -> trainingTypeRepository.findAll());
+            }
+        }
+    }
+
+    private void read(boolean warmup, String name, CacheMode cacheMode, List<String> usernames, Consumer<String> reader) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            String username = usernames.get(i % usernames.size());
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setCacheMode(cacheMode);
+                reader.accept(username);
+            });
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+        if (!warmup) {
+            log.info("{} ({}): {} reads in {} ms ({} reads/s, {} statements/read, {} cache hits/read)",
+                    name, cacheMode == CacheMode.IGNORE ? "cache off" : "cache on", READS, Math.round(millis),
+                    Math.round(READS / millis * 1000),
+                    (double) statistics.getPrepareStatementCount() / READS,
+                    (double) (statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount()) / READS);
+        }
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .firstName("Bench")
+                .lastName("User")
+                .username(username)
+                .password("hash")
+                .isActive(true)
+                .build();
+    }
+}
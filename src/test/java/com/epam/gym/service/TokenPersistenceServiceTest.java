@@ -0,0 +1,58 @@
+package com.epam.gym.service;
+
+import com.epam.gym.repository.AuthTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenPersistenceServiceTest {
+
+    @Mock
+    private AuthTokenRepository authTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenPersistenceService persistence;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        persistence = new TokenPersistenceService(authTokenRepository, transactionManager, true, 500, 1);
+    }
+
+    @Test
+    void fullQueue_shouldDropSavesButKeepDeletes() {
+        persistence.saveLater("a", "john", 0, 1000);
+        persistence.saveLater("b", "john", 0, 1000);
+        persistence.deleteLater("c");
+        persistence.deleteLater("d");
+
+        assertEquals(3, persistence.pendingCount());
+    }
+
+    @Test
+    void failedFlush_shouldRequeueBatch() {
+        persistence.deleteLater("a");
+        doThrow(new DataAccessResourceFailureException("down"))
+                .doNothing()
+                .when(authTokenRepository).deleteAllByIdInBatch(any());
+
+        persistence.flush();
+        assertEquals(1, persistence.pendingCount());
+
+        persistence.flush();
+        assertEquals(0, persistence.pendingCount());
+        verify(authTokenRepository, times(2)).deleteAllByIdInBatch(Set.of("a"));
+        verify(transactionManager).rollback(any());
+    }
+}
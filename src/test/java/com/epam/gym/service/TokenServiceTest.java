@@ -0,0 +1,360 @@
+package com.epam.gym.service;
+
+import com.epam.gym.entity.AuthToken;
+import com.epam.gym.store.InMemoryTokenStore;
+import com.epam.gym.store.StoredToken;
+import com.epam.gym.store.TokenStore;
+import com.epam.gym.util.SignedTokenCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenServiceTest {
+
+    private MutableClock clock;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        tokenService = new TokenService(Duration.ofMinutes(30), Duration.ofHours(2), null, null, clock);
+    }
+
+    @Test
+    void isValidToken_unknownToken_shouldReturnFalse() {
+        assertFalse(tokenService.isValidToken("john", "missing"));
+        assertFalse(tokenService.isValidToken("john", null));
+        assertNull(tokenService.getUsername("missing"));
+        assertEquals(3, tokenService.getMissCount());
+    }
+
+    @Test
+    void isValidToken_shouldMatchOwner() {
+        String token = tokenService.generateToken("john");
+
+        assertTrue(tokenService.isValidToken("john", token));
+        assertFalse(tokenService.isValidToken("jane", token));
+        assertEquals(2, tokenService.getHitCount());
+    }
+
+    @Test
+    void idleToken_shouldExpire() {
+        String token = tokenService.generateToken("john");
+
+        clock.advance(Duration.ofMinutes(31));
+
+        assertFalse(tokenService.isValidToken("john", token));
+        assertEquals(0, tokenService.size());
+        assertEquals(1, tokenService.getEvictionCount());
+    }
+
+    @Test
+    void activeToken_shouldSlideButNotOutliveAbsoluteTtl() {
+        String token = tokenService.generateToken("john");
+
+        for (int i = 0; i < 4; i++) {
+            clock.advance(Duration.ofMinutes(20));
+            tokenService.evictExpiredTokens();
+            assertTrue(tokenService.isValidToken("john", token));
+        }
+
+        clock.advance(Duration.ofMinutes(41));
+        tokenService.evictExpiredTokens();
+
+        assertEquals(0, tokenService.size());
+        assertFalse(tokenService.isValidToken("john", token));
+    }
+
+    @Test
+    void evictExpiredTokens_shouldOnlyDropDueTokens() {
+        String stale = tokenService.generateToken("john");
+        clock.advance(Duration.ofMinutes(20));
+        String fresh = tokenService.generateToken("jane");
+        clock.advance(Duration.ofMinutes(15));
+
+        tokenService.evictExpiredTokens();
+
+        assertEquals(1, tokenService.size());
+        assertEquals(1, tokenService.getEvictionCount());
+        assertNull(tokenService.getUsername(stale));
+        assertEquals("jane", tokenService.getUsername(fresh));
+    }
+
+    @Test
+    void invalidateToken_shouldRemoveToken() {
+        String token = tokenService.generateToken("john");
+
+        tokenService.invalidateToken(token);
+        tokenService.invalidateToken(null);
+
+        assertFalse(tokenService.isValidToken(token));
+        assertEquals(0, tokenService.size());
+    }
+
+    @Test
+    void revokeAllTokens_shouldOnlyDropSessionsOfThatUser() {
+        String first = tokenService.generateToken("john");
+        String second = tokenService.generateToken("john");
+        String other = tokenService.generateToken("jane");
+        tokenService.invalidateToken(first);
+
+        assertEquals(1, tokenService.sessionCount("john"));
+        assertEquals(1, tokenService.revokeAllTokens("john"));
+
+        assertFalse(tokenService.isValidToken(second));
+        assertTrue(tokenService.isValidToken("jane", other));
+        assertEquals(0, tokenService.sessionCount("john"));
+        assertEquals(0, tokenService.revokeAllTokens("john"));
+    }
+
+    @Test
+    void expiredTokens_shouldLeaveSessionIndex() {
+        tokenService.generateToken("john");
+        clock.advance(Duration.ofMinutes(31));
+
+        tokenService.evictExpiredTokens();
+
+        assertEquals(0, tokenService.sessionCount("john"));
+    }
+
+    @Test
+    void signedToken_shouldVerifyWithoutStore() {
+        TokenService signed = signedTokenService();
+        String token = signed.generateToken("john.smith");
+
+        assertTrue(signed.isValidToken("john.smith", token));
+        assertFalse(signed.isValidToken("jane", token));
+        assertEquals(0, signed.size());
+    }
+
+    @Test
+    void signedToken_shouldBeVerifiableByAnotherNodeWithSameSecret() {
+        String token = signedTokenService().generateToken("john");
+
+        assertEquals("john", signedTokenService().getUsername(token));
+    }
+
+    @Test
+    void signedToken_tampered_shouldBeRejected() {
+        TokenService signed = signedTokenService();
+        String token = signed.generateToken("john");
+        char first = token.charAt(0);
+        String tampered = (first == 'A' ? 'B' : 'A') + token.substring(1);
+
+        assertFalse(signed.isValidToken(tampered));
+        assertFalse(signed.isValidToken("not-a-token"));
+    }
+
+    @Test
+    void signedToken_shouldExpireAfterAbsoluteTtl() {
+        TokenService signed = signedTokenService();
+        String token = signed.generateToken("john");
+
+        clock.advance(Duration.ofHours(2));
+
+        assertFalse(signed.isValidToken("john", token));
+    }
+
+    @Test
+    void signedToken_logout_shouldDenylistUntilExpiry() {
+        TokenService signed = signedTokenService();
+        String token = signed.generateToken("john");
+        String other = signed.generateToken("john");
+
+        signed.invalidateToken(token);
+
+        assertFalse(signed.isValidToken("john", token));
+        assertTrue(signed.isValidToken("john", other));
+        assertEquals(1, signed.revokedCount());
+
+        clock.advance(Duration.ofHours(2));
+        signed.evictExpiredTokens();
+
+        assertEquals(0, signed.revokedCount());
+        assertFalse(signed.isValidToken("john", token));
+    }
+
+    @Test
+    void persistence_shouldWriteBehindAndRestore() {
+        TokenPersistenceService persistence = mock(TokenPersistenceService.class);
+        TokenService persistent = new TokenService(Duration.ofMinutes(30), Duration.ofHours(2),
+                null, persistence, clock);
+
+        String token = persistent.generateToken("john");
+        verify(persistence).saveLater(eq(TokenService.key(token)), eq("john"), anyLong(), anyLong());
+        verify(persistence, never()).saveLater(eq(token), any(), anyLong(), anyLong());
+
+        persistent.invalidateToken(token);
+        verify(persistence).deleteLater(TokenService.key(token));
+
+        long issuedAt = clock.millis() - Duration.ofMinutes(90).toMillis();
+        when(persistence.loadActive(anyLong())).thenReturn(List.of(
+                new AuthToken(TokenService.key("restored"), "jane", issuedAt, issuedAt + Duration.ofHours(2).toMillis())));
+        persistent.restorePersistedTokens();
+
+        assertEquals("jane", persistent.getUsername("restored"));
+        clock.advance(Duration.ofMinutes(30));
+        assertNull(persistent.getUsername("restored"));
+    }
+
+    @Test
+    void sharedStore_shouldNotPersistPerNode() {
+        TokenPersistenceService persistence = mock(TokenPersistenceService.class);
+        TokenStore sharedStore = mock(TokenStore.class);
+        when(sharedStore.isShared()).thenReturn(true);
+        TokenService shared = new TokenService(Duration.ofMinutes(30), Duration.ofHours(2),
+                null, sharedStore, persistence, clock);
+
+        shared.restorePersistedTokens();
+        String token = shared.generateToken("john");
+        String key = TokenService.key(token);
+        when(sharedStore.access(eq(key), anyLong(), anyLong()))
+                .thenReturn(new StoredToken("john", clock.millis(), clock.millis() - 1, clock.millis()));
+        when(sharedStore.remove(key)).thenReturn(new StoredToken("john", 0, 0, 0));
+
+        assertNull(shared.getUsername(token));
+        verify(sharedStore).save(eq(key), any());
+        verify(sharedStore).remove(key);
+        verifyNoInteractions(persistence);
+    }
+
+    @Test
+    void signedToken_revokeAll_shouldRejectTokensIssuedBefore() {
+        TokenService signed = signedTokenService();
+        String old = signed.generateToken("john");
+        String other = signed.generateToken("jane");
+        clock.advance(Duration.ofSeconds(1));
+
+        signed.revokeAllTokens("john");
+        clock.advance(Duration.ofSeconds(1));
+        String fresh = signed.generateToken("john");
+
+        assertFalse(signed.isValidToken(old));
+        assertTrue(signed.isValidToken(other));
+        assertTrue(signed.isValidToken(fresh));
+    }
+
+    @Test
+    void signedToken_issuedInSameMillisecondAsRevokeAll_shouldStayValid() {
+        TokenService signed = signedTokenService();
+
+        signed.revokeAllTokens("john");
+        String fresh = signed.generateToken("john");
+
+        assertTrue(signed.isValidToken(fresh));
+    }
+
+    @Test
+    void signedToken_revokeAll_shouldHoldAfterAbsoluteTtlChanges() {
+        TokenStore sharedStore = new InMemoryTokenStore();
+        String old = signedTokenService(sharedStore).generateToken("john");
+        clock.advance(Duration.ofSeconds(1));
+        signedTokenService(sharedStore).revokeAllTokens("john");
+
+        byte[] secret = "0123456789abcdef0123456789abcdef".getBytes();
+        TokenService shorterTtl = new TokenService(Duration.ofMinutes(30), Duration.ofHours(1),
+                new SignedTokenCodec(secret), sharedStore, null, clock);
+
+        assertFalse(shorterTtl.isValidToken(old));
+    }
+
+    @Test
+    void signedToken_revocations_shouldApplyOnEveryNodeSharingTheStore() {
+        TokenStore sharedStore = new InMemoryTokenStore();
+        TokenService nodeA = signedTokenService(sharedStore);
+        TokenService nodeB = signedTokenService(sharedStore);
+        String loggedOut = nodeA.generateToken("john");
+        String revoked = nodeA.generateToken("jane");
+        clock.advance(Duration.ofSeconds(1));
+
+        nodeA.invalidateToken(loggedOut);
+        nodeA.revokeAllTokens("jane");
+
+        assertNull(nodeB.getUsername(loggedOut));
+        assertNull(nodeB.getUsername(revoked));
+        assertEquals(2, nodeB.revokedCount());
+    }
+
+    @Test
+    void introspect_shouldResolveBatchInOrderAndSlideDeadlines() {
+        String john = tokenService.generateToken("john");
+        String stale = tokenService.generateToken("jane");
+        clock.advance(Duration.ofMinutes(20));
+        String fresh = tokenService.generateToken("bob");
+        clock.advance(Duration.ofMinutes(15));
+
+        List<TokenService.Introspection> results =
+                tokenService.introspect(Arrays.asList(john, "missing", null, fresh, john));
+
+        assertEquals(5, results.size());
+        assertNull(results.get(0));
+        assertNull(results.get(1));
+        assertNull(results.get(2));
+        assertEquals(new TokenService.Introspection("bob", Duration.ofMinutes(30).toMillis()), results.get(3));
+        assertNull(results.get(4));
+        assertEquals(1, tokenService.getEvictionCount());
+        assertEquals(0, tokenService.sessionCount("john"));
+        assertNull(tokenService.getUsername(stale));
+        assertEquals(1, tokenService.size());
+    }
+
+    @Test
+    void introspect_signedTokens_shouldVerifyEachToken() {
+        TokenService signed = signedTokenService();
+        String token = signed.generateToken("john");
+        String revoked = signed.generateToken("jane");
+        signed.invalidateToken(revoked);
+        clock.advance(Duration.ofMinutes(30));
+
+        List<TokenService.Introspection> results = signed.introspect(Arrays.asList(token, revoked, "garbage"));
+
+        assertEquals(new TokenService.Introspection("john", Duration.ofMinutes(90).toMillis()), results.get(0));
+        assertNull(results.get(1));
+        assertNull(results.get(2));
+    }
+
+    private TokenService signedTokenService() {
+        return signedTokenService(new InMemoryTokenStore());
+    }
+
+    private TokenService signedTokenService(TokenStore store) {
+        byte[] secret = "0123456789abcdef0123456789abcdef".getBytes();
+        return new TokenService(Duration.ofMinutes(30), Duration.ofHours(2),
+                new SignedTokenCodec(secret), store, null, clock);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
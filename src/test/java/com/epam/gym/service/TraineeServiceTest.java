@@ -5,6 +5,7 @@ import com.epam.gym.entity.Trainer;
 import com.epam.gym.entity.User;
 import com.epam.gym.exception.TraineeCreationException;
 import com.epam.gym.repository.TraineeRepository;
+import com.epam.gym.util.UsernameFilter;
 import com.epam.gym.util.UsernamePasswordUtil;
 import jakarta.persistence.NoResultException;
 import org.junit.jupiter.api.AfterEach;
@@ -17,6 +18,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +31,9 @@ class TraineeServiceTest {
     @Mock
     private UsernamePasswordUtil usernamePasswordUtil;
 
+    @Mock
+    private UsernameFilter usernameFilter;
+
     @Spy
     @InjectMocks
     private TraineeService traineeService;
@@ -38,6 +43,8 @@ class TraineeServiceTest {
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
+        when(usernameFilter.lookupConfirmed(any(), any())).thenAnswer(i ->
+                i.<Function<String, Optional<?>>>getArgument(1).apply(i.getArgument(0)));
     }
 
 //    @Test
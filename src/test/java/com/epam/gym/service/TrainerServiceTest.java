@@ -1,11 +1,13 @@
 package com.epam.gym.service;
 
+import com.epam.gym.dto.TrainerRegistrationResponse;
 import com.epam.gym.entity.Trainer;
 import com.epam.gym.entity.TrainingType;
 import com.epam.gym.entity.TrainingTypeEnum;
 import com.epam.gym.entity.User;
 import com.epam.gym.exception.TraineeCreationException;
 import com.epam.gym.repository.TrainerRepository;
+import com.epam.gym.util.UsernameFilter;
 import com.epam.gym.util.UsernamePasswordUtil;
 import jakarta.persistence.NoResultException;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +19,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,12 +33,17 @@ class TrainerServiceTest {
     @Mock
     private UsernamePasswordUtil usernamePasswordUtil;
 
+    @Mock
+    private UsernameFilter usernameFilter;
+
     @InjectMocks
     private TrainerService trainerService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(usernameFilter.lookupConfirmed(any(), any())).thenAnswer(i ->
+                i.<Function<String, Optional<?>>>getArgument(1).apply(i.getArgument(0)));
     }
 
     @Test
@@ -46,28 +54,32 @@ class TrainerServiceTest {
 
         when(usernamePasswordUtil.generateUsername(firstName, lastName)).thenReturn("john.doe");
         when(usernamePasswordUtil.generatePassword()).thenReturn("password123");
+        when(usernamePasswordUtil.hashPassword("password123")).thenReturn("hashed");
 
         ArgumentCaptor<Trainer> captor = ArgumentCaptor.forClass(Trainer.class);
-        when(trainerRepository.save(any(Trainer.class))).thenAnswer(i -> i.getArgument(0));
+        when(trainerRepository.saveAndFlush(any(Trainer.class))).thenAnswer(i -> i.getArgument(0));
 
-        Trainer result = trainerService.createTrainer(firstName, lastName, trainingType);
+        TrainerRegistrationResponse result = trainerService.createTrainer(firstName, lastName, trainingType);
 
-        verify(trainerRepository).save(captor.capture());
+        verify(trainerRepository).saveAndFlush(captor.capture());
         assertEquals("john.doe", captor.getValue().getUser().getUsername());
+        assertEquals("hashed", captor.getValue().getUser().getPassword());
         assertEquals(trainingType, captor.getValue().getTrainingType());
-        assertEquals(result, captor.getValue());
+        assertEquals("john.doe", result.username());
+        assertEquals("password123", result.password());
     }
 
     @Test
     void testCreateTrainer_shouldThrowExceptionWhenFails() {
         when(usernamePasswordUtil.generateUsername(any(), any())).thenReturn("error.user");
         when(usernamePasswordUtil.generatePassword()).thenReturn("pass");
-        when(trainerRepository.save(any(Trainer.class))).thenThrow(new RuntimeException("DB Error"));
+        when(trainerRepository.saveAndFlush(any(Trainer.class))).thenThrow(new RuntimeException("DB Error"));
 
         assertThrows(TraineeCreationException.class, () ->
                 trainerService.createTrainer("err",
                         "user",
                         new TrainingType(TrainingTypeEnum.STRENGTH)));
+        verify(usernamePasswordUtil).forgetUsernames("err", "user");
     }
 
     @Test
@@ -115,6 +127,22 @@ class TrainerServiceTest {
         verify(trainerRepository, never()).save(any());
     }
 
+    @Test
+    void testUpdateTrainer_shouldSkipWhenSpecializationIsSameRowFromRegistry() {
+        String username = "same.type";
+        User user = User.builder().firstName("A").lastName("B").isActive(true).username(username).build();
+        TrainingType loaded = mock(TrainingType.class);
+        when(loaded.getId()).thenReturn(1L);
+        TrainingType fromRegistry = mock(TrainingType.class);
+        when(fromRegistry.getId()).thenReturn(1L);
+        Trainer existing = Trainer.builder().user(user).trainingType(loaded).build();
+
+        when(trainerRepository.findByUserUsername(username)).thenReturn(Optional.of(existing));
+
+        trainerService.updateTrainer(username, "A", "B", fromRegistry, true);
+        verify(trainerRepository, never()).save(any());
+    }
+
     @Test
     void testGetAvailableTrainersForTrainee_shouldReturnList() {
         String username = "trainer1";
@@ -0,0 +1,310 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TrainingImportRejection;
+import com.epam.gym.dto.TrainingImportReport;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.Training;
+import com.epam.gym.entity.TrainingImportCheckpoint;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.User;
+import com.epam.gym.exception.ImportFileMismatchException;
+import com.epam.gym.exception.ImportInProgressException;
+import com.epam.gym.exception.InvalidImportFileException;
+import com.epam.gym.repository.TraineeRepository;
+import com.epam.gym.repository.TrainerRepository;
+import com.epam.gym.repository.TrainingImportCheckpointRepository;
+import com.epam.gym.repository.TrainingUpsertRepository;
+import com.epam.gym.repository.TrainingTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TrainingImportServiceTest {
+
+    private static final String HEADER = "traineeUsername,trainerUsername,name,date,duration\n";
+    private static final String PRINCIPAL = "trainer.a";
+
+    @Mock
+    private TraineeRepository traineeRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private TrainingUpsertRepository trainingUpsertRepository;
+
+    @Mock
+    private TrainingTypeRepository trainingTypeRepository;
+
+    @Mock
+    private TrainingImportCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrainingImportService service;
+    private final List<List<Training>> saved = new ArrayList<>();
+    private final List<TrainingImportCheckpoint> checkpoints = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(checkpointRepository.findById(any())).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any())).thenAnswer(i -> {
+            checkpoints.add(i.getArgument(0));
+            return i.getArgument(0);
+        });
+        when(checkpointRepository.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+        when(trainingUpsertRepository.insertAllIfAbsent(any())).thenAnswer(i -> {
+            saved.add(i.getArgument(0));
+            return allInserted(i.getArgument(0));
+        });
+        when(traineeRepository.findAllWithUserByUsernameIn(any())).thenAnswer(i ->
+                i.<Collection<String>>getArgument(0).stream()
+                        .filter(username -> username.startsWith("trainee"))
+                        .map(username -> Trainee.builder().id(1L).user(user(username)).build())
+                        .toList());
+        TrainingType cardio = mock(TrainingType.class);
+        when(cardio.getId()).thenReturn(7L);
+        when(trainerRepository.findAllWithUserByUsernameIn(any())).thenAnswer(i ->
+                i.<Collection<String>>getArgument(0).stream()
+                        .filter(username -> username.startsWith("trainer"))
+                        .map(username -> new Trainer.Builder().id(2L).trainingType(cardio).user(user(username)).build())
+                        .toList());
+        service = new TrainingImportService(traineeRepository, trainerRepository, trainingUpsertRepository,
+                trainingTypeRepository, checkpointRepository, transactionManager, 2, 100, 10);
+    }
+
+    @Test
+    void importTrainings_shouldCommitEachChunkWithCheckpoint() throws IOException {
+        TrainingImportReport report = service.importTrainings(PRINCIPAL, "gym-1", -1, csv(
+                "trainee.a,trainer.a,\"Run, then swim\",2024-01-01,60",
+                "trainee.a,trainer.a,Yoga,2024-01-02,45",
+                "trainee.b,trainer.a,Spin,2024-01-03,30",
+                "trainee.b,trainer.a,Row,2024-01-04,20",
+                "trainee.a,trainer.a,Lift,2024-01-05,50"));
+
+        assertEquals(new TrainingImportReport("gym-1", 2, 5, 5, 0, 0, report.rowsPerSecond(), List.of()), report);
+        assertEquals(List.of(2, 2, 1), saved.stream().map(List::size).toList());
+        assertEquals("Run, then swim", saved.get(0).get(0).getName());
+        assertEquals(List.of(2L, 4L, 5L), checkpoints.stream().map(TrainingImportCheckpoint::getRowsCommitted).toList());
+        assertEquals(5, checkpoints.get(2).getInserted());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void lookups_shouldOnlyQueryUncachedUsernames() throws IOException {
+        service.importTrainings(PRINCIPAL, "gym-1", -1, csv(
+                "trainee.a,trainer.a,Yoga,2024-01-01,60",
+                "trainee.a,trainer.a,Yoga,2024-01-02,60",
+                "trainee.a,trainer.a,Yoga,2024-01-03,60",
+                "trainee.b,trainer.a,Yoga,2024-01-04,60"));
+
+        verify(traineeRepository).findAllWithUserByUsernameIn(List.of("trainee.a"));
+        verify(traineeRepository).findAllWithUserByUsernameIn(List.of("trainee.b"));
+        verify(trainerRepository, times(1)).findAllWithUserByUsernameIn(any());
+    }
+
+    @Test
+    void invalidRows_shouldBeRejectedWithLineNumbers() throws IOException {
+        TrainingImportReport report = service.importTrainings(PRINCIPAL, "gym-1", -1, csv(
+                "trainee.a,trainer.a,Yoga,yesterday,60",
+                "ghost,trainer.a,Yoga,2024-01-01,60",
+                "",
+                "trainee.a,trainer.a,Yoga,2024-01-01,-5",
+                "trainee.a,trainer.a,Yoga",
+                "trainee.a,trainer.a,Yoga,2024-01-01,60"));
+
+        assertEquals(6, report.processed());
+        assertEquals(1, report.inserted());
+        assertEquals(4, report.rejected());
+        assertEquals(List.of(2L, 3L, 5L, 6L), report.rejections().stream().map(TrainingImportRejection::line).toList());
+        assertEquals(new TrainingImportRejection(3, "Trainee not found: ghost"), report.rejections().get(1));
+        assertEquals(new TrainingImportRejection(5, "duration must be positive"), report.rejections().get(2));
+        assertEquals(4, checkpoints.get(checkpoints.size() - 1).getRejected());
+    }
+
+    @Test
+    void rerun_shouldResumeAfterLastCommittedRow() throws IOException {
+        String[] rows = {
+                "trainee.a,trainer.a,First,2024-01-01,60",
+                "trainee.a,trainer.a,Second,2024-01-02,60",
+                "trainee.a,trainer.a,Third,2024-01-03,60"};
+        TrainingImportCheckpoint stopped = stoppedAfterFirstChunk(rows);
+
+        TrainingImportReport report = service.importTrainings(PRINCIPAL, "gym-1", -1, csv(rows));
+
+        assertEquals(4, report.resumedFromLine());
+        assertEquals(1, report.processed());
+        assertEquals(List.of("Third"), saved.stream().flatMap(List::stream).map(Training::getName).toList());
+        assertEquals(3, checkpoints.get(0).getInserted());
+        assertEquals(2, stopped.getRowsCommitted());
+    }
+
+    @Test
+    void rerun_withDifferentFile_shouldBeRefused() throws IOException {
+        stoppedAfterFirstChunk(
+                "trainee.a,trainer.a,First,2024-01-01,60",
+                "trainee.a,trainer.a,Second,2024-01-02,60",
+                "trainee.a,trainer.a,Third,2024-01-03,60");
+
+        assertThrows(ImportFileMismatchException.class, () -> service.importTrainings(PRINCIPAL, "gym-1", -1, csv(
+                "trainee.a,trainer.a,Other,2024-01-01,60",
+                "trainee.a,trainer.a,Second,2024-01-02,60",
+                "trainee.a,trainer.a,Third,2024-01-03,60")));
+        assertThrows(ImportFileMismatchException.class, () -> service.importTrainings(PRINCIPAL, "gym-1", 1024, csv(
+                "trainee.a,trainer.a,First,2024-01-01,60",
+                "trainee.a,trainer.a,Second,2024-01-02,60",
+                "trainee.a,trainer.a,Third,2024-01-03,60")));
+        assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    void checkpoint_shouldBeLookedUpForTheCaller() throws IOException {
+        service.importTrainings(PRINCIPAL, "gym-1", -1, csv("trainee.a,trainer.a,Yoga,2024-01-01,60"));
+
+        verify(checkpointRepository).findById(new TrainingImportCheckpoint.Key(PRINCIPAL, "gym-1"));
+        assertEquals(PRINCIPAL, checkpoints.get(0).getOwner());
+    }
+
+    @Test
+    void importStartedOnAnotherNode_shouldNotBeClaimedTwice() {
+        when(checkpointRepository.saveAndFlush(any())).thenThrow(new DuplicateKeyException("checkpoint exists"));
+
+        assertThrows(ImportInProgressException.class, () ->
+                service.importTrainings(PRINCIPAL, "gym-1", -1, csv("trainee.a,trainer.a,Yoga,2024-01-01,60")));
+        assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    void checkpointAdvancedByAnotherRun_shouldStopImport() {
+        when(checkpointRepository.save(any())).thenThrow(
+                new ObjectOptimisticLockingFailureException(TrainingImportCheckpoint.class, "gym-1"));
+
+        assertThrows(ImportInProgressException.class, () ->
+                service.importTrainings(PRINCIPAL, "gym-1", -1, csv(
+                        "trainee.a,trainer.a,First,2024-01-01,60",
+                        "trainee.a,trainer.a,Second,2024-01-02,60",
+                        "trainee.a,trainer.a,Third,2024-01-03,60")));
+        // Stopped at the first chunk, without retrying it row by row
+        assertEquals(1, saved.size());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void rowsOfOtherUsers_shouldBeRejected() throws IOException {
+        TrainingImportReport report = service.importTrainings("trainee.a", "gym-1", -1, csv(
+                "trainee.a,trainer.a,Yoga,2024-01-01,60",
+                "trainee.b,trainer.a,Yoga,2024-01-01,60"));
+
+        assertEquals(1, report.inserted());
+        assertEquals(List.of(new TrainingImportRejection(3, "Neither the trainee nor the trainer is trainee.a")),
+                report.rejections());
+        verify(traineeRepository).findAllWithUserByUsernameIn(List.of("trainee.a"));
+    }
+
+    @Test
+    void failingChunk_shouldBeRetriedRowByRow() throws IOException {
+        doAnswer(i -> {
+            List<Training> trainings = i.getArgument(0);
+            if (trainings.stream().anyMatch(training -> training.getName().equals("Broken"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            saved.add(trainings);
+            return allInserted(trainings);
+        }).when(trainingUpsertRepository).insertAllIfAbsent(any());
+
+        TrainingImportReport report = service.importTrainings(PRINCIPAL, "gym-1", -1, csv(
+                "trainee.a,trainer.a,Broken,2024-01-01,60",
+                "trainee.a,trainer.a,Fine,2024-01-02,60"));
+
+        assertEquals(1, report.inserted());
+        assertEquals(List.of(new TrainingImportRejection(2, "Violates a database constraint")), report.rejections());
+        TrainingImportCheckpoint last = checkpoints.get(checkpoints.size() - 1);
+        assertEquals(2, last.getRowsCommitted());
+        assertEquals(1, last.getInserted());
+        assertEquals(1, last.getRejected());
+    }
+
+    @Test
+    void existingTrainings_shouldBeSkippedNotRejected() throws IOException {
+        when(trainingUpsertRepository.insertAllIfAbsent(any())).thenReturn(new boolean[]{true, false});
+
+        TrainingImportReport report = service.importTrainings(PRINCIPAL, "gym-1", -1, csv(
+                "trainee.a,trainer.a,Yoga,2024-01-01,60",
+                "trainee.a,trainer.a,Yoga,2024-01-01,60"));
+
+        assertEquals(1, report.inserted());
+        assertEquals(1, report.existing());
+        assertEquals(0, report.rejected());
+        assertEquals(1, checkpoints.get(checkpoints.size() - 1).getInserted());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void missingColumn_shouldRejectFile() {
+        assertThrows(InvalidImportFileException.class, () ->
+                service.importTrainings(PRINCIPAL, "gym-1", -1, new StringReader("traineeUsername,trainerUsername,name,date\n")));
+        assertThrows(InvalidImportFileException.class, () -> service.importTrainings(PRINCIPAL, "gym-1", -1, new StringReader("")));
+    }
+
+    /**
+     * Runs an import of {@code rows} that fails on its second chunk, and serves the checkpoint it
+     * left from then on.
+     */
+    private TrainingImportCheckpoint stoppedAfterFirstChunk(String... rows) throws IOException {
+        doAnswer(i -> {
+            List<Training> trainings = i.getArgument(0);
+            if (saved.size() == 1) {
+                throw new IllegalStateException("connection lost");
+            }
+            saved.add(trainings);
+            return allInserted(trainings);
+        }).when(trainingUpsertRepository).insertAllIfAbsent(any());
+        assertThrows(IllegalStateException.class, () -> service.importTrainings(PRINCIPAL, "gym-1", -1, csv(rows)));
+
+        TrainingImportCheckpoint stopped = checkpoints.get(checkpoints.size() - 1);
+        when(checkpointRepository.findById(new TrainingImportCheckpoint.Key(PRINCIPAL, "gym-1")))
+                .thenReturn(Optional.of(stopped));
+        doAnswer(i -> {
+            saved.add(i.getArgument(0));
+            return allInserted(i.getArgument(0));
+        }).when(trainingUpsertRepository).insertAllIfAbsent(any());
+        saved.clear();
+        checkpoints.clear();
+        return stopped;
+    }
+
+    private static boolean[] allInserted(List<Training> trainings) {
+        boolean[] inserted = new boolean[trainings.size()];
+        Arrays.fill(inserted, true);
+        return inserted;
+    }
+
+    private static StringReader csv(String... rows) {
+        return new StringReader(HEADER + String.join("\n", rows) + "\n");
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TrainingRegistrationRequest;
+import com.epam.gym.dto.TrainingRegistrationStatus;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.Training;
+import com.epam.gym.entity.User;
+import com.epam.gym.exception.ServiceOverloadedException;
+import com.epam.gym.repository.TraineeRepository;
+import com.epam.gym.repository.TrainerRepository;
+import com.epam.gym.repository.TrainingUpsertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TrainingRegistrationQueueTest {
+
+    @Mock
+    private TraineeRepository traineeRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private TrainingUpsertRepository trainingUpsertRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TrainingRegistrationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(traineeRepository.findAllWithUserByUsernameIn(any())).thenAnswer(i ->
+                i.<Collection<String>>getArgument(0).stream()
+                        .filter(username -> username.startsWith("trainee"))
+                        .map(username -> Trainee.builder().user(user(username)).build())
+                        .toList());
+        when(trainerRepository.findAllWithUserByUsernameIn(any())).thenAnswer(i ->
+                i.<Collection<String>>getArgument(0).stream()
+                        .filter(username -> username.startsWith("trainer"))
+                        .map(username -> new Trainer.Builder().user(user(username)).build())
+                        .toList());
+        when(trainingUpsertRepository.insertAllIfAbsent(any())).thenAnswer(i -> allInserted(i.getArgument(0)));
+        meterRegistry = new SimpleMeterRegistry();
+        queue = new TrainingRegistrationQueue(traineeRepository, trainerRepository, trainingUpsertRepository,
+                transactionManager, 2, 3, Duration.ofMinutes(1), 100, meterRegistry);
+    }
+
+    @Test
+    void flush_shouldWriteQueuedTrainingsInBatches() {
+        String first = queue.submit(request("trainee.a", "trainer.a")).trackingId();
+        queue.submit(request("trainee.b", "trainer.a"));
+        String third = queue.submit(request("trainee.a", "trainer.b")).trackingId();
+
+        assertEquals(TrainingRegistrationStatus.State.QUEUED, queue.status(first, "trainee.a").orElseThrow().state());
+
+        queue.flush();
+
+        ArgumentCaptor<List<Training>> saved = ArgumentCaptor.forClass(List.class);
+        verify(trainingUpsertRepository, times(2)).insertAllIfAbsent(saved.capture());
+        assertEquals(List.of(2, 1), saved.getAllValues().stream().map(List::size).toList());
+        verify(traineeRepository, times(2)).findAllWithUserByUsernameIn(any());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(TrainingRegistrationStatus.created(first), queue.status(first, "trainee.a").orElseThrow());
+        assertEquals(TrainingRegistrationStatus.created(third), queue.status(third, "trainer.b").orElseThrow());
+        assertEquals(0, queue.pendingCount());
+    }
+
+    @Test
+    void unknownParticipant_shouldFailOnlyItsRow() {
+        String unknown = queue.submit(request("ghost", "trainer.a")).trackingId();
+        String valid = queue.submit(request("trainee.a", "trainer.a")).trackingId();
+
+        queue.flush();
+
+        assertEquals(TrainingRegistrationStatus.failed(unknown, "Trainee not found"),
+                queue.status(unknown, "trainer.a").orElseThrow());
+        assertEquals(TrainingRegistrationStatus.State.CREATED, queue.status(valid, "trainer.a").orElseThrow().state());
+    }
+
+    @Test
+    void existingTraining_shouldBeReportedAsAlreadyExisting() {
+        when(trainingUpsertRepository.insertAllIfAbsent(any())).thenReturn(new boolean[]{true, false});
+        String created = queue.submit(request("trainee.a", "trainer.a")).trackingId();
+        String duplicate = queue.submit(request("trainee.a", "trainer.a")).trackingId();
+
+        queue.flush();
+
+        assertEquals(TrainingRegistrationStatus.created(created), queue.status(created, "trainee.a").orElseThrow());
+        assertEquals(TrainingRegistrationStatus.alreadyExists(duplicate), queue.status(duplicate, "trainee.a").orElseThrow());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void failingBatch_shouldBeRetriedRowByRow() {
+        when(trainingUpsertRepository.insertAllIfAbsent(any())).thenAnswer(i -> {
+            List<Training> trainings = i.getArgument(0);
+            if (trainings.stream().anyMatch(training -> training.getName().equals("broken"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return allInserted(trainings);
+        });
+        String broken = queue.submit(new TrainingRegistrationRequest("trainee.a", "trainer.a", "broken",
+                LocalDate.of(2024, 1, 1), 60)).trackingId();
+        String valid = queue.submit(request("trainee.b", "trainer.a")).trackingId();
+
+        queue.flush();
+
+        assertEquals(TrainingRegistrationStatus.failed(broken, "Failed to register"),
+                queue.status(broken, "trainee.a").orElseThrow());
+        assertEquals(TrainingRegistrationStatus.created(valid), queue.status(valid, "trainee.b").orElseThrow());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void fullQueue_shouldRejectNewRegistrations() {
+        for (int i = 0; i < 3; i++) {
+            queue.submit(request("trainee.a", "trainer.a"));
+        }
+
+        assertThrows(ServiceOverloadedException.class, () -> queue.submit(request("trainee.a", "trainer.a")));
+        assertEquals(1, meterRegistry.get("gym.training.async.rejected").counter().count());
+
+        queue.flush();
+        queue.submit(request("trainee.a", "trainer.a"));
+    }
+
+    @Test
+    void status_shouldOnlyBeVisibleToParticipants() {
+        String id = queue.submit(request("trainee.a", "trainer.a")).trackingId();
+
+        assertEquals(Optional.empty(), queue.status(id, "someone.else"));
+        assertEquals(Optional.empty(), queue.status("unknown", "trainee.a"));
+    }
+
+    @Test
+    void shutdown_shouldDrainQueueAndStopIntake() {
+        String id = queue.submit(request("trainee.a", "trainer.a")).trackingId();
+
+        queue.drainOnShutdown();
+
+        assertEquals(TrainingRegistrationStatus.State.CREATED, queue.status(id, "trainee.a").orElseThrow().state());
+        assertThrows(ServiceOverloadedException.class, () -> queue.submit(request("trainee.a", "trainer.a")));
+    }
+
+    private static boolean[] allInserted(List<Training> trainings) {
+        boolean[] inserted = new boolean[trainings.size()];
+        Arrays.fill(inserted, true);
+        return inserted;
+    }
+
+    private static TrainingRegistrationRequest request(String trainee, String trainer) {
+        return new TrainingRegistrationRequest(trainee, trainer, "Morning run", LocalDate.of(2024, 1, 1), 60);
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).build();
+    }
+}
@@ -1,7 +1,10 @@
 package com.epam.gym.service;
 
+import com.epam.gym.dto.TraineeTrainingResponse;
+import com.epam.gym.dto.TrainerTrainingResponse;
 import com.epam.gym.entity.*;
 import com.epam.gym.repository.TrainingRepository;
+import com.epam.gym.repository.TrainingUpsertRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -10,7 +13,7 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class TrainingServiceTest {
@@ -18,6 +21,9 @@ class TrainingServiceTest {
     @Mock
     private TrainingRepository trainingRepository;
 
+    @Mock
+    private TrainingUpsertRepository trainingUpsertRepository;
+
     @InjectMocks
     private TrainingService trainingService;
 
@@ -74,19 +80,40 @@ class TrainingServiceTest {
 //    }
 
     @Test
-    void testCreateTraining_repositoryThrowsException() {
-        doThrow(new RuntimeException("DB error")).when(trainingRepository).save(any());
+    void testCreateTraining_insertsThroughUpsert() {
+        when(trainingUpsertRepository.insertIfAbsent(any())).thenReturn(true);
+
+        assertTrue(trainingService.createTraining(trainee, trainer, "Session A", trainingType,
+                LocalDate.of(2024, 1, 1), 60));
+
+        ArgumentCaptor<Training> captor = ArgumentCaptor.forClass(Training.class);
+        verify(trainingUpsertRepository).insertIfAbsent(captor.capture());
+        assertEquals("Session A", captor.getValue().getName());
+        assertEquals(LocalDate.of(2024, 1, 1), captor.getValue().getDate());
+        assertEquals(60, captor.getValue().getDuration());
+        verify(trainingRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateTraining_duplicateReportsAlreadyExists() {
+        when(trainingUpsertRepository.insertIfAbsent(any())).thenReturn(false);
+
+        assertFalse(trainingService.createTraining(trainee, trainer, "Session A", trainingType,
+                LocalDate.of(2024, 1, 1), 60));
+    }
 
-        trainingService.createTraining(trainee, trainer, "Session A", trainingType,
-                LocalDate.now(), 60);
+    @Test
+    void testCreateTraining_repositoryExceptionPropagates() {
+        when(trainingUpsertRepository.insertIfAbsent(any())).thenThrow(new RuntimeException("DB error"));
 
-        verify(trainingRepository, times(1)).save(any(Training.class));
-        // exception is caught, so no need for assertion
+        assertThrows(RuntimeException.class, () -> trainingService.createTraining(trainee, trainer,
+                "Session A", trainingType, LocalDate.of(2024, 1, 1), 60));
     }
 
     @Test
     void testGetTraineeTrainings() {
-        List<Training> expectedTrainings = Collections.singletonList(mock(Training.class));
+        List<TraineeTrainingResponse> expectedTrainings = Collections.singletonList(
+                new TraineeTrainingResponse("Session A", LocalDate.of(2024, 2, 1), TrainingTypeEnum.CARDIO, 60, "trainerUser"));
 
         when(trainingRepository.findTraineeTrainingsByCriteria("traineeUser",
                 LocalDate.of(2024, 1, 1),
@@ -94,7 +121,7 @@ class TrainingServiceTest {
                 "trainerName",
                 trainingType)).thenReturn(expectedTrainings);
 
-        List<Training> result = trainingService.getTraineeTrainings("traineeUser",
+        List<TraineeTrainingResponse> result = trainingService.getTraineeTrainings("traineeUser",
                 LocalDate.of(2024, 1, 1),
                 LocalDate.of(2025, 1, 1),
                 "trainerName",
@@ -111,14 +138,15 @@ class TrainingServiceTest {
 
     @Test
     void testGetTrainerTrainings() {
-        List<Training> expectedTrainings = Collections.singletonList(mock(Training.class));
+        List<TrainerTrainingResponse> expectedTrainings = Collections.singletonList(
+                new TrainerTrainingResponse("Session A", LocalDate.of(2024, 2, 1), TrainingTypeEnum.CARDIO, 60, "traineeUser"));
 
         when(trainingRepository.findTrainerTrainingsByCriteria("trainerUser",
                 LocalDate.of(2024, 1, 1),
                 LocalDate.of(2025, 1, 1),
                 "traineeName")).thenReturn(expectedTrainings);
 
-        List<Training> result = trainingService.getTrainerTrainings("trainerUser",
+        List<TrainerTrainingResponse> result = trainingService.getTrainerTrainings("trainerUser",
                 LocalDate.of(2024, 1, 1),
                 LocalDate.of(2025, 1, 1),
                 "traineeName");
@@ -0,0 +1,130 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TrainingTypesPayload;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.TrainingTypeEnum;
+import com.epam.gym.repository.TrainingTypeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.NoResultException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingTypeServiceTest {
+
+    @Mock
+    private TrainingTypeRepository trainingTypeRepository;
+
+    private TrainingTypeService trainingTypeService;
+
+    private final TrainingType cardio = new TrainingType(TrainingTypeEnum.CARDIO);
+    private final TrainingType strength = new TrainingType(TrainingTypeEnum.STRENGTH);
+    private final MutableClock clock = new MutableClock();
+
+    @BeforeEach
+    void setUp() {
+        trainingTypeService = new TrainingTypeService(trainingTypeRepository, new ObjectMapper(),
+                Duration.ofSeconds(10), clock);
+    }
+
+    @Test
+    void findByType_ShouldQueryOnlyOnce() {
+        when(trainingTypeRepository.findAllByOrderByIdAsc()).thenReturn(List.of(cardio, strength));
+
+        assertSame(cardio, trainingTypeService.findByType("CARDIO"));
+        assertSame(strength, trainingTypeService.findByType("STRENGTH"));
+        assertSame(cardio, trainingTypeService.findByType("CARDIO"));
+
+        verify(trainingTypeRepository, times(1)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void findByType_MissingType_ShouldReloadBeforeFailing() {
+        when(trainingTypeRepository.findAllByOrderByIdAsc()).thenReturn(List.of(cardio));
+        trainingTypeService.load();
+
+        assertThrows(NoResultException.class, () -> trainingTypeService.findByType("HIIT"));
+
+        verify(trainingTypeRepository, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void findByType_RepeatedMiss_ShouldReloadOncePerInterval() {
+        when(trainingTypeRepository.findAllByOrderByIdAsc()).thenReturn(List.of(cardio));
+        trainingTypeService.load();
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(NoResultException.class, () -> trainingTypeService.findByType("BALANCE"));
+        }
+        verify(trainingTypeRepository, times(2)).findAllByOrderByIdAsc();
+
+        clock.advance(Duration.ofSeconds(10));
+        assertThrows(NoResultException.class, () -> trainingTypeService.findByType("BALANCE"));
+        verify(trainingTypeRepository, times(3)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    void findByType_TypeAddedElsewhere_ShouldBeFoundAfterReload() {
+        when(trainingTypeRepository.findAllByOrderByIdAsc())
+                .thenReturn(List.of(cardio))
+                .thenReturn(List.of(cardio, strength));
+        trainingTypeService.load();
+
+        assertSame(strength, trainingTypeService.findByType("STRENGTH"));
+    }
+
+    @Test
+    void payload_ShouldBeSerializedOncePerRefresh() {
+        when(trainingTypeRepository.findAllByOrderByIdAsc())
+                .thenReturn(List.of(cardio))
+                .thenReturn(List.of(cardio, strength));
+
+        TrainingTypesPayload first = trainingTypeService.findAllTrainingTypesPayload();
+        assertSame(first, trainingTypeService.findAllTrainingTypesPayload());
+        trainingTypeService.refresh();
+        TrainingTypesPayload second = trainingTypeService.findAllTrainingTypesPayload();
+
+        assertEquals("[{\"trainingTypeId\":null,\"trainingType\":\"CARDIO\"}]",
+                new String(first.json(), StandardCharsets.UTF_8));
+        assertTrue(first.eTag().startsWith("\"") && first.eTag().endsWith("\""));
+        assertNotEquals(first.eTag(), second.eTag());
+        assertEquals(List.of(cardio, strength), trainingTypeService.findAllTrainingTypes());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
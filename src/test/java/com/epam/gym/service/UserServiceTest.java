@@ -1,7 +1,9 @@
 package com.epam.gym.service;
 
+import com.epam.gym.dto.UserCredentials;
 import com.epam.gym.entity.User;
 import com.epam.gym.repository.UserRepository;
+import com.epam.gym.util.UsernameFilter;
 import com.epam.gym.util.UsernamePasswordUtil;
 import jakarta.persistence.NoResultException;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,85 +26,75 @@ class UserServiceTest {
     @Mock
     private UsernamePasswordUtil usernamePasswordUtil;
 
+    @Mock
+    private UsernameFilter usernameFilter;
+
     @InjectMocks
     private UserService userService;
 
-    private User user;
+    private UserCredentials credentials;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        user = User.builder()
-                .username("john.doe")
-                .password("hashedPass")
-                .isActive(true)
-                .build();
+        when(usernameFilter.lookupConfirmed(any(), any())).thenAnswer(i ->
+                i.<Function<String, Optional<?>>>getArgument(1).apply(i.getArgument(0)));
+        credentials = new UserCredentials(1L, "hashedPass", true);
     }
 
     @Test
-    void testFindByUsername_userExists() {
-        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user));
+    void testCheckCredentials_currentHash_shouldNotRehash() {
+        when(usernamePasswordUtil.checkPassword("plainPass", "hashedPass")).thenReturn(true);
 
-        Optional<User> result = userService.findByUsername("john.doe");
+        assertTrue(userService.checkCredentials(credentials, "plainPass"));
 
-        assertTrue(result.isPresent());
-        assertEquals("john.doe", result.get().getUsername());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
-    void testAuthenticate_successful() {
-        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user));
+    void testCheckCredentials_legacyHash_shouldRehash() {
         when(usernamePasswordUtil.checkPassword("plainPass", "hashedPass")).thenReturn(true);
+        when(usernamePasswordUtil.needsRehash("hashedPass")).thenReturn(true);
+        when(usernamePasswordUtil.hashPassword("plainPass")).thenReturn("strongerHash");
 
-        assertTrue(userService.authenticate("john.doe", "plainPass"));
-    }
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user("hashedPass")));
 
-    @Test
-    void testAuthenticate_wrongPassword() {
-        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user));
-        when(usernamePasswordUtil.checkPassword("wrongPass", "hashedPass")).thenReturn(false);
+        assertTrue(userService.checkCredentials(credentials, "plainPass"));
 
-        assertFalse(userService.authenticate("john.doe", "wrongPass"));
+        verify(userRepository).save(argThat(saved -> saved.getPassword().equals("strongerHash")));
     }
 
     @Test
-    void testAuthenticate_userInactive() {
-        user = user.toBuilder().isActive(false).build();
-        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user));
-
-        assertFalse(userService.authenticate("john.doe", "plainPass"));
-    }
+    void testCheckCredentials_wrongPassword_shouldNotRehash() {
+        when(usernamePasswordUtil.checkPassword("wrongPass", "hashedPass")).thenReturn(false);
 
-    @Test
-    void testAuthenticate_userNotFound() {
-        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.empty());
+        assertFalse(userService.checkCredentials(credentials, "wrongPass"));
 
-        assertFalse(userService.authenticate("john.doe", "plainPass"));
+        verify(userRepository, never()).save(any());
     }
 
     @Test
     void testChangePassword_success() {
-        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user));
+        when(userRepository.findCredentialsByUsername("john.doe")).thenReturn(Optional.of(credentials));
         when(usernamePasswordUtil.checkPassword("oldPass",
                 "hashedPass")).thenReturn(true);
         when(usernamePasswordUtil.hashPassword("newPass")).thenReturn("newHashedPass");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user("hashedPass")));
 
         userService.changePassword("john.doe", "oldPass", "newPass");
 
-        verify(userRepository).save(argThat(savedUser ->
-                savedUser.getUsername().equals("john.doe") &&
-                        savedUser.getPassword().equals("newHashedPass")
-        ));
+        verify(userRepository, times(1)).findCredentialsByUsername("john.doe");
+        verify(userRepository).save(argThat(saved -> saved.getPassword().equals("newHashedPass")
+                && saved.getUsername().equals("john.doe")));
+        verify(userRepository, never()).findByUsername(any());
     }
 
     @Test
     void testChangePasswordFailsWhenNewPasswordIsNull() {
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(userRepository.findCredentialsByUsername("john")).thenReturn(Optional.of(credentials));
         when(usernamePasswordUtil.checkPassword("oldPass",
                 "hashedOldPass")).thenReturn(true);
 
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-
         SecurityException thrown = assertThrows(SecurityException.class,
                 () -> userService.changePassword("john",
                         "wrongOldPass",
@@ -111,13 +104,10 @@ class UserServiceTest {
 
     @Test
     void testChangePasswordFailsWhenNewPasswordIsBlank() {
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(userRepository.findCredentialsByUsername("john")).thenReturn(Optional.of(credentials));
         when(usernamePasswordUtil.checkPassword("oldPass",
                 "hashedOldPass")).thenReturn(true);
 
-        // Simulate finding user again (as in the method)
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-
         assertThrows(SecurityException.class,
                 () -> userService.changePassword("john",
                         "oldPass",
@@ -127,7 +117,7 @@ class UserServiceTest {
 
     @Test
     void testChangePassword_authenticationFails() {
-        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user));
+        when(userRepository.findCredentialsByUsername("john.doe")).thenReturn(Optional.of(credentials));
         when(usernamePasswordUtil.checkPassword("wrongOldPass",
                 "hashedPass")).thenReturn(false);
 
@@ -136,11 +126,12 @@ class UserServiceTest {
                         "wrongOldPass",
                         "newPass")
         );
+        verify(userRepository, never()).save(any());
     }
 
     @Test
     void testChangePassword_newPasswordBlank() {
-        when(userRepository.findByUsername("john.doe")).thenReturn(Optional.of(user));
+        when(userRepository.findCredentialsByUsername("john.doe")).thenReturn(Optional.of(credentials));
         when(usernamePasswordUtil.checkPassword("oldPass", "hashedPass")).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class, () ->
@@ -149,14 +140,34 @@ class UserServiceTest {
     }
 
     @Test
-    void testChangePassword_userNotFoundAfterAuth() {
-        when(userRepository.findByUsername("john.doe"))
-                .thenReturn(Optional.of(user))
-                .thenReturn(Optional.empty());
+    void testChangePassword_userNotFound() {
+        when(userRepository.findCredentialsByUsername("john.doe")).thenReturn(Optional.empty());
+
+        assertThrows(NoResultException.class, () ->
+                userService.changePassword("john.doe", "oldPass", "newPass")
+        );
+    }
+
+    @Test
+    void testChangePassword_userRemovedBeforeUpdate() {
+        when(userRepository.findCredentialsByUsername("john.doe")).thenReturn(Optional.of(credentials));
         when(usernamePasswordUtil.checkPassword("oldPass", "hashedPass")).thenReturn(true);
+        when(usernamePasswordUtil.hashPassword("newPass")).thenReturn("newHashedPass");
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(NoResultException.class, () ->
                 userService.changePassword("john.doe", "oldPass", "newPass")
         );
     }
+
+    private static User user(String password) {
+        return User.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .username("john.doe")
+                .password(password)
+                .isActive(true)
+                .build();
+    }
 }
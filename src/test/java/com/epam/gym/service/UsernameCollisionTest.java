@@ -0,0 +1,86 @@
+package com.epam.gym.service;
+
+import com.epam.gym.dto.TraineeRegistrationRequest;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.User;
+import com.epam.gym.exception.TraineeCreationException;
+import com.epam.gym.repository.TrainingTypeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A username taken behind the allocator's back (another node, SQL) fails the registration with
+ * {@link TraineeCreationException} and makes the next registration of that name pick a free one.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:username-collision;DB_CLOSE_DELAY=-1")
+class UsernameCollisionTest {
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private TrainerService trainerService;
+
+    @Autowired
+    private TrainingTypeRepository trainingTypeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private String lastName;
+
+    @BeforeEach
+    void setUp() {
+        lastName = "Collision" + System.nanoTime();
+    }
+
+    @Test
+    void createTrainee_usernameTakenElsewhere_shouldFailThenReseed() {
+        String base = "anna." + lastName.toLowerCase();
+        assertEquals(base, traineeService.createTrainee(request()).username());
+        insertUser(base + "1");
+
+        assertThrows(TraineeCreationException.class, () -> traineeService.createTrainee(request()));
+
+        assertEquals(base + "2", traineeService.createTrainee(request()).username());
+    }
+
+    @Test
+    void createTrainer_usernameTakenElsewhere_shouldFailThenReseed() {
+        String base = "anna." + lastName.toLowerCase();
+        TrainingType trainingType = trainingTypeRepository.findAll().get(0);
+        assertEquals(base, trainerService.createTrainer("Anna", lastName, trainingType).username());
+        insertUser(base + "1");
+
+        assertThrows(TraineeCreationException.class, () -> trainerService.createTrainer("Anna", lastName, trainingType));
+
+        assertEquals(base + "2", trainerService.createTrainer("Anna", lastName, trainingType).username());
+    }
+
+    private TraineeRegistrationRequest request() {
+        return new TraineeRegistrationRequest("Anna", lastName, LocalDate.of(1990, 1, 1), "Main St");
+    }
+
+    private void insertUser(String username) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.persist(User.builder()
+                .firstName("Anna")
+                .lastName(lastName)
+                .username(username)
+                .password("hash")
+                .isActive(true)
+                .build()));
+    }
+}
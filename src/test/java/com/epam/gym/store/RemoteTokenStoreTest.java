@@ -0,0 +1,217 @@
+package com.epam.gym.store;
+
+import com.epam.gym.exception.TokenStoreUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a Redis container, so the build needs Docker and fails rather than skipping the
+ * tests without it. Expiry is left to the server, so deadlines in these tests are short and real
+ * time passes.
+ */
+@Testcontainers
+class RemoteTokenStoreTest {
+
+    private static final long IDLE_TTL = Duration.ofMinutes(30).toMillis();
+    private static final long ABSOLUTE_TTL = Duration.ofHours(2).toMillis();
+    private static final long SHORT_TTL = 1000;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private final Clock clock = Clock.systemUTC();
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+    private RemoteTokenStore nodeA;
+    private RemoteTokenStore nodeB;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = connectionFactory(REDIS.getMappedPort(6379), Duration.ofSeconds(2));
+        redis = new StringRedisTemplate(connectionFactory);
+        redis.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        nodeA = new RemoteTokenStore(redis, 100, Duration.ofMinutes(5), clock);
+        nodeB = new RemoteTokenStore(redis, 0, Duration.ofMinutes(5), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void tokenSavedOnOneNode_shouldBeFoundOnAnother() {
+        nodeA.save("t1", session("john", IDLE_TTL));
+
+        StoredToken found = nodeB.access("t1", clock.millis(), IDLE_TTL);
+
+        assertEquals("john", found.username());
+        assertEquals(1, nodeB.size());
+        assertEquals(1, nodeB.sessionCount("john"));
+        assertNull(nodeB.access("missing", clock.millis(), IDLE_TTL));
+    }
+
+    @Test
+    void access_shouldSlideDeadlineOnServerAfterFlush() throws InterruptedException {
+        nodeA.save("t1", session("john", SHORT_TTL));
+
+        Thread.sleep(SHORT_TTL / 2);
+        assertNotNull(nodeA.access("t1", clock.millis(), SHORT_TTL));
+        nodeA.flushTouches();
+        Thread.sleep(SHORT_TTL * 3 / 4);
+
+        StoredToken found = nodeB.access("t1", clock.millis(), SHORT_TTL);
+        assertNotNull(found);
+        assertTrue(found.expiresAt() > clock.millis());
+
+        Thread.sleep(SHORT_TTL * 3 / 2);
+        assertNull(nodeB.access("t1", clock.millis(), SHORT_TTL));
+    }
+
+    @Test
+    void nearCache_shouldAnswerRepeatedLookupsWithoutRoundTrip() {
+        nodeA.save("t1", session("john", IDLE_TTL));
+        redis.delete("gym:token:t1");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("john", nodeA.access("t1", clock.millis(), IDLE_TTL).username());
+        }
+        assertNull(nodeB.access("t1", clock.millis(), IDLE_TTL));
+    }
+
+    @Test
+    void remove_shouldInvalidateNearCacheAndServer() {
+        nodeA.save("t1", session("john", IDLE_TTL));
+
+        assertNotNull(nodeA.remove("t1"));
+
+        assertNull(nodeA.access("t1", clock.millis(), IDLE_TTL));
+        assertNull(nodeB.access("t1", clock.millis(), IDLE_TTL));
+        assertNull(nodeB.remove("t1"));
+        assertEquals(0, nodeA.sessionCount("john"));
+    }
+
+    @Test
+    void removeAll_shouldDropSessionsIssuedOnEveryNode() {
+        nodeA.save("a1", session("john", IDLE_TTL));
+        nodeA.save("a2", session("john", IDLE_TTL));
+        nodeB.save("b1", session("john", IDLE_TTL));
+        nodeB.save("other", session("jane", IDLE_TTL));
+
+        List<String> removed = nodeB.removeAll("john");
+
+        assertEquals(3, removed.size());
+        assertNull(nodeB.access("a1", clock.millis(), IDLE_TTL));
+        assertNull(nodeA.access("b1", clock.millis(), IDLE_TTL));
+        assertEquals("jane", nodeA.access("other", clock.millis(), IDLE_TTL).username());
+        assertEquals(1, nodeA.size());
+        assertTrue(nodeA.removeAll("john").isEmpty());
+    }
+
+    @Test
+    void revocation_shouldBeSeenByEveryNodeUntilItLapses() throws InterruptedException {
+        long revokedAt = clock.millis();
+        nodeA.revoke("user:john", revokedAt, revokedAt + SHORT_TTL);
+
+        assertEquals(Map.of("user:john", revokedAt), nodeB.revokedAt(List.of("user:john", "user:jane")));
+        assertEquals(1, nodeB.revokedCount());
+
+        Thread.sleep(SHORT_TTL * 3 / 2);
+        nodeA.evictExpired(clock.millis());
+
+        assertTrue(nodeB.revokedAt(List.of("user:john")).isEmpty());
+        assertEquals(0, nodeB.revokedCount());
+    }
+
+    @Test
+    void evictExpired_shouldTrimDeadlineIndex() throws InterruptedException {
+        nodeA.save("t1", session("john", SHORT_TTL));
+        nodeA.save("t2", session("jane", IDLE_TTL));
+        Thread.sleep(SHORT_TTL * 3 / 2);
+
+        assertTrue(nodeA.evictExpired(clock.millis()).isEmpty());
+
+        assertEquals(1, nodeA.size());
+        assertEquals(0, nodeA.sessionCount("john"));
+    }
+
+    @Test
+    void saveAll_shouldStoreLargeBatches() {
+        Map<String, StoredToken> sessions = new HashMap<>();
+        for (int i = 0; i < 1200; i++) {
+            sessions.put("t" + i, session("user" + (i % 10), IDLE_TTL));
+        }
+
+        nodeA.saveAll(sessions);
+
+        assertEquals(1200, nodeB.size());
+        assertEquals(120, nodeB.sessionCount("user3"));
+    }
+
+    @Test
+    void accessAll_shouldServeNearCachedTokensAndFetchTheRest() {
+        nodeA.save("t1", session("john", IDLE_TTL));
+        nodeB.save("t2", session("jane", IDLE_TTL));
+        redis.delete("gym:token:t1");
+
+        Map<String, StoredToken> found = nodeA.accessAll(List.of("t1", "t2", "missing"), clock.millis(), IDLE_TTL);
+
+        assertEquals(2, found.size());
+        // t1 is near-cached on node A, so it is found although the server no longer has it
+        assertEquals("john", found.get("t1").username());
+        assertEquals("jane", found.get("t2").username());
+    }
+
+    @Test
+    void serverDown_shouldFailWithUnavailable() throws IOException {
+        int unusedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unusedPort = socket.getLocalPort();
+        }
+        LettuceConnectionFactory unreachable = connectionFactory(unusedPort, Duration.ofMillis(500));
+        try {
+            RemoteTokenStore store = new RemoteTokenStore(new StringRedisTemplate(unreachable), 0, Duration.ofMinutes(5), clock);
+
+            assertThrows(TokenStoreUnavailableException.class,
+                    () -> store.access("t1", clock.millis(), IDLE_TTL));
+        } finally {
+            unreachable.destroy();
+        }
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port, Duration timeout) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), port),
+                LettuceClientConfiguration.builder().commandTimeout(timeout).build());
+        connectionFactory.afterPropertiesSet();
+        return connectionFactory;
+    }
+
+    private StoredToken session(String username, long idleTtl) {
+        long now = clock.millis();
+        return new StoredToken(username, now, now + idleTtl, now + ABSOLUTE_TTL);
+    }
+}
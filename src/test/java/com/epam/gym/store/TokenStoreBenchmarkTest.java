@@ -0,0 +1,87 @@
+package com.epam.gym.store;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares token validation latency of the in-process store with the remote store, with and
+ * without its near-cache, against a Redis container. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark} (needs Docker).
+ */
+@Tag("benchmark")
+@Testcontainers
+class TokenStoreBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenStoreBenchmarkTest.class);
+
+    private static final int TOKENS = 10_000;
+    private static final int WARMUP = 50_000;
+    private static final int MEASURED = 200_000;
+    private static final long IDLE_TTL = Duration.ofMinutes(30).toMillis();
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @Test
+    void validationLatency() {
+        Clock clock = Clock.systemUTC();
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redis = new StringRedisTemplate(connectionFactory);
+        try (RemoteTokenStore nearCached = new RemoteTokenStore(redis, TOKENS, Duration.ofSeconds(30), clock);
+             RemoteTokenStore uncached = new RemoteTokenStore(redis, 0, Duration.ofSeconds(30), clock)) {
+            report("memory", new InMemoryTokenStore(), clock);
+            report("remote+near-cache", nearCached, clock);
+            report("remote", uncached, clock);
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    private void report(String name, TokenStore store, Clock clock) {
+        String[] tokens = new String[TOKENS];
+        long now = clock.millis();
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = "token-" + i;
+            store.save(tokens[i], new StoredToken("user" + i, now, now + IDLE_TTL, now + Duration.ofHours(12).toMillis()));
+        }
+        run(store, tokens, clock, new long[WARMUP]);
+        long[] latencies = run(store, tokens, clock, new long[MEASURED]);
+        Arrays.sort(latencies);
+        log.info("{}: p50={}us p99={}us p99.9={}us max={}us", name,
+                micros(latencies, 0.50), micros(latencies, 0.99), micros(latencies, 0.999),
+                latencies[latencies.length - 1] / 1000.0);
+    }
+
+    private static long[] run(TokenStore store, String[] tokens, Clock clock, long[] latencies) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < latencies.length; i++) {
+            String token = tokens[random.nextInt(tokens.length)];
+            long start = System.nanoTime();
+            StoredToken session = store.access(token, clock.millis(), IDLE_TTL);
+            latencies[i] = System.nanoTime() - start;
+            assertNotNull(session);
+        }
+        return latencies;
+    }
+
+    private static double micros(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(quantile * sorted.length))] / 1000.0;
+    }
+}
@@ -0,0 +1,116 @@
+package com.epam.gym.util;
+
+import com.epam.gym.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordVerifierTest {
+
+    private PasswordVerifier passwordVerifier;
+
+    @BeforeEach
+    void setUp() {
+        passwordVerifier = verifier(new BCryptPasswordEncoder(6), 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordVerifier.shutdown();
+    }
+
+    @Test
+    void hash_shouldNotStorePlainText() {
+        String hash = passwordVerifier.hash("secret");
+
+        assertNotEquals("secret", hash);
+        assertTrue(passwordVerifier.matches("secret", hash));
+        assertFalse(passwordVerifier.matches("wrong", hash));
+    }
+
+    @Test
+    void plainText_shouldNeverMatch() {
+        assertFalse(passwordVerifier.matches("secret", "secret"));
+        assertFalse(passwordVerifier.needsRehash("secret"));
+    }
+
+    @Test
+    void weakerCost_shouldNeedRehash() {
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+        String current = passwordVerifier.hash("secret");
+
+        assertTrue(passwordVerifier.needsRehash(weak));
+        assertFalse(passwordVerifier.needsRehash(current));
+    }
+
+    @Test
+    void repeatedLogin_shouldBeServedFromCache() {
+        String hash = passwordVerifier.hash("secret");
+
+        assertTrue(passwordVerifier.matches("secret", hash));
+        assertTrue(passwordVerifier.matches("secret", hash));
+        assertFalse(passwordVerifier.matches("other", hash));
+
+        assertEquals(1, passwordVerifier.getCacheHitCount());
+    }
+
+    @Test
+    void fullQueue_shouldRejectInsteadOfBlocking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordVerifier saturated = verifier(new BlockingEncoder(release), 1, 1);
+        String hash = passwordVerifier.hash("secret");
+        try {
+            Thread first = new Thread(() -> catchOverload(saturated, hash));
+            Thread second = new Thread(() -> catchOverload(saturated, hash));
+            first.start();
+            second.start();
+            while (saturated.queueDepth() < 1) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(ServiceOverloadedException.class, () -> saturated.matches("secret", hash));
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    private static void catchOverload(PasswordVerifier verifier, String hash) {
+        try {
+            verifier.matches("secret", hash);
+        } catch (ServiceOverloadedException ignored) {
+            // timed out or rejected while the test is saturating the pool
+        }
+    }
+
+    private static PasswordVerifier verifier(BCryptPasswordEncoder encoder, int threads, int queueCapacity) {
+        return new PasswordVerifier(encoder, threads, queueCapacity, 5000, 100,
+                Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    private static class BlockingEncoder extends BCryptPasswordEncoder {
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch release) {
+            super(4);
+            this.release = release;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+}
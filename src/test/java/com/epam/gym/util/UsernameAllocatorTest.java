@@ -0,0 +1,135 @@
+package com.epam.gym.util;
+
+import com.epam.gym.dto.TraineeRegistrationRequest;
+import com.epam.gym.entity.Trainee;
+import com.epam.gym.entity.Trainer;
+import com.epam.gym.entity.TrainingType;
+import com.epam.gym.entity.TrainingTypeEnum;
+import com.epam.gym.entity.User;
+import com.epam.gym.mapper.TraineeMapper;
+import com.epam.gym.repository.TraineeRepository;
+import com.epam.gym.repository.TrainerRepository;
+import com.epam.gym.repository.UserRepository;
+import com.epam.gym.service.TraineeService;
+import com.epam.gym.service.TrainerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UsernameAllocatorTest {
+
+    /** Usernames "in the database"; adding a taken one fails like the unique constraint. */
+    private Set<String> usernames;
+    private UserRepository userRepository;
+    private UsernameAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        usernames = ConcurrentHashMap.newKeySet();
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findUsernamesLike(anyString())).thenAnswer(i -> {
+            String prefix = unescape(i.getArgument(0));
+            return usernames.stream().filter(username -> username.startsWith(prefix)).toList();
+        });
+        allocator = new UsernameAllocator(userRepository, 100);
+    }
+
+    @Test
+    void freeBase_shouldBeUsedAsIs() {
+        assertEquals("john.smith", allocator.allocate("john.smith"));
+        assertEquals("john.smith1", allocator.allocate("john.smith"));
+        assertEquals("john.smith2", allocator.allocate("john.smith"));
+        verify(userRepository, times(1)).findUsernamesLike(anyString());
+    }
+
+    @Test
+    void seed_shouldContinueAfterHighestNumericSuffix() {
+        usernames.addAll(List.of("john.smith", "john.smith3", "john.smith12", "john.smithson", "john.smith7b"));
+
+        assertEquals("john.smith13", allocator.allocate("john.smith"));
+        assertEquals("anna.lee", allocator.allocate("anna.lee"));
+    }
+
+    @Test
+    void seed_shouldEscapeLikeWildcards() {
+        usernames.add("o_neil.x");
+
+        allocator.allocate("o_neil.x");
+
+        verify(userRepository).findUsernamesLike("o!_neil.x%");
+    }
+
+    @Test
+    void forget_shouldReseedFromDatabase() {
+        assertEquals("john.smith", allocator.allocate("john.smith"));
+        usernames.addAll(List.of("john.smith", "john.smith1", "john.smith2"));
+
+        allocator.forget("john.smith");
+
+        assertEquals("john.smith3", allocator.allocate("john.smith"));
+        verify(userRepository, times(2)).findUsernamesLike(anyString());
+    }
+
+    @Test
+    void concurrentRegistrations_sameName_shouldAllGetDistinctUsernames() throws Exception {
+        usernames.addAll(List.of("john.smith", "john.smith7", "john.smithson"));
+        UsernamePasswordUtil util = new UsernamePasswordUtil(allocator, mock(PasswordVerifier.class));
+        TraineeRepository traineeRepository = mock(TraineeRepository.class);
+        when(traineeRepository.saveAndFlush(any(Trainee.class))).thenAnswer(i -> insert(i.<Trainee>getArgument(0).getUser(), i.getArgument(0)));
+        TrainerRepository trainerRepository = mock(TrainerRepository.class);
+        when(trainerRepository.saveAndFlush(any(Trainer.class))).thenAnswer(i -> insert(i.<Trainer>getArgument(0).getUser(), i.getArgument(0)));
+        UsernameFilter notBuilt = new UsernameFilter(userRepository, 100, 0.01, new SimpleMeterRegistry());
+        TraineeService traineeService = new TraineeService(traineeRepository, util, new TraineeMapper(), notBuilt);
+        TrainerService trainerService = new TrainerService(trainerRepository, util, notBuilt);
+        TrainingType cardio = new TrainingType(TrainingTypeEnum.CARDIO);
+
+        int registrations = 4000;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<String>> results = new ArrayList<>(registrations);
+        try {
+            for (int i = 0; i < registrations; i++) {
+                boolean trainee = i % 2 == 0;
+                results.add(executor.submit(() -> trainee
+                        ? traineeService.createTrainee(new TraineeRegistrationRequest("John", "Smith",
+                                LocalDate.of(1990, 1, 1), "Main St")).username()
+                        : trainerService.createTrainer("John", "Smith", cardio).username()));
+            }
+            for (Future<String> result : results) {
+                assertNotNull(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(registrations + 3, usernames.size());
+        assertTrue(usernames.contains("john.smith8"));
+        assertTrue(usernames.contains("john.smith" + (registrations + 7)));
+        verify(userRepository, times(1)).findUsernamesLike(anyString());
+    }
+
+    private <T> T insert(User user, T entity) {
+        if (!usernames.add(user.getUsername())) {
+            throw new DataIntegrityViolationException("Duplicate username " + user.getUsername());
+        }
+        return entity;
+    }
+
+    private static String unescape(String pattern) {
+        return pattern.substring(0, pattern.length() - 1).replaceAll("!(.)", "$1");
+    }
+}
@@ -0,0 +1,122 @@
+package com.epam.gym.util;
+
+import com.epam.gym.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UsernameFilterTest {
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private UsernameFilter filter;
+    private Set<String> database;
+    private int queries;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new UsernameFilter(userRepository, 1000, 0.01, meterRegistry);
+        database = new HashSet<>();
+        queries = 0;
+    }
+
+    @Test
+    void beforeFirstBuild_shouldAlwaysQuery() {
+        assertEquals(Optional.empty(), filter.lookup("ghost", this::query));
+
+        assertEquals(1, queries);
+    }
+
+    @Test
+    void unknownUsername_shouldSkipDatabase() {
+        build(List.of("john.smith", "jane.doe"));
+
+        assertEquals(Optional.of("john.smith"), filter.lookup("john.smith", this::query));
+        assertEquals(Optional.empty(), filter.lookup("never.existed", this::query));
+        assertEquals(Optional.empty(), filter.lookup(null, this::query));
+
+        assertEquals(1, queries);
+        assertEquals(2, meterRegistry.get("gym.username.filter.lookups").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    void put_shouldMakeNewUsernameVisible() {
+        build(List.of("john.smith"));
+
+        database.add("new.user");
+        filter.put("new.user");
+
+        assertEquals(Optional.of("new.user"), filter.lookup("new.user", this::query));
+    }
+
+    @Test
+    void confirmedLookup_shouldFindUsersAddedBehindTheFilter() {
+        build(List.of("john.smith"));
+        database.add("created.elsewhere");
+
+        assertEquals(Optional.empty(), filter.lookup("created.elsewhere", this::query));
+        assertEquals(Optional.of("created.elsewhere"), filter.lookupConfirmed("created.elsewhere", this::query));
+        assertEquals(Optional.of("created.elsewhere"), filter.lookup("created.elsewhere", this::query));
+        assertEquals(Optional.empty(), filter.lookupConfirmed("never.existed", this::query));
+
+        assertEquals(3, queries);
+        assertEquals(1, meterRegistry.get("gym.username.filter.lookups").tag("result", "stale").counter().count());
+    }
+
+    @Test
+    void rebuild_shouldDropDeletedUsernamesAndKeepConcurrentInserts() {
+        build(List.of("john.smith", "deleted.user"));
+        database.remove("deleted.user");
+        when(userRepository.findAllUsernames()).thenAnswer(i -> {
+            database.add("registered.meanwhile");
+            filter.put("registered.meanwhile");
+            return List.of("john.smith");
+        });
+
+        filter.rebuild();
+
+        assertEquals(Optional.empty(), filter.lookup("deleted.user", this::query));
+        assertEquals(Optional.of("registered.meanwhile"), filter.lookup("registered.meanwhile", this::query));
+        assertEquals(1, queries);
+    }
+
+    @Test
+    void falsePositiveRate_shouldStayNearTarget() {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            usernames.add("user" + i);
+        }
+        build(usernames);
+
+        for (int i = 0; i < 20_000; i++) {
+            filter.lookup("absent" + i, username -> Optional.empty());
+        }
+
+        double rate = meterRegistry.get("gym.username.filter.false-positive-rate").gauge().value();
+        assertTrue(rate < 0.02, "false-positive rate " + rate);
+        assertTrue(meterRegistry.get("gym.username.filter.expected-fpp").gauge().value() < 0.02);
+    }
+
+    private void build(List<String> usernames) {
+        database.addAll(usernames);
+        when(userRepository.count()).thenReturn((long) usernames.size());
+        when(userRepository.findAllUsernames()).thenReturn(usernames);
+        filter.build();
+    }
+
+    private Optional<String> query(String username) {
+        queries++;
+        return database.contains(username) ? Optional.of(username) : Optional.empty();
+    }
+}